@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index;
+
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.FieldInfo.IndexOptions;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+/**
+ * Declares how each field of the index is stored and indexed.
+ * <p>
+ * Most fields hold identifiers (method and type keys, paths, names) that are only ever matched as a whole. They are
+ * indexed as single lower case terms without norms, positions or term frequencies. Only {@link Fields#FULL_TEXT} is
+ * split into words and keeps everything needed for scoring and phrase queries. Numeric fields are indexed as trie
+ * terms so that they can be searched with {@link org.apache.lucene.search.NumericRangeQuery}.
+ * <p>
+ * Lucene cannot change how an existing field is indexed, so any change to this schema must increase {@link #VERSION},
+ * which selects a new index folder.
+ */
+public final class FieldSchema {
+
+    /**
+     * Version of the schema; part of the name of the index folder.
+     */
+    public static final int VERSION = 11;
+
+    /**
+     * Precision step of all numeric fields. Timestamps are shared by all documents of an indexing job, so there are
+     * few distinct values and a coarse step keeps the number of terms per document small.
+     */
+    public static final int PRECISION_STEP = 8;
+
+    public static final class FieldSpec {
+        private final boolean stored;
+        private final boolean indexed;
+        private final boolean tokenized;
+        private final boolean norms;
+        private final boolean positions;
+        private final boolean numeric;
+
+        private FieldSpec(final boolean stored, final boolean indexed, final boolean tokenized, final boolean norms,
+                final boolean positions, final boolean numeric) {
+            this.stored = stored;
+            this.indexed = indexed;
+            this.tokenized = tokenized;
+            this.norms = norms;
+            this.positions = positions;
+            this.numeric = numeric;
+        }
+
+        public boolean isStored() {
+            return stored;
+        }
+
+        public boolean isIndexed() {
+            return indexed;
+        }
+
+        /**
+         * @return <code>true</code> if values are split into several terms by the field's analyzer;
+         *         <code>false</code> if the whole value is indexed as one lower case term
+         */
+        public boolean isTokenized() {
+            return tokenized;
+        }
+
+        /**
+         * @return <code>true</code> if values are indexed as {@link org.apache.lucene.document.NumericField}s
+         */
+        public boolean isNumeric() {
+            return numeric;
+        }
+
+        public Field.Store getStore() {
+            return stored ? Field.Store.YES : Field.Store.NO;
+        }
+
+        public Field.Index getIndex() {
+            if (!indexed) {
+                return Field.Index.NO;
+            }
+            if (tokenized) {
+                return norms ? Field.Index.ANALYZED : Field.Index.ANALYZED_NO_NORMS;
+            }
+            return norms ? Field.Index.NOT_ANALYZED : Field.Index.NOT_ANALYZED_NO_NORMS;
+        }
+
+        public IndexOptions getIndexOptions() {
+            return positions ? IndexOptions.DOCS_AND_FREQS_AND_POSITIONS : IndexOptions.DOCS_ONLY;
+        }
+
+        private FieldSpec stored() {
+            return new FieldSpec(true, indexed, tokenized, norms, positions, numeric);
+        }
+    }
+
+    private static final FieldSpec KEYWORD = new FieldSpec(false, true, false, false, false, false);
+    private static final FieldSpec STORED_KEYWORD = new FieldSpec(true, true, false, false, false, false);
+    private static final FieldSpec STORED_ONLY = new FieldSpec(true, false, false, false, false, false);
+    private static final FieldSpec STORED_NUMBER = new FieldSpec(true, true, false, false, false, true);
+    private static final FieldSpec TEXT = new FieldSpec(false, true, true, true, true, false);
+
+    private static final FieldSchema DEFAULT = new FieldSchema(KEYWORD, ImmutableMap.<String, FieldSpec> builder()
+            .put(Fields.FULL_TEXT, TEXT)
+            // we read these fields from search results
+            .put(Fields.TYPE, STORED_KEYWORD)
+            .put(Fields.VARIABLE_NAME, STORED_KEYWORD)
+            .put(Fields.QUALIFIED_NAME, STORED_KEYWORD)
+            .put(Fields.DECLARING_TYPE, STORED_KEYWORD)
+            .put(Fields.DECLARING_METHOD, STORED_KEYWORD)
+            .put(Fields.PARAMETER_TYPES_STRUCTURAL, STORED_KEYWORD)
+            .put(Fields.USED_AS_PARAMETER_IN_METHODS, STORED_KEYWORD)
+            .put(Fields.TIMESTAMP, STORED_NUMBER)
+            // we never search for these fields
+            .put(Fields.JAVA_ELEMENT_HANDLE, STORED_ONLY)
+            .put(Fields.SNIPPET_RANGES, STORED_ONLY)
+            .build());
+
+    private final FieldSpec defaultSpec;
+    private final Map<String, FieldSpec> specs;
+
+    private FieldSchema(final FieldSpec defaultSpec, final Map<String, FieldSpec> specs) {
+        this.defaultSpec = defaultSpec;
+        this.specs = specs;
+    }
+
+    public static FieldSchema getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return the spec of the given field; fields that are not declared explicitly are keywords
+     */
+    public FieldSpec get(final String fieldName) {
+        final FieldSpec spec = specs.get(fieldName);
+        return spec == null ? defaultSpec : spec;
+    }
+
+    /**
+     * @return a copy of this schema that stores every field, e.g., to inspect indexed documents in tests
+     */
+    public FieldSchema withAllFieldsStored() {
+        final Map<String, FieldSpec> stored = Maps.newHashMap();
+        for (final Entry<String, FieldSpec> entry : specs.entrySet()) {
+            stored.put(entry.getKey(), entry.getValue().stored());
+        }
+        return new FieldSchema(defaultSpec.stored(), ImmutableMap.copyOf(stored));
+    }
+}
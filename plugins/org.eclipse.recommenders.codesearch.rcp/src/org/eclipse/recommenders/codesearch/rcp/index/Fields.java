@@ -35,6 +35,11 @@ public class Fields {
      * Java handle used to open a given java element in an editor.
      */
     public static final String JAVA_ELEMENT_HANDLE = "Handle";
+
+    /**
+     * Source ranges used to show the entity in search results without parsing its source code again.
+     */
+    public static final String SNIPPET_RANGES = "SnippetRanges";
     
     // SimpleField
     /** The unique represantation of the entity. Abbreviated as \cquote{FQN}<br /><br />
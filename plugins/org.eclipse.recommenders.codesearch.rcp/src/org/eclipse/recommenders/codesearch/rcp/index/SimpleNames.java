@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index;
+
+import static com.google.common.base.Optional.absent;
+import static com.google.common.base.Optional.of;
+
+import java.util.Set;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Companion fields that index type and method identifiers by their simple names.
+ * <p>
+ * Users mostly search for unqualified names, e.g., <code>IWorkbench</code>. On the identifier fields themselves this
+ * needs a query with a leading wildcard (<code>L*&#47;IWorkbench</code>) that scans the whole term dictionary of the
+ * field. For each of the fields below, the indexer therefore also adds the simple name of every value to
+ * <code>&lt;field&gt;SimpleName</code>, where an unqualified name is a single term lookup:
+ * <ul>
+ * <li>types: <code>Ljava/util/Map$Entry</code> is indexed as <code>Map$Entry</code></li>
+ * <li>methods: <code>Ljava/util/List.add(Ljava/lang/Object;)Z</code> is indexed as <code>List.add</code></li>
+ * </ul>
+ */
+public final class SimpleNames {
+
+    public static final String FIELD_SUFFIX = "SimpleName";
+
+    private static final Set<String> TYPE_FIELDS = ImmutableSet.of(Fields.USED_TYPES, Fields.USED_TYPES_IN_TRY,
+            Fields.USED_TYPES_IN_FINALLY, Fields.IMPLEMENTED_TYPES, Fields.EXTENDED_TYPE, Fields.ALL_IMPLEMENTED_TYPES,
+            Fields.ALL_EXTENDED_TYPES, Fields.PARAMETER_TYPES, Fields.RETURN_TYPE, Fields.INSTANCEOF_TYPES,
+            Fields.FIELD_TYPE, Fields.CAUGHT_TYPE, Fields.DECLARED_FIELD_TYPES, Fields.DECLARING_TYPE,
+            Fields.VARIABLE_TYPE, Fields.CHECKED_EXCEPTIONS, Fields.ANNOTATIONS);
+
+    private static final Set<String> METHOD_FIELDS = ImmutableSet.of(Fields.USED_METHODS, Fields.USED_METHODS_IN_TRY,
+            Fields.USED_METHODS_IN_FINALLY, Fields.OVERRIDDEN_METHODS, Fields.DECLARED_METHODS,
+            Fields.DECLARING_METHOD, Fields.USED_AS_PARAMETER_IN_METHODS, Fields.USED_AS_TAGET_FOR_METHODS);
+
+    private SimpleNames() {
+    }
+
+    /**
+     * @return the companion field of the given identifier field, if it has one
+     */
+    public static Optional<String> getField(final String fieldName) {
+        if (TYPE_FIELDS.contains(fieldName) || METHOD_FIELDS.contains(fieldName)) {
+            return of(fieldName + FIELD_SUFFIX);
+        }
+        return absent();
+    }
+
+    public static boolean isMethodField(final String fieldName) {
+        return METHOD_FIELDS.contains(fieldName);
+    }
+
+    /**
+     * @return the simple name to index in the companion field for the given value of an identifier field
+     */
+    public static Optional<String> getSimpleName(final String fieldName, final String identifier) {
+        if (TYPE_FIELDS.contains(fieldName)) {
+            return ofType(identifier);
+        }
+        if (METHOD_FIELDS.contains(fieldName)) {
+            return ofMethod(identifier);
+        }
+        return absent();
+    }
+
+    /**
+     * @return the simple name of a type identifier, or nothing for primitive types
+     */
+    public static Optional<String> ofType(final String identifier) {
+        int start = 0;
+        while (start < identifier.length() && identifier.charAt(start) == '[') {
+            start++;
+        }
+        if (start >= identifier.length() - 1 || identifier.charAt(start) != 'L') {
+            return absent();
+        }
+        final int slash = identifier.lastIndexOf('/');
+        return of(identifier.substring(slash == -1 ? start + 1 : slash + 1));
+    }
+
+    /**
+     * @return the simple name of the declaring type and the name of the method, separated by a dot
+     */
+    public static Optional<String> ofMethod(final String identifier) {
+        final int parameters = identifier.indexOf('(');
+        final int dot = identifier.lastIndexOf('.', parameters == -1 ? identifier.length() : parameters);
+        if (dot == -1) {
+            return absent();
+        }
+        final Optional<String> type = ofType(identifier.substring(0, dot));
+        if (!type.isPresent()) {
+            return absent();
+        }
+        final String method = identifier.substring(dot + 1, parameters == -1 ? identifier.length() : parameters);
+        return of(type.get() + "." + method);
+    }
+}
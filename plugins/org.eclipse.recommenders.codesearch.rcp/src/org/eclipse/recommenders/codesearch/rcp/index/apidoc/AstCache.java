@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.apidoc;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.ui.SharedASTProvider;
+import org.eclipse.recommenders.internal.codesearch.rcp.CodesearchIndexPlugin;
+import org.eclipse.recommenders.rcp.utils.Logs;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Keeps the ASTs of the type roots whose rows were rendered last. Search hits tend to come from a few files, and the
+ * content and label providers of adjacent rows would otherwise parse the same file again and again.
+ * <p>
+ * At most a fixed number of ASTs is kept, the least recently used is dropped first, and all of them are softly
+ * referenced so that they do not compete with the rest of the IDE for memory. An AST is only reused as long as the
+ * modification stamp of its file is unchanged. Compilation units with unsaved changes are never cached.
+ */
+public class AstCache {
+
+    /**
+     * Stamp of type roots whose content cannot be told apart from an earlier version.
+     */
+    protected static final long NO_STAMP = IResource.NULL_STAMP;
+
+    private static final class Entry {
+        private final long stamp;
+        private final CompilationUnit ast;
+
+        private Entry(final long stamp, final CompilationUnit ast) {
+            this.stamp = stamp;
+            this.ast = ast;
+        }
+    }
+
+    private final Cache<ITypeRoot, Entry> asts;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public AstCache(final int maximumSize) {
+        asts = CacheBuilder.newBuilder().maximumSize(maximumSize).softValues().build();
+    }
+
+    /**
+     * @return the AST of the given type root, parsed with bindings; absent if it has no source or could not be parsed
+     */
+    public Optional<CompilationUnit> get(final ITypeRoot root) {
+        final long stamp = getModificationStamp(root);
+        if (stamp == NO_STAMP) {
+            misses.incrementAndGet();
+            return Optional.fromNullable(parse(root));
+        }
+        final Entry cached = asts.getIfPresent(root);
+        if (cached != null && cached.stamp != stamp) {
+            asts.asMap().remove(root, cached);
+        }
+        final boolean[] parsed = new boolean[1];
+        try {
+            // rows of the same file are rendered concurrently; only the first one parses it
+            final Entry entry = asts.get(root, new Callable<Entry>() {
+
+                @Override
+                public Entry call() {
+                    parsed[0] = true;
+                    misses.incrementAndGet();
+                    return new Entry(stamp, parse(root));
+                }
+            });
+            if (entry.stamp != stamp) {
+                // replaced by a row that saw an older version of the file
+                misses.incrementAndGet();
+                return Optional.fromNullable(parse(root));
+            }
+            if (!parsed[0]) {
+                hits.incrementAndGet();
+            }
+            return Optional.fromNullable(entry.ast);
+        } catch (final ExecutionException e) {
+            Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Failed to parse %s", root.getElementName());
+        } catch (final UncheckedExecutionException e) {
+            Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Failed to parse %s", root.getElementName());
+        }
+        return Optional.absent();
+    }
+
+    protected CompilationUnit parse(final ITypeRoot root) {
+        return SharedASTProvider.getAST(root, SharedASTProvider.WAIT_YES, null);
+    }
+
+    /**
+     * @return the modification stamp of the file the type root was read from. Class files change only with their
+     *         archive or output folder.
+     */
+    protected long getModificationStamp(final ITypeRoot root) {
+        try {
+            if (root instanceof ICompilationUnit && ((ICompilationUnit) root).hasUnsavedChanges()) {
+                return NO_STAMP;
+            }
+            IResource resource = root.getResource();
+            if (resource != null) {
+                return resource.getModificationStamp();
+            }
+            final IPackageFragmentRoot archive = (IPackageFragmentRoot) root
+                    .getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+            if (archive == null) {
+                return NO_STAMP;
+            }
+            resource = archive.getResource();
+            if (resource != null) {
+                return resource.getModificationStamp();
+            }
+            final long lastModified = archive.getPath().toFile().lastModified();
+            return lastModified == 0 ? NO_STAMP : lastModified;
+        } catch (final JavaModelException e) {
+            return NO_STAMP;
+        }
+    }
+
+    public void clear() {
+        asts.invalidateAll();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return share of requests that were answered without parsing, between 0 and 1
+     */
+    public double getHitRate() {
+        final long h = hits.get();
+        final long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d ASTs, %d hits, %d misses, hit rate %.0f%%", asts.size(), getHits(), getMisses(),
+                getHitRate() * 100);
+    }
+}
@@ -11,13 +11,9 @@
 package org.eclipse.recommenders.codesearch.rcp.index.apidoc;
 
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.FieldSelector;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.ITypeRoot;
@@ -25,7 +21,6 @@ import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
-import org.eclipse.jdt.ui.SharedASTProvider;
 import org.eclipse.jface.viewers.ILazyContentProvider;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.Viewer;
@@ -38,14 +33,10 @@ import org.eclipse.recommenders.rcp.utils.Logs;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Table;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.base.Optional;
 
 final class ContentProvider implements ILazyContentProvider {
 
-    private final ExecutorService s = new ThreadPoolExecutor(Runtime.getRuntime().availableProcessors(), Runtime
-            .getRuntime().availableProcessors(), 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(20),
-
-    new ThreadFactoryBuilder().setPriority(Thread.MIN_PRIORITY).build());
     public static MethodDeclaration EMPTY;
     static {
         final AST ast = AST.newAST(AST.JLS4);
@@ -54,118 +45,158 @@ final class ContentProvider implements ILazyContentProvider {
         EMPTY.setBody(ast.newBlock());
     }
 
+    /**
+     * A row needs the handle of the indexed element, the source ranges to summarize it and, for variable usages, the
+     * name of the variable.
+     */
+    private static final FieldSelector ROW_FIELDS = SearchResult.fields(Fields.JAVA_ELEMENT_HANDLE,
+            Fields.SNIPPET_RANGES, Fields.VARIABLE_NAME);
+
     private TableViewer viewer;
     private final SearchResult searchResults;
     private final String searchType;
     final String searchVar;
+    private final RowRenderingScheduler.Session rows;
+    private final AstCache asts;
 
-    ContentProvider(final SearchResult searchResults, final String typeName, final String searchType, final JavaElementResolver jdtResolver) {
+    ContentProvider(final SearchResult searchResults, final String typeName, final String searchType,
+            final JavaElementResolver jdtResolver, final RowRenderingScheduler scheduler, final AstCache asts) {
         this.searchResults = searchResults;
         this.searchType = searchType;
         this.searchVar = typeName;
+        this.rows = scheduler.newSession();
+        this.asts = asts;
     }
 
     @Override
     public void dispose() {
-        s.shutdown();
+        rows.cancel();
     }
 
     @Override
     public void updateElement(final int index) {
-        try {
-            s.submit(new Runnable() {
-                private IMethod jdtMethod;
-                private MethodDeclaration astMethod;
-                private IJavaElement element;
-
-                @Override
-                public void run() {
-                    try {
-                        final Document doc = searchResults.scoreDoc(index);
-                        if (!findHandle(doc)) {
-                            final IllegalStateException e = new IllegalStateException("Could not find handle "
-                                    + doc.get(Fields.JAVA_ELEMENT_HANDLE));
-                            updateIndex(new Selection(e), index);
-                            return;
-                        }
-                        if(!hasEnclosingMethod())
-                        {
-                            
-                        }
-                        if (!findJdtMethod()) {
-                            updateIndex(new Selection(EMPTY, "", doc), index);
-                            return;
-                        }
-                        if (!findAstMethod()) {
-                            updateIndex(new Selection(EMPTY, "", doc), index);
-                            return;
-                        }
-                        if(searchType.equals(LocalExamplesProvider.VAR_USAGE_SEARCH))
-                        {
-                            updateIndex(new Selection(astMethod, doc.get(Fields.VARIABLE_NAME), doc), index);
-                        }
-                        else
-                        {String s = searchVar;
-                            updateIndex(new Selection(astMethod, searchVar, doc), index);
-                        }
-                        
-                    } catch (final Exception e) {
+        updateVisibleRows();
+        rows.submit(index, new Runnable() {
+            private IMethod jdtMethod;
+            private MethodDeclaration astMethod;
+            private IJavaElement element;
+
+            @Override
+            public void run() {
+                try {
+                    final Document doc = searchResults.scoreDoc(index, ROW_FIELDS);
+                    if (!findHandle(doc)) {
+                        final IllegalStateException e = new IllegalStateException("Could not find handle "
+                                + doc.get(Fields.JAVA_ELEMENT_HANDLE));
                         updateIndex(new Selection(e), index);
+                        return;
+                    }
+                    // rows of documents indexed with source ranges need no AST
+                    final Optional<Snippet> snippet = Snippet.read(element, doc,
+                            searchType.equals(LocalExamplesProvider.VAR_USAGE_SEARCH));
+                    if (snippet.isPresent()) {
+                        updateIndex(new Selection(snippet.get(), doc), index);
+                        return;
+                    }
+                    if(!hasEnclosingMethod())
+                    {
+                        
+                    }
+                    if (!findJdtMethod()) {
+                        updateIndex(new Selection(EMPTY, "", doc), index);
+                        return;
                     }
+                    if (!findAstMethod()) {
+                        updateIndex(new Selection(EMPTY, "", doc), index);
+                        return;
+                    }
+                    if(searchType.equals(LocalExamplesProvider.VAR_USAGE_SEARCH))
+                    {
+                        updateIndex(new Selection(astMethod, doc.get(Fields.VARIABLE_NAME), doc), index);
+                    }
+                    else
+                    {String s = searchVar;
+                        updateIndex(new Selection(astMethod, searchVar, doc), index);
+                    }
+                    
+                } catch (final Exception e) {
+                    updateIndex(new Selection(e), index);
                 }
+            }
 
-                private boolean findHandle(final Document doc) {
-                    final String handle = doc.get(Fields.JAVA_ELEMENT_HANDLE);
-                    element = JavaCore.create(handle);
-                    return element != null;
-                }
+            private boolean findHandle(final Document doc) {
+                final String handle = doc.get(Fields.JAVA_ELEMENT_HANDLE);
+                element = JavaCore.create(handle);
+                return element != null;
+            }
 
-                private boolean findJdtMethod() {
-                    jdtMethod = (IMethod) element.getAncestor(IJavaElement.METHOD);
-                    return jdtMethod != null;
-                }
+            private boolean findJdtMethod() {
+                jdtMethod = (IMethod) element.getAncestor(IJavaElement.METHOD);
+                return jdtMethod != null;
+            }
 
-                private boolean findAstMethod() {
-                    try {
-                        final ITypeRoot cu = jdtMethod.getTypeRoot();
-                        if (cu == null) {
-                            return false;
-                        }
-                        final CompilationUnit ast = SharedASTProvider.getAST(cu, SharedASTProvider.WAIT_YES, null);
-                        if (ast == null) {
-                            return false;
-                        }
-
-                        // caused NPEs:
-                        // ASTNodeSearchUtil.getMethodDeclarationNode(jdtMethod,
-                        // ast);
-                        astMethod = ASTNodeUtils.find(ast, jdtMethod).orNull();
-                        String ss = "";
-                    } catch (final Exception e) {
-                        Logs.logError(e, CodesearchIndexPlugin.getDefault(), "failed to find declaring method %s",
-                                jdtMethod);
+            private boolean findAstMethod() {
+                try {
+                    final ITypeRoot cu = jdtMethod.getTypeRoot();
+                    if (cu == null) {
+                        return false;
+                    }
+                    final CompilationUnit ast = asts.get(cu).orNull();
+                    if (ast == null) {
+                        return false;
                     }
-                    return astMethod != null;
+
+                    // caused NPEs:
+                    // ASTNodeSearchUtil.getMethodDeclarationNode(jdtMethod,
+                    // ast);
+                    astMethod = ASTNodeUtils.find(ast, jdtMethod).orNull();
+                    String ss = "";
+                } catch (final Exception e) {
+                    Logs.logError(e, CodesearchIndexPlugin.getDefault(), "failed to find declaring method %s",
+                            jdtMethod);
                 }
-                private boolean hasEnclosingMethod(){
-                    return !!((searchType.equals(LocalExamplesProvider.CLASS_FIELD_SEARCH)) 
-                            || (searchType.equals(LocalExamplesProvider.EXTENDED_TYPE_SEARCH))
-                            || (searchType.equals(LocalExamplesProvider.IMPLEENTED_TYPE_SEARCH))
-                            //this is a Class annotation
-                            || ((searchType.equals(LocalExamplesProvider.USED_ANNOTATION_SEARCH) && astMethod == ContentProvider.EMPTY))
-                            
-                          );
-                  }
-            });
-            
-        } catch (final RejectedExecutionException e) {
-            updateIndex(new Selection(new RuntimeException(
-                    "Too many rendering requests at once. Select this item again to refresh.")), index);
-            // the user was just scrolling to fast...
-            // to prevent ui freezes we ignore too many requests...
-        }
+                return astMethod != null;
+            }
+            private boolean hasEnclosingMethod(){
+                return !!((searchType.equals(LocalExamplesProvider.CLASS_FIELD_SEARCH)) 
+                        || (searchType.equals(LocalExamplesProvider.EXTENDED_TYPE_SEARCH))
+                        || (searchType.equals(LocalExamplesProvider.IMPLEENTED_TYPE_SEARCH))
+                        //this is a Class annotation
+                        || ((searchType.equals(LocalExamplesProvider.USED_ANNOTATION_SEARCH) && astMethod == ContentProvider.EMPTY))
+                        
+                      );
+              }
+        }, new Runnable() {
+
+            @Override
+            public void run() {
+                clearIndex(index);
+            }
+        });
+    }
+
+    /**
+     * Rows within a page of the visible ones are still rendered; rows further away are requested again by the table
+     * once they are scrolled into view.
+     */
+    private void updateVisibleRows() {
+        final Table table = viewer.getTable();
+        final int page = table.getClientArea().height / Math.max(1, table.getItemHeight()) + 1;
+        final int top = table.getTopIndex();
+        rows.setVisibleRows(top - page, top + 2 * page);
+    }
+
+    private void clearIndex(final int index) {
+        Display.getDefault().asyncExec(new Runnable() {
+
+            @Override
+            public void run() {
+                if (!viewer.getTable().isDisposed()) {
+                    viewer.clear(index);
+                }
+            }
+        });
     }
-    
 
 
     private void updateIndex(final Selection s, final int index) {
@@ -23,22 +23,19 @@ import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
-import org.eclipse.jdt.core.dom.ExpressionStatement;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
-import org.eclipse.jdt.core.dom.ReturnStatement;
 import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
-import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
 import org.eclipse.jdt.internal.corext.refactoring.structure.ASTNodeSearchUtil;
 import org.eclipse.jdt.ui.JavaElementLabelProvider;
 import org.eclipse.jdt.ui.JavaUI;
-import org.eclipse.jdt.ui.SharedASTProvider;
 import org.eclipse.jdt.ui.text.IColorManager;
 import org.eclipse.jdt.ui.text.IJavaColorConstants;
 import org.eclipse.jface.resource.JFaceResources;
 import org.eclipse.jface.viewers.StyledCellLabelProvider;
 import org.eclipse.jface.viewers.ViewerCell;
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.RelevantStatements;
 import org.eclipse.recommenders.codesearch.rcp.index.searcher.SearchResult;
 import org.eclipse.recommenders.internal.codesearch.rcp.CodesearchIndexPlugin;
 import org.eclipse.recommenders.internal.codesearch.rcp.PreferencePage;
@@ -70,11 +67,13 @@ public class LabelProvider extends StyledCellLabelProvider {
     private List<ASTNode> statements;
     private final List<String> searchterms;
     String searchType;
+    private final AstCache asts;
 
     public LabelProvider(final JavaElementResolver jdtCache, final List<String> searchterms,
-            String searchType, final SearchResult searchResults) {
+            String searchType, final SearchResult searchResults, final AstCache asts) {
         this.searchterms = searchterms;
         this.searchType = searchType;
+        this.asts = asts;
     }
 
     /**
@@ -93,6 +92,11 @@ public class LabelProvider extends StyledCellLabelProvider {
             super.update(cell);
             return;
         }
+        if (s.hasSnippet()) {
+            setCellText(cell, s.snippet.header, s.snippet.summary);
+            super.update(cell);
+            return;
+        }
         jdtType = (IType) JavaCore.create(s.doc.get(Fields.JAVA_ELEMENT_HANDLE)).getAncestor(IJavaElement.TYPE);
         
         if (!findAstType() && !s.hasMethod() )
@@ -140,7 +144,7 @@ public class LabelProvider extends StyledCellLabelProvider {
     }
     private boolean findAstType(){
         try {
-            astType = ASTNodeSearchUtil.getTypeDeclarationNode(jdtType, SharedASTProvider.getAST(jdtType.getTypeRoot(), SharedASTProvider.WAIT_YES, null));
+            astType = ASTNodeSearchUtil.getTypeDeclarationNode(jdtType, asts.get(jdtType.getTypeRoot()).orNull());
         } catch (JavaModelException e) {
            
         }
@@ -193,7 +197,10 @@ public class LabelProvider extends StyledCellLabelProvider {
             @Override
             public boolean visit(final SimpleName node) {
                 if (node.getIdentifier().equals(varname)) {
-                    collectStatement(node);
+                    final Optional<ASTNode> statement = RelevantStatements.of(node);
+                    if (statement.isPresent()) {
+                        statements.add(statement.get());
+                    }
                 }
                 return false;
             }
@@ -213,57 +220,6 @@ public class LabelProvider extends StyledCellLabelProvider {
                 }
                 return super.visit(node);
             }
-
-
-            private void collectStatement(final SimpleName node)
-            {
-                for (ASTNode curr = node.getParent(); curr != null; curr = curr.getParent()) {
-                    if (curr instanceof ExpressionStatement) {
-                        statements.add(curr);
-                        return;
-                    } else if (curr instanceof ReturnStatement) {
-                        statements.add(curr);
-                        return;
-                    }
-                }
-
-                final ASTNode sup = node.getParent();
-                switch (sup.getNodeType()) {
-                case ASTNode.CLASS_INSTANCE_CREATION:
-                    final ASTNode supSup = sup.getParent();
-                    switch (supSup.getNodeType()) {
-                    case ASTNode.CLASS_INSTANCE_CREATION:
-                    case ASTNode.ASSIGNMENT:
-                        statements.add(supSup);
-                        break;
-                    case ASTNode.VARIABLE_DECLARATION_FRAGMENT:
-                        final ASTNode supSupSup = supSup.getParent();
-                        if (supSupSup instanceof VariableDeclarationStatement) {
-                            statements.add(supSupSup);
-                        } else {
-                            statements.add(supSup);
-                        }
-                    }
-
-                    break;
-                case ASTNode.RETURN_STATEMENT:
-                    if (((ReturnStatement) sup).getExpression() instanceof SimpleName) {
-                        break;
-                    }
-                    //$FALL-THROUGH$
-                case ASTNode.METHOD_INVOCATION:
-                case ASTNode.SUPER_METHOD_INVOCATION:
-                case ASTNode.FIELD_ACCESS:
-                case ASTNode.SUPER_FIELD_ACCESS:
-                case ASTNode.CONSTRUCTOR_INVOCATION:
-                case ASTNode.SUPER_CONSTRUCTOR_INVOCATION:
-                case ASTNode.CAST_EXPRESSION:
-                case ASTNode.VARIABLE_DECLARATION_FRAGMENT:
-                    statements.add(sup);
-                    break;
-                default:
-                    break;
-                }
             };
         });
 
@@ -273,7 +229,6 @@ public class LabelProvider extends StyledCellLabelProvider {
     private void setCellText(final ViewerCell cell)
     {
         final StringBuilder sb = new StringBuilder();
-        final List<StyleRange> ranges = newArrayList();
         
         for (final ASTNode n : statements)
         {
@@ -281,9 +236,12 @@ public class LabelProvider extends StyledCellLabelProvider {
         }
         final String[] split = split(sb.toString(), IOUtils.LINE_SEPARATOR);
         
-        String summary = join(subarray(split, 0, 3), IOUtils.LINE_SEPARATOR);
-        String header = getHeader(cell.getElement());
-       
+        setCellText(cell, getHeader(cell.getElement()), join(subarray(split, 0, 3), IOUtils.LINE_SEPARATOR));
+    }
+
+    private void setCellText(final ViewerCell cell, final String header, String summary)
+    {
+        final List<StyleRange> ranges = newArrayList();
         ranges.add(new StyleRange(0, header.length(), Display.getDefault().getSystemColor(SWT.COLOR_DARK_GRAY), null));
         summary = header+summary;
         
@@ -337,7 +295,9 @@ public class LabelProvider extends StyledCellLabelProvider {
     {
         if (element instanceof Selection) {
             final Selection s = (Selection) element;
-            if (s.method != null) {
+            if (s.hasSnippet()) {
+                return s.snippet.getToolTipText();
+            } else if (s.method != null) {
                 final Optional<TypeDeclaration> enclosingType = ASTNodeUtils.getClosestParent(s.method,
                         TypeDeclaration.class);
 
@@ -24,6 +24,7 @@ import javax.inject.Inject;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
 import org.eclipse.jdt.core.IField;
 import org.eclipse.jdt.core.IJavaElement;
@@ -88,118 +89,90 @@ public class LocalExamplesProvider extends ApidocProvider {
     public static final String METHOD_PARAMETER_SEARCH = "method parameter";
     public static final String CHECKED_EXCEPTION_SEARCH = "checked exception";
     
+    /**
+     * Selections that follow each other within this time are treated as one; only the last one is searched.
+     */
+    private static final long QUIET_MILLIS = 150;
+
     private final JavaElementResolver jdtResolver;
     private final CodeSearcher searcher;
-    private Stopwatch watch;
-    private JavaElementSelectionEvent event;
-
-    private MethodDeclaration enclosingMethod;
-    private TypeDeclaration enclosingType;
-    private SimpleName simpleNode;
-    private String varType;
-    private ASTNode selectedNode;
-    private ASTNode parentNode;
-    private String searchType;
-    private int maxHits;
+    private final RowRenderingScheduler rowRenderer;
+    private final AstCache asts;
 
-
-    List<String> searchterms;
-    private IType jdtVarType;
+    private volatile SearchRequest current;
 
     @Inject
-    public LocalExamplesProvider(final CodeSearcher searcher, final JavaElementResolver jdtResolver) throws IOException
+    public LocalExamplesProvider(final CodeSearcher searcher, final JavaElementResolver jdtResolver,
+            final RowRenderingScheduler rowRenderer, final AstCache asts) throws IOException
     {
         this.searcher = searcher;
         this.jdtResolver = jdtResolver;
-        this.maxHits = CodesearchIndexPlugin.getDefault().getPreferenceStore().getInt(PreferencePage.P_MAX_HITS);
+        this.rowRenderer = rowRenderer;
+        this.asts = asts;
     }
 
     @JavaSelectionSubscriber
     public void onFieldSelection(final IField var, final JavaElementSelectionEvent event, final Composite parent)
             throws IOException, JavaModelException
     {
-        clear();
-        this.event = event;
-        startMeasurement();
-        if (!findAstNodes())
+        final SearchRequest request = newRequest(event, parent);
+        if (!request.awaitQuietPeriod() || !request.findAstNodes())
         {
             return;
         }
 
-        if (!findVariableType(var.getTypeSignature()))
+        if (!request.findVariableType(var.getTypeSignature()))
         {
             return;
         }
 
-        final BooleanQuery query = createVariableUsageQuery();
-        final SearchResult searchResult = searcher.lenientSearch(query, maxHits);
-        stopMeasurement();
-
-        runSyncInUiThread(new Renderer(searchResult, parent, searchType, varType, watch.toString(), jdtResolver, searchterms));
-        
+        search(request, request.createVariableUsageQuery());
     }
 
     @JavaSelectionSubscriber
     public void onVariableSelection(final ILocalVariable var, final JavaElementSelectionEvent event, final Composite parent)
             throws IOException, JavaModelException
     {
-        clear();
-        this.event = event;
-        startMeasurement();
-        if (!findAstNodes()) {
+        final SearchRequest request = newRequest(event, parent);
+        if (!request.awaitQuietPeriod() || !request.findAstNodes()) {
             return;
         }
 
-        if (!findVariableType(var.getTypeSignature())) {
+        if (!request.findVariableType(var.getTypeSignature())) {
             return;
         }
 
-        final BooleanQuery query = createVariableUsageQuery();
-        final SearchResult searchResults = searcher.lenientSearch(query, maxHits);
-        stopMeasurement();
-
-        runSyncInUiThread(new Renderer(searchResults, parent, searchType, varType, watch.toString(), jdtResolver, searchterms));
-        
+        search(request, request.createVariableUsageQuery());
     }
     
     @JavaSelectionSubscriber
     public void onTypeSelection(final IType type, final JavaElementSelectionEvent event, final Composite parent)
             throws IOException, JavaModelException
     {
-        clear();
-        this.event = event;
-        
-        startMeasurement();
-        if (!findAstNodes()) {
+        final SearchRequest request = newRequest(event, parent);
+        if (!request.awaitQuietPeriod() || !request.findAstNodes()) {
             return;
         }
 
-        jdtVarType = type;
-        varType = jdtResolver.toRecType(type).getIdentifier();
+        request.jdtVarType = type;
+        request.varType = jdtResolver.toRecType(type).getIdentifier();
         BooleanQuery query = null;
         
-        switch (selectedNode.getNodeType()) {
+        switch (request.selectedNode.getNodeType()) {
             case ASTNode.MARKER_ANNOTATION:
             case ASTNode.SINGLE_MEMBER_ANNOTATION:
             case ASTNode.ANNOTATION_TYPE_MEMBER_DECLARATION:
             case ASTNode.ANNOTATION_TYPE_DECLARATION:
-                query = createAnnotationQuery();
+                query = request.createAnnotationQuery();
                 break;
             case ASTNode.SIMPLE_TYPE:
             case ASTNode.SIMPLE_NAME://Checked exceptions
-                query = createTypeQuery();
+                query = request.createTypeQuery();
                 break;           
             default:
                 break;
         }
-        if(query == null){
-            return;
-        }
-        final SearchResult searchResults = searcher.lenientSearch(query, maxHits);
-        stopMeasurement();
-        
-        runSyncInUiThread(new Renderer(searchResults, parent, searchType, varType, watch.toString(), jdtResolver, searchterms));
-        
+        search(request, query);
     }
 
     // Catch all
@@ -207,320 +180,388 @@ public class LocalExamplesProvider extends ApidocProvider {
     public void onElementSelection(final IJavaElement element,
             final JavaElementSelectionEvent event, final Composite parent)
             throws IOException, JavaModelException {
-        clear();
-        this.event = event;
+        final SearchRequest request = newRequest(event, parent);
         BooleanQuery query = null;
-        startMeasurement();
         
-        if (!findAstNodes()) {
+        if (!request.awaitQuietPeriod() || !request.findAstNodes()) {
             return;
         }
-        switch (selectedNode.getNodeType()) {
+        switch (request.selectedNode.getNodeType()) {
             case ASTNode.METHOD_INVOCATION:
-                varType = jdtResolver.toRecMethod((IMethod) element).get().getIdentifier();
-                query = createMethodQuery();
+                request.varType = jdtResolver.toRecMethod((IMethod) element).get().getIdentifier();
+                query = request.createMethodQuery();
                 break;
 
         default:
             break;
         }
-        if(query == null){
+        search(request, query);
+    }
+
+    private SearchRequest newRequest(final JavaElementSelectionEvent event, final Composite parent) {
+        final SearchRequest request = new SearchRequest(event, parent);
+        current = request;
+        return request;
+    }
+
+    /**
+     * Searches and renders the results unless a newer selection has been made in the meantime. A search that is
+     * already running is not interrupted, as interrupting a thread that reads the index closes the index files.
+     */
+    private void search(final SearchRequest request, final Query query) throws IOException {
+        if (query == null || !request.isCurrent()) {
             return;
         }
-        final SearchResult searchResults = searcher.lenientSearch(query, maxHits);
-        stopMeasurement();
-        
-        runSyncInUiThread(new Renderer(searchResults, parent, searchType, varType, watch.toString(), jdtResolver, searchterms));
+        final Stopwatch watch = new Stopwatch().start();
+        final SearchResult searchResults = searcher.lenientSearch(query, request.maxHits);
+        watch.stop();
+        if (!request.isCurrent()) {
+            searchResults.close();
+            return;
+        }
+
+        runSyncInUiThread(new Renderer(searchResults, request.parent, request.searchType, request.varType,
+                watch.toString(), jdtResolver, request.searchterms, rowRenderer, asts));
     }
 
-    private boolean findAstNodes()
-    {
-        final Optional<ASTNode> astNode = event.getSelectedNode();
-        if (!astNode.isPresent()) {
-            return false;
+    /**
+     * The state of the search for a single selection.
+     */
+    private final class SearchRequest {
+
+        private final JavaElementSelectionEvent event;
+        private final Composite parent;
+        private final int maxHits;
+
+        private MethodDeclaration enclosingMethod;
+        private TypeDeclaration enclosingType;
+        private SimpleName simpleNode;
+        private String varType;
+        private ASTNode selectedNode;
+        private ASTNode parentNode;
+        private String searchType;
+        private List<String> searchterms;
+        private IType jdtVarType;
+
+        private SearchRequest(final JavaElementSelectionEvent event, final Composite parent) {
+            this.event = event;
+            this.parent = parent;
+            this.maxHits = CodesearchIndexPlugin.getDefault().getPreferenceStore().getInt(PreferencePage.P_MAX_HITS);
         }
-        
-        final ASTNode node = astNode.get();
-        if (node.getNodeType() == ASTNode.SIMPLE_NAME) {
-            simpleNode = (SimpleName) node;
-        }
-        
-        if(isNameProperty(simpleNode)){
-            selectedNode = node.getParent();
+
+        private boolean isCurrent() {
+            return current == this;
         }
-        else
-        {
-            selectedNode = node;            
+
+        /**
+         * Waits until the caret has rested for a moment.
+         * 
+         * @return <code>false</code> if another selection has been made in the meantime
+         */
+        private boolean awaitQuietPeriod() {
+            try {
+                Thread.sleep(QUIET_MILLIS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return isCurrent();
         }
 
-        parentNode = selectedNode.getParent();
 
-        for (ASTNode parent = simpleNode; parent != null; parent = parent.getParent())
+        private boolean findAstNodes()
         {
-            if (parent instanceof MethodDeclaration) {
-                enclosingMethod = (MethodDeclaration) parent;
-            } else if (parent instanceof TypeDeclaration) {
-                enclosingType = (TypeDeclaration) parent;
-                break;
+            final Optional<ASTNode> astNode = event.getSelectedNode();
+            if (!astNode.isPresent()) {
+                return false;
             }
-        }
         
-        return simpleNode != null && ((enclosingMethod != null) || (enclosingType != null));
+            final ASTNode node = astNode.get();
+            if (node.getNodeType() == ASTNode.SIMPLE_NAME) {
+                simpleNode = (SimpleName) node;
+            }
         
-    }
+            if(isNameProperty(simpleNode)){
+                selectedNode = node.getParent();
+            }
+            else
+            {
+                selectedNode = node;            
+            }
 
-    private boolean findVariableType(final String typeSignature)
-    {
-        final Optional<IMethod> method = JdtUtils.resolveMethod(enclosingMethod);
-        //final Optional<IType> type = jdtVarType.getDeclaringType()
-        if (!method.isPresent()) {
-            return false;
-        }
+            parentNode = selectedNode.getParent();
 
-        final Optional<IType> opt = JdtUtils.findTypeFromSignature(typeSignature, method.get());
-        if (!opt.isPresent()) {
-            return false;
+            for (ASTNode parent = simpleNode; parent != null; parent = parent.getParent())
+            {
+                if (parent instanceof MethodDeclaration) {
+                    enclosingMethod = (MethodDeclaration) parent;
+                } else if (parent instanceof TypeDeclaration) {
+                    enclosingType = (TypeDeclaration) parent;
+                    break;
+                }
+            }
+        
+            return simpleNode != null && ((enclosingMethod != null) || (enclosingType != null));
+        
         }
-        jdtVarType = opt.get();
-        varType = jdtResolver.toRecType(opt.get()).getIdentifier();
+
+        private boolean findVariableType(final String typeSignature)
+        {
+            final Optional<IMethod> method = JdtUtils.resolveMethod(enclosingMethod);
+            //final Optional<IType> type = jdtVarType.getDeclaringType()
+            if (!method.isPresent()) {
+                return false;
+            }
+
+            final Optional<IType> opt = JdtUtils.findTypeFromSignature(typeSignature, method.get());
+            if (!opt.isPresent()) {
+                return false;
+            }
+            jdtVarType = opt.get();
+            varType = jdtResolver.toRecType(opt.get()).getIdentifier();
         
-        return varType != null;
+            return varType != null;
         
-    }
+        }
     
-    private BooleanQuery createMethodQuery() {
-        final BooleanQuery query = new BooleanQuery();
-        searchterms = new ArrayList<String>();
-        Term term;
-        searchType = METHOD_INVOCATION_SEARCH;
-        if(!isSearchTypeEnabled())
-            return null;
-        term = prepareSearchTerm(Fields.USED_METHODS, BindingHelper.getIdentifier((MethodInvocation) selectedNode).get());
-        query.add(new TermQuery(term), Occur.MUST);
-        searchterms.add(simpleNode.getIdentifier());
+        private BooleanQuery createMethodQuery() {
+            final BooleanQuery query = new BooleanQuery();
+            searchterms = new ArrayList<String>();
+            Term term;
+            searchType = METHOD_INVOCATION_SEARCH;
+            if(!isSearchTypeEnabled())
+                return null;
+            term = prepareSearchTerm(Fields.USED_METHODS, BindingHelper.getIdentifier((MethodInvocation) selectedNode).get());
+            query.add(new TermQuery(term), Occur.MUST);
+            searchterms.add(simpleNode.getIdentifier());
         
-        return query;
-    }
+            return query;
+        }
     
-    private BooleanQuery createAnnotationQuery()
-    {
-        final BooleanQuery query = new BooleanQuery();
-        searchterms = new ArrayList<String>();
-        Term term;
-        searchType = USED_ANNOTATION_SEARCH;
-        if(!isSearchTypeEnabled())
-            return null;
+        private BooleanQuery createAnnotationQuery()
+        {
+            final BooleanQuery query = new BooleanQuery();
+            searchterms = new ArrayList<String>();
+            Term term;
+            searchType = USED_ANNOTATION_SEARCH;
+            if(!isSearchTypeEnabled())
+                return null;
         
-        term = prepareSearchTerm(Fields.ANNOTATIONS, BindingHelper.getTypeIdentifier(simpleNode).get());
-        query.add(new TermQuery(term), Occur.MUST);
-        searchterms.add(simpleNode.getIdentifier());
+            term = prepareSearchTerm(Fields.ANNOTATIONS, BindingHelper.getTypeIdentifier(simpleNode).get());
+            query.add(new TermQuery(term), Occur.MUST);
+            searchterms.add(simpleNode.getIdentifier());
         
-        return query;
-    }
+            return query;
+        }
     
-    private BooleanQuery createTypeQuery()
-    {        
-        final BooleanQuery query = new BooleanQuery();
-        searchterms = new ArrayList<String>();
+        private BooleanQuery createTypeQuery()
+        {        
+            final BooleanQuery query = new BooleanQuery();
+            searchterms = new ArrayList<String>();
         
-        StructuralPropertyDescriptor location = selectedNode.getLocationInParent();
-        switch(parentNode.getNodeType())
-        {            
-            case ASTNode.TYPE_DECLARATION:
-                if(location == TypeDeclaration.SUPERCLASS_TYPE_PROPERTY)
-                {
-                    searchType = EXTENDED_TYPE_SEARCH;
-                    if(!isSearchTypeEnabled())
-                        return null;
+            StructuralPropertyDescriptor location = selectedNode.getLocationInParent();
+            switch(parentNode.getNodeType())
+            {            
+                case ASTNode.TYPE_DECLARATION:
+                    if(location == TypeDeclaration.SUPERCLASS_TYPE_PROPERTY)
+                    {
+                        searchType = EXTENDED_TYPE_SEARCH;
+                        if(!isSearchTypeEnabled())
+                            return null;
                     
-                    Term term = prepareSearchTerm(Fields.ALL_EXTENDED_TYPES, BindingHelper.getTypeIdentifier(simpleNode).get());
-                    query.add(new TermQuery(term), Occur.MUST);
-                    searchterms.add(simpleNode.getIdentifier());
-                }
-                else if(location == TypeDeclaration.SUPER_INTERFACE_TYPES_PROPERTY)
-                {
-                    searchType = IMPLEENTED_TYPE_SEARCH;
-                    if(!isSearchTypeEnabled())
-                        return null;
+                        Term term = prepareSearchTerm(Fields.ALL_EXTENDED_TYPES, BindingHelper.getTypeIdentifier(simpleNode).get());
+                        query.add(new TermQuery(term), Occur.MUST);
+                        searchterms.add(simpleNode.getIdentifier());
+                    }
+                    else if(location == TypeDeclaration.SUPER_INTERFACE_TYPES_PROPERTY)
+                    {
+                        searchType = IMPLEENTED_TYPE_SEARCH;
+                        if(!isSearchTypeEnabled())
+                            return null;
                     
-                    Term term = prepareSearchTerm(Fields.ALL_IMPLEMENTED_TYPES, BindingHelper.getTypeIdentifier(simpleNode).get());
-                    query.add(new TermQuery(term), Occur.MUST);
-                    searchterms.add(simpleNode.getIdentifier());
-                }
-                break;
-            case ASTNode.METHOD_DECLARATION:                
-               if(location == MethodDeclaration.THROWN_EXCEPTIONS_PROPERTY)
-               {
-                   searchType = CHECKED_EXCEPTION_SEARCH;
-                   if(!isSearchTypeEnabled())
-                       return null;
+                        Term term = prepareSearchTerm(Fields.ALL_IMPLEMENTED_TYPES, BindingHelper.getTypeIdentifier(simpleNode).get());
+                        query.add(new TermQuery(term), Occur.MUST);
+                        searchterms.add(simpleNode.getIdentifier());
+                    }
+                    break;
+                case ASTNode.METHOD_DECLARATION:                
+                   if(location == MethodDeclaration.THROWN_EXCEPTIONS_PROPERTY)
+                   {
+                       searchType = CHECKED_EXCEPTION_SEARCH;
+                       if(!isSearchTypeEnabled())
+                           return null;
                    
-                   Term term = prepareSearchTerm(Fields.CHECKED_EXCEPTIONS, BindingHelper.getTypeIdentifier(simpleNode).get());
-                   query.add(new TermQuery(term), Occur.MUST);
-                   searchterms.add(simpleNode.getIdentifier());                   
-               }
-               else if(location == MethodDeclaration.RETURN_TYPE2_PROPERTY || location == MethodDeclaration.RETURN_TYPE_PROPERTY)
-               {
-                   searchType = RETURN_TYPE_SEARCH;
-                   if(!isSearchTypeEnabled())
-                       return null;
+                       Term term = prepareSearchTerm(Fields.CHECKED_EXCEPTIONS, BindingHelper.getTypeIdentifier(simpleNode).get());
+                       query.add(new TermQuery(term), Occur.MUST);
+                       searchterms.add(simpleNode.getIdentifier());                   
+                   }
+                   else if(location == MethodDeclaration.RETURN_TYPE2_PROPERTY || location == MethodDeclaration.RETURN_TYPE_PROPERTY)
+                   {
+                       searchType = RETURN_TYPE_SEARCH;
+                       if(!isSearchTypeEnabled())
+                           return null;
                    
-                   Term term = prepareSearchTerm(Fields.RETURN_TYPE, BindingHelper.getTypeIdentifier(simpleNode).get());
-                   query.add(new TermQuery(term), Occur.MUST);
-                   searchterms.add(simpleNode.getIdentifier());    
-               }
-               break;
-            case ASTNode.SINGLE_VARIABLE_DECLARATION:
-                // Method Parameter Declaration
-                if (parentNode.getLocationInParent() == MethodDeclaration.PARAMETERS_PROPERTY) {
-                    searchType = METHOD_PARAMETER_SEARCH;
-                    if(!isSearchTypeEnabled())
-                        return null;
+                       Term term = prepareSearchTerm(Fields.RETURN_TYPE, BindingHelper.getTypeIdentifier(simpleNode).get());
+                       query.add(new TermQuery(term), Occur.MUST);
+                       searchterms.add(simpleNode.getIdentifier());    
+                   }
+                   break;
+                case ASTNode.SINGLE_VARIABLE_DECLARATION:
+                    // Method Parameter Declaration
+                    if (parentNode.getLocationInParent() == MethodDeclaration.PARAMETERS_PROPERTY) {
+                        searchType = METHOD_PARAMETER_SEARCH;
+                        if(!isSearchTypeEnabled())
+                            return null;
                     
-                    Term term = prepareSearchTerm(
-                            Fields.PARAMETER_TYPES, BindingHelper
-                                    .getTypeIdentifier(simpleNode).get());
-                    query.add(new TermQuery(term), Occur.MUST);
-                    searchterms.add(simpleNode.getIdentifier());
-                }break;
-            case ASTNode.FIELD_DECLARATION:
-                if (parentNode.getLocationInParent() == TypeDeclaration.BODY_DECLARATIONS_PROPERTY) {
-                    searchType = CLASS_FIELD_SEARCH;
-                    if(!isSearchTypeEnabled())
-                        return null;
+                        Term term = prepareSearchTerm(
+                                Fields.PARAMETER_TYPES, BindingHelper
+                                        .getTypeIdentifier(simpleNode).get());
+                        query.add(new TermQuery(term), Occur.MUST);
+                        searchterms.add(simpleNode.getIdentifier());
+                    }break;
+                case ASTNode.FIELD_DECLARATION:
+                    if (parentNode.getLocationInParent() == TypeDeclaration.BODY_DECLARATIONS_PROPERTY) {
+                        searchType = CLASS_FIELD_SEARCH;
+                        if(!isSearchTypeEnabled())
+                            return null;
                     
+                        Term term = prepareSearchTerm(
+                                Fields.FIELD_TYPE, BindingHelper
+                                        .getTypeIdentifier(simpleNode).get());
+                        query.add(new TermQuery(term), Occur.MUST);
+                        searchterms.add(simpleNode.getIdentifier());
+                    }break;
+                case ASTNode.PARAMETERIZED_TYPE:
+                    //
+                    ITypeBinding ss = ((ParameterizedType) parentNode).getType().resolveBinding();
+                    Optional<String> ssss = BindingHelper.getIdentifier(ss);
                     Term term = prepareSearchTerm(
-                            Fields.FIELD_TYPE, BindingHelper
-                                    .getTypeIdentifier(simpleNode).get());
-                    query.add(new TermQuery(term), Occur.MUST);
+                            Fields.FIELD_TYPE, BindingHelper.getTypeIdentifier(simpleNode).get());
+                    query.add(new TermQuery(term), Occur.SHOULD);
                     searchterms.add(simpleNode.getIdentifier());
-                }break;
-            case ASTNode.PARAMETERIZED_TYPE:
-                //
-                ITypeBinding ss = ((ParameterizedType) parentNode).getType().resolveBinding();
-                Optional<String> ssss = BindingHelper.getIdentifier(ss);
-                Term term = prepareSearchTerm(
-                        Fields.FIELD_TYPE, BindingHelper.getTypeIdentifier(simpleNode).get());
-                query.add(new TermQuery(term), Occur.SHOULD);
-                searchterms.add(simpleNode.getIdentifier());
   
 
-        }
+            }
         
-        return query;
-    }
+            return query;
+        }
 
-    private BooleanQuery createVariableUsageQuery()
-    {
-        // TODO: cleanup needed
-        searchType = VAR_USAGE_SEARCH;
-        if(!isSearchTypeEnabled())
-            return null;
-        final BooleanQuery query = new BooleanQuery();
-        final Term typeTerm = prepareSearchTerm(Fields.VARIABLE_TYPE, varType);
-        final TermQuery typeQuery = new TermQuery(typeTerm);
-        query.add(typeQuery, Occur.MUST);
-        searchterms = Lists.newArrayList();
-        searchterms.add(simpleNode.getIdentifier());
-        searchterms.add(jdtVarType.getElementName());
-
-        for (final SimpleName use : LinkedNodeFinder.findByNode(enclosingMethod, simpleNode)) {
-
-            final ASTNode astParent = use.getParent();
-            Term term = null;
-            switch (astParent.getNodeType()) {
-            case ASTNode.CLASS_INSTANCE_CREATION: {
-                final ClassInstanceCreation targetMethod = (ClassInstanceCreation) astParent;
-                final IMethodBinding methodBinding = targetMethod.resolveConstructorBinding();
-                final Optional<String> optMethod = BindingHelper.getIdentifier(methodBinding);
-                if (!optMethod.isPresent()) {
+        private BooleanQuery createVariableUsageQuery()
+        {
+            // TODO: cleanup needed
+            searchType = VAR_USAGE_SEARCH;
+            if(!isSearchTypeEnabled())
+                return null;
+            final BooleanQuery query = new BooleanQuery();
+            final Term typeTerm = prepareSearchTerm(Fields.VARIABLE_TYPE, varType);
+            final TermQuery typeQuery = new TermQuery(typeTerm);
+            query.add(typeQuery, Occur.MUST);
+            searchterms = Lists.newArrayList();
+            searchterms.add(simpleNode.getIdentifier());
+            searchterms.add(jdtVarType.getElementName());
+
+            for (final SimpleName use : LinkedNodeFinder.findByNode(enclosingMethod, simpleNode)) {
+
+                final ASTNode astParent = use.getParent();
+                Term term = null;
+                switch (astParent.getNodeType()) {
+                case ASTNode.CLASS_INSTANCE_CREATION: {
+                    final ClassInstanceCreation targetMethod = (ClassInstanceCreation) astParent;
+                    final IMethodBinding methodBinding = targetMethod.resolveConstructorBinding();
+                    final Optional<String> optMethod = BindingHelper.getIdentifier(methodBinding);
+                    if (!optMethod.isPresent()) {
+                        break;
+                    }
+                    // matches more than the method itself, but that'S a minor thing
+                    searchterms.add(targetMethod.getType().toString());
+                    if (isUsedInArguments(use, targetMethod.arguments())) {
+                        term = prepareSearchTerm(Fields.USED_AS_TAGET_FOR_METHODS, optMethod.get());
+                    } else {
+                        term = prepareSearchTerm(Fields.USED_AS_TAGET_FOR_METHODS, optMethod.get());
+                    }
                     break;
                 }
-                // matches more than the method itself, but that'S a minor thing
-                searchterms.add(targetMethod.getType().toString());
-                if (isUsedInArguments(use, targetMethod.arguments())) {
-                    term = prepareSearchTerm(Fields.USED_AS_TAGET_FOR_METHODS, optMethod.get());
-                } else {
-                    term = prepareSearchTerm(Fields.USED_AS_TAGET_FOR_METHODS, optMethod.get());
-                }
-                break;
-            }
-            case ASTNode.METHOD_INVOCATION:
-                final MethodInvocation targetMethod = (MethodInvocation) astParent;
-                final IMethodBinding methodBinding = targetMethod.resolveMethodBinding();
-                final Optional<String> optMethod = BindingHelper.getIdentifier(methodBinding);
-                if (!optMethod.isPresent()) {
+                case ASTNode.METHOD_INVOCATION:
+                    final MethodInvocation targetMethod = (MethodInvocation) astParent;
+                    final IMethodBinding methodBinding = targetMethod.resolveMethodBinding();
+                    final Optional<String> optMethod = BindingHelper.getIdentifier(methodBinding);
+                    if (!optMethod.isPresent()) {
+                        break;
+                    }
+                    searchterms.add(targetMethod.getName().toString());
+                    if (isUsedInArguments(use, targetMethod.arguments())) {
+                        term = prepareSearchTerm(Fields.USED_AS_TAGET_FOR_METHODS, optMethod.get());
+                    } else {
+                        term = prepareSearchTerm(Fields.USED_AS_TAGET_FOR_METHODS, optMethod.get());
+                    }
                     break;
-                }
-                searchterms.add(targetMethod.getName().toString());
-                if (isUsedInArguments(use, targetMethod.arguments())) {
-                    term = prepareSearchTerm(Fields.USED_AS_TAGET_FOR_METHODS, optMethod.get());
-                } else {
-                    term = prepareSearchTerm(Fields.USED_AS_TAGET_FOR_METHODS, optMethod.get());
-                }
-                break;
-            case ASTNode.SINGLE_VARIABLE_DECLARATION:
-                term = prepareSearchTerm(Fields.VARIABLE_DEFINITION, Fields.DEFINITION_PARAMETER);
-                break;
-            case ASTNode.VARIABLE_DECLARATION_FRAGMENT:
-                final VariableDeclarationFragment declParent = (VariableDeclarationFragment) use.getParent();
-
-                final Expression initializer = declParent.getInitializer();
-                Optional<Pair<IMethod, String>> def = absent();
-                if (initializer == null) {
-                    term = prepareSearchTerm(Fields.VARIABLE_DEFINITION, Fields.DEFINITION_UNINITIALIZED);
+                case ASTNode.SINGLE_VARIABLE_DECLARATION:
+                    term = prepareSearchTerm(Fields.VARIABLE_DEFINITION, Fields.DEFINITION_PARAMETER);
                     break;
-                } else {
+                case ASTNode.VARIABLE_DECLARATION_FRAGMENT:
+                    final VariableDeclarationFragment declParent = (VariableDeclarationFragment) use.getParent();
 
-                    switch (initializer.getNodeType()) {
-                    case ASTNode.NULL_LITERAL:
-                        term = prepareSearchTerm(Fields.VARIABLE_DEFINITION, Fields.DEFINITION_NULLLITERAL);
+                    final Expression initializer = declParent.getInitializer();
+                    Optional<Pair<IMethod, String>> def = absent();
+                    if (initializer == null) {
+                        term = prepareSearchTerm(Fields.VARIABLE_DEFINITION, Fields.DEFINITION_UNINITIALIZED);
                         break;
-                    case ASTNode.SUPER_METHOD_INVOCATION:
-                        term = prepareSearchTerm(Fields.VARIABLE_DEFINITION, Fields.DEFINITION_ASSIGNMENT);
-                        def = findMethod((SuperMethodInvocation) initializer);
-                        break;
-                    case ASTNode.METHOD_INVOCATION:
-                        term = prepareSearchTerm(Fields.VARIABLE_DEFINITION, Fields.DEFINITION_ASSIGNMENT);
-                        def = findMethod((MethodInvocation) initializer);
-                        break;
-                    case ASTNode.CLASS_INSTANCE_CREATION: {
-                        term = prepareSearchTerm(Fields.VARIABLE_DEFINITION, Fields.DEFINITION_INSTANCE_CREATION);
-                        def = findMethod((ClassInstanceCreation) initializer);
-                        break;
-                    }
+                    } else {
 
-                    case ASTNode.CAST_EXPRESSION:
-                        // look more deeply into this here:
-                        final Expression expression = ((CastExpression) initializer).getExpression();
-
-                        switch (expression.getNodeType()) {
-                        case ASTNode.METHOD_INVOCATION:
-                            def = findMethod((MethodInvocation) expression);
+                        switch (initializer.getNodeType()) {
+                        case ASTNode.NULL_LITERAL:
+                            term = prepareSearchTerm(Fields.VARIABLE_DEFINITION, Fields.DEFINITION_NULLLITERAL);
                             break;
                         case ASTNode.SUPER_METHOD_INVOCATION:
-                            def = findMethod((SuperMethodInvocation) expression);
+                            term = prepareSearchTerm(Fields.VARIABLE_DEFINITION, Fields.DEFINITION_ASSIGNMENT);
+                            def = findMethod((SuperMethodInvocation) initializer);
+                            break;
+                        case ASTNode.METHOD_INVOCATION:
+                            term = prepareSearchTerm(Fields.VARIABLE_DEFINITION, Fields.DEFINITION_ASSIGNMENT);
+                            def = findMethod((MethodInvocation) initializer);
+                            break;
+                        case ASTNode.CLASS_INSTANCE_CREATION: {
+                            term = prepareSearchTerm(Fields.VARIABLE_DEFINITION, Fields.DEFINITION_INSTANCE_CREATION);
+                            def = findMethod((ClassInstanceCreation) initializer);
                             break;
                         }
+
+                        case ASTNode.CAST_EXPRESSION:
+                            // look more deeply into this here:
+                            final Expression expression = ((CastExpression) initializer).getExpression();
+
+                            switch (expression.getNodeType()) {
+                            case ASTNode.METHOD_INVOCATION:
+                                def = findMethod((MethodInvocation) expression);
+                                break;
+                            case ASTNode.SUPER_METHOD_INVOCATION:
+                                def = findMethod((SuperMethodInvocation) expression);
+                                break;
+                            }
+                        }
+                        if (def.isPresent()) {
+                            searchterms.add(def.get().getFirst().getElementName());
+                            final TermQuery subquery = new TermQuery(prepareSearchTerm(Fields.VARIABLE_DEFINITION, def
+                                    .get().getSecond()));
+                            subquery.setBoost(2);
+                            query.add(subquery, Occur.SHOULD);
+                        }
                     }
-                    if (def.isPresent()) {
-                        searchterms.add(def.get().getFirst().getElementName());
-                        final TermQuery subquery = new TermQuery(prepareSearchTerm(Fields.VARIABLE_DEFINITION, def
-                                .get().getSecond()));
-                        subquery.setBoost(2);
-                        query.add(subquery, Occur.SHOULD);
-                    }
+                    break;
+                default:
+                    break;
                 }
-                break;
-            default:
-                break;
-            }
-            if (term != null) {
-                query.add(new TermQuery(term), Occur.SHOULD);
+                if (term != null) {
+                    query.add(new TermQuery(term), Occur.SHOULD);
+                }
+
             }
+            return query;
+        }
 
+        private boolean isSearchTypeEnabled(){
+            return CodesearchIndexPlugin.getDefault().getPreferenceStore().getBoolean(searchType);
         }
-        return query;
     }
 
     private static Optional<Pair<IMethod, String>> findMethod(final MethodInvocation s) {
@@ -555,32 +596,9 @@ public class LocalExamplesProvider extends ApidocProvider {
         return arguments.size() == 0 || arguments.indexOf(uses) == -1;
     }
 
-    private void startMeasurement() {
-        watch = new Stopwatch();
-        watch.start();
-    }
-
-    private void stopMeasurement() {
-        watch.stop();
-    }
     private boolean isNameProperty(SimpleName node){
         StructuralPropertyDescriptor loc = node.getLocationInParent();
         return node.isDeclaration() || (loc == SimpleType.NAME_PROPERTY) || (loc == MarkerAnnotation.TYPE_NAME_PROPERTY)
                 || (loc == SingleMemberAnnotation.TYPE_NAME_PROPERTY) || (loc == MethodInvocation.NAME_PROPERTY);
     }
-    private boolean isSearchTypeEnabled(){
-        return CodesearchIndexPlugin.getDefault().getPreferenceStore().getBoolean(searchType);
-    }
-    private void clear() {
-        event = null;
-        enclosingMethod = null;
-        enclosingType = null;
-        simpleNode = null;
-        varType = null;
-        searchterms = null;
-        jdtVarType = null;
-        selectedNode=null;
-        selectedNode=null;
-        maxHits = CodesearchIndexPlugin.getDefault().getPreferenceStore().getInt(PreferencePage.P_MAX_HITS);
-    }
 }
@@ -33,6 +33,8 @@ import org.eclipse.recommenders.rcp.utils.Logs;
 import org.eclipse.recommenders.rcp.utils.Selections;
 import org.eclipse.recommenders.utils.names.Names;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.DisposeEvent;
+import org.eclipse.swt.events.DisposeListener;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Label;
@@ -52,9 +54,12 @@ public final class Renderer implements Runnable {
     private final String searchDuration;
     private final List<String> searchterms;
     private final String searchType;
+    private final RowRenderingScheduler scheduler;
+    private final AstCache asts;
 
     public Renderer(final SearchResult searchResult, final Composite parent, final String searchType, final String typeName,
-            final String searchDuration, final JavaElementResolver jdtResolver, final List<String> searchterms) {
+            final String searchDuration, final JavaElementResolver jdtResolver, final List<String> searchterms,
+            final RowRenderingScheduler scheduler, final AstCache asts) {
         searchResults = searchResult;
         this.searchType = searchType;
         this.parent = parent;
@@ -62,12 +67,22 @@ public final class Renderer implements Runnable {
         this.searchDuration = searchDuration;
         this.jdtResolver = jdtResolver;
         this.searchterms = searchterms;
+        this.scheduler = scheduler;
+        this.asts = asts;
     }
 
     @Override
     public void run()
     {
         final Composite container = new Composite(parent, SWT.NONE);
+        container.addDisposeListener(new DisposeListener() {
+
+            @Override
+            public void widgetDisposed(final DisposeEvent e) {
+                // rows are loaded lazily; the searcher must stay open as long as the table is shown
+                searchResults.close();
+            }
+        });
         container.setLayout(new GridLayout());
         container.setLayoutData(GridDataFactory.fillDefaults().grab(true, false).create());
         ApidocsViewUtils.setInfoBackgroundColor(container);
@@ -80,8 +95,9 @@ public final class Renderer implements Runnable {
         final TableViewer v = new TableViewer(container, SWT.VIRTUAL);
         ColumnViewerToolTipSupport.enableFor(v, ToolTip.RECREATE);
         
-        v.setLabelProvider(new LabelProvider(jdtResolver, searchterms, searchType, searchResults));
-        v.setContentProvider(new ContentProvider(searchResults,  Names.vm2srcSimpleTypeName(typeName), searchType, jdtResolver));
+        v.setLabelProvider(new LabelProvider(jdtResolver, searchterms, searchType, searchResults, asts));
+        v.setContentProvider(new ContentProvider(searchResults,  Names.vm2srcSimpleTypeName(typeName), searchType, jdtResolver,
+                scheduler, asts));
         // v.setUseHashlookup(true);
         v.setInput(searchResults);
         // v.getTable().setLinesVisible(true);
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.apidoc;
+
+import java.util.Iterator;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Renders the rows of the examples tables on a fixed set of background threads that is shared by all searches.
+ * <p>
+ * Each table renders its rows in a {@link Session}. Rows are rendered in the reverse order of their requests, so the
+ * rows the user has scrolled to last come first. A row that is no longer visible when its turn comes is dropped and
+ * requested again once it is scrolled back into view. Starting a new session cancels the previous one, whose table is
+ * about to be replaced.
+ */
+public class RowRenderingScheduler {
+
+    public final class Session {
+
+        private volatile boolean cancelled;
+        private volatile int firstVisible;
+        private volatile int lastVisible = Integer.MAX_VALUE;
+
+        private Session() {
+        }
+
+        /**
+         * Sets the rows that are worth rendering. Called from the UI thread whenever the table requests a row.
+         */
+        public void setVisibleRows(final int first, final int last) {
+            firstVisible = first;
+            lastVisible = last;
+        }
+
+        /**
+         * @param render
+         *            renders the row on a background thread
+         * @param dropped
+         *            called instead if the row is no longer visible when its turn comes
+         */
+        public void submit(final int row, final Runnable render, final Runnable dropped) {
+            if (!cancelled) {
+                executor.execute(new RowTask(this, row, render, dropped));
+            }
+        }
+
+        /**
+         * Discards all rows of this session that have not been rendered yet.
+         */
+        public void cancel() {
+            cancelled = true;
+            for (final Iterator<Runnable> it = executor.getQueue().iterator(); it.hasNext();) {
+                final Runnable task = it.next();
+                if (task instanceof RowTask && ((RowTask) task).session == this) {
+                    it.remove();
+                }
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private boolean isVisible(final int row) {
+            return row >= firstVisible && row <= lastVisible;
+        }
+    }
+
+    private static final class RowTask implements Runnable {
+        private final Session session;
+        private final int row;
+        private final Runnable render;
+        private final Runnable dropped;
+
+        private RowTask(final Session session, final int row, final Runnable render, final Runnable dropped) {
+            this.session = session;
+            this.row = row;
+            this.render = render;
+            this.dropped = dropped;
+        }
+
+        @Override
+        public void run() {
+            if (session.cancelled) {
+                return;
+            }
+            if (session.isVisible(row)) {
+                render.run();
+            } else {
+                dropped.run();
+            }
+        }
+    }
+
+    /**
+     * A queue that hands out the task added last first.
+     */
+    private static final class LifoQueue extends LinkedBlockingDeque<Runnable> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public boolean offer(final Runnable task) {
+            return offerFirst(task);
+        }
+
+        @Override
+        public boolean add(final Runnable task) {
+            addFirst(task);
+            return true;
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+
+    // guarded by this
+    private Session current;
+
+    public RowRenderingScheduler(final int threads) {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LifoQueue(),
+                new ThreadFactoryBuilder().setNameFormat("Recommenders::codesearch-rows-%d")
+                        .setPriority(Thread.MIN_PRIORITY).setDaemon(true).build());
+    }
+
+    /**
+     * Starts rendering a new table and cancels the rows of the table shown before.
+     */
+    public synchronized Session newSession() {
+        if (current != null) {
+            current.cancel();
+        }
+        current = new Session();
+        return current;
+    }
+
+    public void dispose() {
+        executor.shutdownNow();
+    }
+}
@@ -13,7 +13,6 @@ package org.eclipse.recommenders.codesearch.rcp.index.apidoc;
 
 import org.apache.lucene.document.Document;
 import org.eclipse.jdt.core.IJavaElement;
-import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 
 public class Selection {
@@ -22,21 +21,35 @@ public class Selection {
     public final String varname;
     public final Document doc;
     public final Exception exception;
+    final Snippet snippet;
 
     public Selection(final MethodDeclaration method, final String varname, final Document doc) {
-        this(method, varname, doc, null);
+        this(method, varname, doc, null, null);
     }
 
     public Selection(final Exception e) {
-        this( null, null, null, e);
+        this( null, null, null, e, null);
+    }
+
+    /**
+     * A row that is shown from the source ranges stored in the index.
+     */
+    Selection(final Snippet snippet, final Document doc) {
+        this(null, null, doc, null, snippet);
     }
 
     protected Selection(final MethodDeclaration method, final String varname, final Document doc, final Exception e) {
+        this(method, varname, doc, e, null);
+    }
+
+    private Selection(final MethodDeclaration method, final String varname, final Document doc, final Exception e,
+            final Snippet snippet) {
 
         this.method = method;
         this.varname = varname;
         this.doc = doc;
         this.exception = e;
+        this.snippet = snippet;
     }
 
     public boolean isError() {
@@ -47,9 +60,17 @@ public class Selection {
         return method!=null;
     }
 
-    IMethod element() {
-        if(method != ContentProvider.EMPTY || method!=null)
-            return (IMethod) method.resolveBinding().getJavaElement();
+    boolean hasSnippet() {
+        return snippet != null;
+    }
+
+    IJavaElement element() {
+        if (snippet != null) {
+            return snippet.element;
+        }
+        if (method != ContentProvider.EMPTY && method != null) {
+            return method.resolveBinding().getJavaElement();
+        }
         return null;
     }    
     
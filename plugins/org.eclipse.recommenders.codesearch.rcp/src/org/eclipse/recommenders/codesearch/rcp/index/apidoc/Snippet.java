@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.apidoc;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.stripStart;
+
+import java.util.List;
+
+import org.apache.lucene.document.Document;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IOpenable;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.recommenders.codesearch.rcp.index.Fields;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.SourceRanges;
+import org.eclipse.recommenders.utils.IOUtils;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+
+/**
+ * The text of a result row, read from the source ranges stored with the document. No AST is needed for it.
+ */
+final class Snippet {
+
+    private static final int SUMMARY_LINES = 3;
+
+    final IJavaElement element;
+    final String header;
+    final String summary;
+    final String declaration;
+
+    private Snippet(final IJavaElement element, final String header, final String summary, final String declaration) {
+        this.element = element;
+        this.header = header;
+        this.summary = summary;
+        this.declaration = declaration;
+    }
+
+    /**
+     * @return the snippet of the document, or absent if the document has no ranges or its file has changed since it
+     *         was indexed
+     */
+    static Optional<Snippet> read(final IJavaElement element, final Document doc, final boolean varUsage)
+            throws JavaModelException {
+        final Optional<SourceRanges> ranges = SourceRanges.parse(doc.get(Fields.SNIPPET_RANGES));
+        final IOpenable openable = element.getOpenable();
+        if (!ranges.isPresent() || openable == null) {
+            return Optional.absent();
+        }
+        final IBuffer buffer = openable.getBuffer();
+        final String name = varUsage ? doc.get(Fields.VARIABLE_NAME) : element.getElementName();
+        if (buffer == null || !ranges.get().isValid(buffer, name)) {
+            return Optional.absent();
+        }
+
+        final String declaration = ranges.get().getDeclaration(buffer);
+        final List<String> text = varUsage ? ranges.get().getStatements(buffer) : Lists.newArrayList(declaration);
+        if (text.isEmpty()) {
+            return Optional.absent();
+        }
+        return Optional.of(new Snippet(element, getHeader(element), summarize(text), declaration));
+    }
+
+    private static String getHeader(final IJavaElement element) {
+        final IJavaElement method = element.getAncestor(IJavaElement.METHOD);
+        if (method == null) {
+            return "";
+        }
+        final IType type = (IType) method.getAncestor(IJavaElement.TYPE);
+        return "class " + type.getFullyQualifiedName('.') + " | method " + method.getElementName() + "\n";
+    }
+
+    /**
+     * @return the first lines of the given source snippets, without indentation
+     */
+    private static String summarize(final List<String> snippets) {
+        final StringBuilder sb = new StringBuilder();
+        int lines = 0;
+        for (final String snippet : snippets) {
+            for (final String line : snippet.split("\r\n|\r|\n")) {
+                if (isBlank(line)) {
+                    continue;
+                }
+                if (lines > 0) {
+                    sb.append(IOUtils.LINE_SEPARATOR);
+                }
+                sb.append(stripStart(line, null));
+                if (++lines == SUMMARY_LINES) {
+                    return sb.toString();
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    String getToolTipText() {
+        final IType type = (IType) element.getAncestor(IJavaElement.TYPE);
+        return (type == null ? "" : "class " + type.getFullyQualifiedName('.')) + "\n" + declaration;
+    }
+}
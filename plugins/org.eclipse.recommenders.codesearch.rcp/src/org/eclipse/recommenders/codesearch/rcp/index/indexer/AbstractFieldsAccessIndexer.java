@@ -18,6 +18,8 @@ import org.eclipse.jdt.core.dom.Assignment;
 import org.eclipse.jdt.core.dom.QualifiedName;
 import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.INodeHandler;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.NodeDispatcher;
 
 import com.google.common.base.Optional;
 
@@ -35,28 +37,45 @@ public abstract class AbstractFieldsAccessIndexer {
         final ASTVisitor visitor = new ASTVisitor() {
             @Override
             public boolean visit(final QualifiedName node) {
-                if (side == null || (parentIsAssignment(node) && currentNodeCorrectSideOfAssignment(node, side))
-                        || side.equals(AssignmentSide.RIGHT)) {
-                    final SimpleName simpleName = node.getName();
+                return addField(document, node, fieldName, side);
+            }
+        };
+
+        node.accept(visitor);
+    }
+
+    protected void registerFields(final Document document, final NodeDispatcher dispatcher, final String fieldName,
+            final AssignmentSide side) {
+        final INodeHandler handler = new INodeHandler() {
+            @Override
+            public boolean handle(final ASTNode node) {
+                return addField(document, (QualifiedName) node, fieldName, side);
+            }
+        };
 
-                    final Optional<TypeDeclaration> opt = AstHelper.getDeclaringType(node);
-                    if (!opt.isPresent()) {
-                        return false;
-                    }
-                    final Optional<String> optId = BindingHelper.getIdentifier(opt.get());
-                    if (!optId.isPresent()) {
-                        return false;
-                    }
-                    final String result = String.format("%1$s.%2$s", optId.get(), simpleName);
+        dispatcher.register(handler, ASTNode.QUALIFIED_NAME);
+    }
 
-                    CodeIndexer.addFieldToDocument(document, fieldName, result);
-                }
+    private boolean addField(final Document document, final QualifiedName node, final String fieldName,
+            final AssignmentSide side) {
+        if (side == null || (parentIsAssignment(node) && currentNodeCorrectSideOfAssignment(node, side))
+                || side.equals(AssignmentSide.RIGHT)) {
+            final SimpleName simpleName = node.getName();
 
+            final Optional<TypeDeclaration> opt = AstHelper.getDeclaringType(node);
+            if (!opt.isPresent()) {
                 return false;
             }
-        };
+            final Optional<String> optId = BindingHelper.getIdentifier(opt.get());
+            if (!optId.isPresent()) {
+                return false;
+            }
+            final String result = String.format("%1$s.%2$s", optId.get(), simpleName);
 
-        node.accept(visitor);
+            CodeIndexer.addFieldToDocument(document, fieldName, result);
+        }
+
+        return false;
     }
 
     private boolean parentIsAssignment(final ASTNode node) {
@@ -24,6 +24,7 @@ import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.Type;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.BindingIdentifierCache;
 import org.eclipse.recommenders.utils.names.IMethodName;
 import org.eclipse.recommenders.utils.names.ITypeName;
 import org.eclipse.recommenders.rcp.utils.AstBindings;
@@ -76,11 +77,19 @@ public final class BindingHelper {
         if (b == null) {
             return absent();
         }
-        final Optional<ITypeName> opt = AstBindings.toTypeName(b);
-        if (!opt.isPresent()) {
-            return absent();
+        final BindingIdentifierCache cache = BindingIdentifierCache.current();
+        final String key = cache == null ? null : b.getKey();
+        if (key != null) {
+            final Optional<String> cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
         }
-        return of(opt.get().getIdentifier());
+
+        final Optional<ITypeName> opt = AstBindings.toTypeName(b);
+        final Optional<String> identifier = opt.isPresent() ? of(opt.get().getIdentifier()) : Optional
+                .<String> absent();
+        return key == null ? identifier : cache.put(key, identifier);
     }
 
     public static Optional<String> getTypeIdentifier(final SimpleName n) {
@@ -95,10 +104,18 @@ public final class BindingHelper {
         if (b == null) {
             return absent();
         }
-        final Optional<IMethodName> opt = AstBindings.toMethodName(b);
-        if (!opt.isPresent()) {
-            return absent();
+        final BindingIdentifierCache cache = BindingIdentifierCache.current();
+        final String key = cache == null ? null : b.getKey();
+        if (key != null) {
+            final Optional<String> cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
         }
-        return of(opt.get().getIdentifier());
+
+        final Optional<IMethodName> opt = AstBindings.toMethodName(b);
+        final Optional<String> identifier = opt.isPresent() ? of(opt.get().getIdentifier()) : Optional
+                .<String> absent();
+        return key == null ? identifier : cache.put(key, identifier);
     }
 }
@@ -14,27 +14,35 @@ package org.eclipse.recommenders.codesearch.rcp.index.indexer;
 
 import static org.eclipse.recommenders.codesearch.rcp.index.searcher.CodeSearcher.prepareSearchTerm;
 
+import java.io.CharArrayReader;
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.FieldSelector;
+import org.apache.lucene.document.Fieldable;
+import org.apache.lucene.document.NumericField;
 import org.apache.lucene.document.SetBasedFieldSelector;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.recommenders.codesearch.rcp.index.FieldSchema;
+import org.eclipse.recommenders.codesearch.rcp.index.FieldSchema.FieldSpec;
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
+import org.eclipse.recommenders.codesearch.rcp.index.SimpleNames;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.analyzer.LowerCaseKeywordAnalyzer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IIndexer;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.strategy.IFieldIndexingStrategy;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.strategy.SimpleNameBasedStrategy;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.IIndexInformationProvider;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.IndexInformationCache;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.BindingIdentifierCache;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.IndexManifest;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.CompilationUnitVisitor;
 import org.eclipse.recommenders.codesearch.rcp.index.searcher.CodeSearcher;
+import org.eclipse.recommenders.codesearch.rcp.index.searcher.IDocumentHandler;
 import org.eclipse.recommenders.internal.codesearch.rcp.CodesearchIndexPlugin;
 import org.eclipse.recommenders.rcp.utils.Logs;
 
@@ -45,19 +53,24 @@ import com.google.inject.Inject;
 
 public class CodeIndexer implements ICompilationUnitIndexer {
 
-    private static boolean verbose = false; // XXX: Always set me back to false
-                                            // please...
+    private static volatile boolean verbose = false; // XXX: Always set me back to false
+                                                     // please...
 
-    private static final List<IIndexer> defaultIndexer = getDefaultIndexer();
+    /**
+     * Shared by all indexing threads. Indexers must therefore not keep any state between calls.
+     */
+    private static final List<IIndexer> defaultIndexer = Collections.unmodifiableList(getDefaultIndexer());
 
-    private static IFieldIndexingStrategy indexingFieldInfoProvider = new SimpleNameBasedStrategy();
+    private static volatile FieldSchema schema = FieldSchema.getDefault();
+
+    private static final String CONTENT_HASH_PROPERTY = CodeIndexer.class.getName() + ".contentHash";
 
     public static void setVerbose(boolean value) {
         verbose = value;
     }
 
-    public static void setIndexingFieldInformationProvider(IFieldIndexingStrategy newIindexingFieldInfoProvider) {
-        indexingFieldInfoProvider = newIindexingFieldInfoProvider;
+    public static void setFieldSchema(final FieldSchema newSchema) {
+        schema = newSchema;
     }
 
     public static void addFieldToDocument(final Document document, final String fieldName, final int fieldValue) {
@@ -65,12 +78,55 @@ public class CodeIndexer implements ICompilationUnitIndexer {
     }
 
     public static void addFieldToDocument(final Document document, final String fieldName, final String fieldValue) {
-        addInternal(document, fieldName, fieldValue, indexingFieldInfoProvider.getStore(fieldName),
-                indexingFieldInfoProvider.getIndex(fieldName));
+        addInternal(document, fieldName, fieldValue, schema.get(fieldName));
+    }
+
+    /**
+     * Adds a range of a character array, e.g., the source of an AST node. Fields that are analyzed but not stored read
+     * the range through a {@link java.io.Reader} while the document is indexed, so the text is never copied into a
+     * string.
+     */
+    public static void addFieldToDocument(final Document document, final String fieldName, final char[] text,
+            final int offset, final int length) {
+        final FieldSpec spec = schema.get(fieldName);
+        if (spec.isStored() || !spec.isIndexed() || !spec.isTokenized()) {
+            addInternal(document, fieldName, new String(text, offset, length), spec);
+            return;
+        }
+
+        if (verbose) {
+            System.out.println(String.format("Indexed field [%30s]=[%60s]", fieldName,
+                    new String(text, offset, length)));
+        }
+
+        final Field field = new Field(fieldName, new CharArrayReader(text, offset, length));
+        field.setOmitNorms(spec.getIndex().omitNorms());
+        field.setIndexOptions(spec.getIndexOptions());
+        document.add(field);
+    }
+
+    /**
+     * Adds a number as a trie encoded {@link NumericField} if the schema declares the field numeric, and as a plain
+     * string otherwise.
+     */
+    public static void addNumericFieldToDocument(final Document document, final String fieldName,
+            final long fieldValue) {
+        final FieldSpec spec = schema.get(fieldName);
+        if (!spec.isNumeric()) {
+            addInternal(document, fieldName, String.valueOf(fieldValue), spec);
+            return;
+        }
+
+        if (verbose) {
+            System.out.println(String.format("Indexed field [%30s]=[%60d]", fieldName, fieldValue));
+        }
+
+        document.add(new NumericField(fieldName, FieldSchema.PRECISION_STEP, spec.getStore(), spec.isIndexed())
+                .setLongValue(fieldValue));
     }
 
     private static void addInternal(final Document document, final String fieldName, final String fieldValue,
-            Field.Store store, Field.Index index) {
+            final FieldSpec spec) {
         if (fieldValue == null) {
             return;
         }
@@ -80,21 +136,74 @@ public class CodeIndexer implements ICompilationUnitIndexer {
             System.out.println(String.format("Indexed field [%30s]=[%60s]", fieldName, fieldValue));
         }
 
-        final Field field = new Field(fieldName, fieldValue, store, index);
+        if (spec.isIndexed() && !spec.isTokenized()) {
+            addKeyword(document, fieldName, fieldValue, spec);
+            addSimpleName(document, fieldName, fieldValue);
+            return;
+        }
+
+        final Field field = new Field(fieldName, fieldValue, spec.getStore(), spec.getIndex());
+        if (spec.isIndexed()) {
+            field.setIndexOptions(spec.getIndexOptions());
+        }
 
         document.add(field);
     }
 
+    /**
+     * Adds the simple name of a type or method identifier to the companion field, see {@link SimpleNames}.
+     */
+    private static void addSimpleName(final Document document, final String fieldName, final String fieldValue) {
+        final Optional<String> field = SimpleNames.getField(fieldName);
+        if (!field.isPresent()) {
+            return;
+        }
+        final Optional<String> simpleName = SimpleNames.getSimpleName(fieldName, fieldValue);
+        if (simpleName.isPresent()) {
+            final String simpleNameField = field.get();
+            addKeyword(document, simpleNameField, simpleName.get(), schema.get(simpleNameField));
+        }
+    }
+
+    /**
+     * Indexes the value as a single lower case term without running it through an analyzer. The original value is
+     * stored, if requested, so that it is returned unchanged from the index.
+     */
+    private static void addKeyword(final Document document, final String fieldName, final String fieldValue,
+            final FieldSpec spec) {
+        final String term = LowerCaseKeywordAnalyzer.toLowerCase(fieldValue);
+        final Field indexed;
+        if (!spec.isStored() || term == fieldValue) {
+            indexed = new Field(fieldName, term, spec.getStore(), spec.getIndex());
+        } else {
+            document.add(new Field(fieldName, fieldValue, Field.Store.YES, Field.Index.NO));
+            indexed = new Field(fieldName, term, Field.Store.NO, spec.getIndex());
+        }
+        indexed.setIndexOptions(spec.getIndexOptions());
+        document.add(indexed);
+    }
+
     private final IndexWriter writer;
     private final CodeSearcher searcher;
-    private final List<IIndexer> tmpIndexerCollection = Lists.newArrayList();
-    private final IIndexInformationProvider indexInformationProvider;
+    private final IndexManifest manifest;
 
-    @Inject
+    /**
+     * Creates an indexer with a manifest that is kept in memory only.
+     */
     public CodeIndexer(final IndexWriter writer, final CodeSearcher searcher) throws IOException {
+        this(writer, searcher, new IndexManifest());
+    }
+
+    @Inject
+    public CodeIndexer(final IndexWriter writer, final CodeSearcher searcher, final IndexManifest manifest)
+            throws IOException {
         this.writer = writer;
         this.searcher = searcher;
-        indexInformationProvider = new IndexInformationCache();
+        this.manifest = manifest;
+        if (!manifest.isComplete() && manifest.size() == 0 && writer.numDocs() == 0) {
+            // a fresh index: every file indexed from now on will be in the manifest
+            manifest.setComplete();
+        }
     }
 
     @Override
@@ -104,14 +213,15 @@ public class CodeIndexer implements ICompilationUnitIndexer {
 
     @Override
     public void index(final CompilationUnit cu, CodeIndexerConfigBean settings) throws IOException {
-        index(cu, settings, defaultIndexer);
+        final List<IIndexer> indexer = Lists.newArrayListWithCapacity(defaultIndexer.size() + 1);
+        indexer.addAll(defaultIndexer);
+        indexer.add(new TimestampIndexer(settings.getTimestamp()));
+        index(cu, settings, indexer);
     }
 
     @Override
     public void index(final CompilationUnit cu, final IIndexer indexer) throws IOException {
-        tmpIndexerCollection.clear();
-        tmpIndexerCollection.add(indexer);
-        index(cu, tmpIndexerCollection);
+        index(cu, Collections.singletonList(indexer));
     }
 
     @Override
@@ -121,36 +231,57 @@ public class CodeIndexer implements ICompilationUnitIndexer {
 
     private void index(final CompilationUnit cu, CodeIndexerConfigBean settings, final List<IIndexer> indexer)
             throws IOException {
-        if (settings.isDeleteDocumentFirst()) {
-            delete(cu);
-        }
-
-        final CompilationUnitVisitor visitor = new CompilationUnitVisitor(this, settings);
+        final CompilationUnitVisitor visitor = new CompilationUnitVisitor(settings);
         visitor.addIndexer(indexer);
 
+        final BindingIdentifierCache identifiers = BindingIdentifierCache.open();
         try {
             cu.accept(visitor);
         } catch (final Exception e) {
-            Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Exception while indexing %s",
-                    ResourcePathIndexer.getFile(cu));
+            // the documents collected so far describe part of the file only; keep the previous ones and leave the
+            // manifest alone, so that the file is indexed again next time
+            throw new IOException("Exception while indexing " + ResourcePathIndexer.getFile(cu), e);
+        } finally {
+            identifiers.close();
+        }
+
+        // replace all documents of the file at once so that searchers never see half of it
+        if (settings.isDeleteDocumentFirst()) {
+            writer.updateDocuments(resourcePathTerm(cu), visitor.getDocuments());
+        } else {
+            writer.addDocuments(visitor.getDocuments());
         }
 
-        // add to internal cache
-        indexInformationProvider.setLastIndexed(ResourcePathIndexer.getFile(cu), TimestampIndexer.getTime());
+        final File location = ResourcePathIndexer.getFile(cu);
+        final Long hash = (Long) cu.getProperty(CONTENT_HASH_PROPERTY);
+        if (hash != null) {
+            manifest.setLastIndexed(location, settings.getTimestamp(), hash);
+        } else {
+            manifest.setLastIndexed(location, settings.getTimestamp());
+        }
+    }
+
+    /**
+     * Records the hash the file of the unit had before it was parsed, see {@link IndexManifest#contentHash(File)}. The
+     * manifest then remembers the content that was indexed rather than the content on disk once indexing is done.
+     */
+    public static void setContentHash(final CompilationUnit cu, final long hash) {
+        cu.setProperty(CONTENT_HASH_PROPERTY, hash);
     }
 
     @Override
     public long lastIndexed(final File location) {
-        Optional<Long> lastIndexed = indexInformationProvider.getLastIndexed(location);
+        Optional<Long> lastIndexed = manifest.getLastIndexed(location);
 
         if (lastIndexed.isPresent()) {
             return lastIndexed.get();
-        } else {
+        } else if (!manifest.isComplete()) {
+            // index was built before the manifest existed; ask the index once and remember the answer
             lastIndexed = lastIndexedInternal(location);
         }
 
         if (lastIndexed.isPresent()) {
-            indexInformationProvider.setLastIndexed(location, lastIndexed.get());
+            manifest.setLastIndexedWithoutHash(location, lastIndexed.get());
             return lastIndexed.get();
         }
 
@@ -158,16 +289,41 @@ public class CodeIndexer implements ICompilationUnitIndexer {
         return 0;
     }
 
+    /**
+     * @return <code>true</code> if the file has not been modified since it was indexed last or if its content is still
+     *         the same (e.g., after a touch or a checkout of the same revision); in the latter case the file is
+     *         recorded as indexed at the given time of the current job
+     */
+    public boolean isUpToDate(final File location, final long timestamp) {
+        if (location.lastModified() < lastIndexed(location)) {
+            return true;
+        }
+        return manifest.hasSameContent(location, timestamp);
+    }
+
+    /**
+     * Records that the given file (e.g., an archive) has been indexed completely by the job started at the given time.
+     */
+    public void markIndexed(final File location, final long timestamp) {
+        manifest.setLastIndexed(location, timestamp);
+    }
+
+    /**
+     * Marks the manifest as covering the whole index, i.e., after all projects of the workspace have been indexed.
+     */
+    public void markManifestComplete() {
+        manifest.setComplete();
+    }
+
     private Optional<Long> lastIndexedInternal(final File location) {
         try {
             final Query query = new TermQuery(prepareSearchTerm(Fields.RESOURCE_PATH,
                     ResourcePathIndexer.getPath(location)));
             final FieldSelector selector = new SetBasedFieldSelector(Sets.newHashSet(Fields.TIMESTAMP),
                     Sets.<String>newHashSet());
-            final List<Document> docs = searcher.search(query, selector, 1);
-            if (docs.size() > 0) {
-                return getMinTimestamp(docs);
-            }
+            final MinTimestamp min = new MinTimestamp();
+            searcher.forEach(query, selector, min);
+            return min.get();
         } catch (final Exception e) {
             Logs.logError(e, CodesearchIndexPlugin.getDefault(),
                     "failed to fetch last indexed timestamp for CU from code-search index.");
@@ -176,55 +332,93 @@ public class CodeIndexer implements ICompilationUnitIndexer {
         return Optional.absent();
     }
 
-    private Optional<Long> getMinTimestamp(final List<Document> documents) {
-        long min = Long.MAX_VALUE;
+    /**
+     * Computes the oldest timestamp of all documents of a file while they are streamed from the index.
+     */
+    private static final class MinTimestamp implements IDocumentHandler {
 
-        for (final Document doc : documents) {
-            final String timestampString = doc.get(Fields.TIMESTAMP);
+        private long min = Long.MAX_VALUE;
 
-            try {
-                final Long timestampValue = Long.parseLong(timestampString);
-                if (min > timestampValue) {
-                    min = timestampValue;
+        @Override
+        public boolean handle(final Document document) {
+            final Fieldable timestamp = document.getFieldable(Fields.TIMESTAMP);
+            if (timestamp instanceof NumericField) {
+                final Number value = ((NumericField) timestamp).getNumericValue();
+                if (value != null && min > value.longValue()) {
+                    min = value.longValue();
                 }
-            } catch (final Exception ex) {
             }
+            return true;
         }
 
-        if (min == Long.MAX_VALUE) {
-            return Optional.absent();
+        private Optional<Long> get() {
+            if (min == Long.MAX_VALUE) {
+                return Optional.absent();
+            }
+            return Optional.of(min);
         }
-
-        return Optional.of(min);
     }
 
     public void delete(final File location) throws IOException {
         delete(prepareSearchTerm(Fields.RESOURCE_PATH, ResourcePathIndexer.getPath(location)));
+        manifest.remove(location);
+    }
+
+    /**
+     * Deletes the documents of all files below the given folder (e.g., a removed package or project) with a single
+     * prefix delete.
+     */
+    public void deleteAllBelow(final File folder) throws IOException {
+        final String prefix = ResourcePathIndexer.getPath(folder) + File.separator;
+        writer.deleteDocuments(new PrefixQuery(prepareSearchTerm(Fields.RESOURCE_PATH, prefix)));
+        manifest.removeAll(prefix);
     }
 
+    /**
+     * Deletes all documents containing the given term. The term text is lower-cased like any search term.
+     */
     public void delete(final Term term) throws IOException {
         if (term == null || term.text() == null) {
             return;
         }
 
-        final Query q = new TermQuery(prepareSearchTerm(term.field(), term.text().toLowerCase()));
-        writer.deleteDocuments(q);
+        writer.deleteDocuments(prepareSearchTerm(term.field(), term.text()));
     }
 
     @Override
     public void delete(final CompilationUnit cu) throws IOException {
-        final String cuPath = ResourcePathIndexer.getPath(cu);
+        writer.deleteDocuments(resourcePathTerm(cu));
+        manifest.remove(ResourcePathIndexer.getFile(cu));
+    }
 
-        delete(prepareSearchTerm(Fields.RESOURCE_PATH, cuPath));
+    private Term resourcePathTerm(final CompilationUnit cu) {
+        return prepareSearchTerm(Fields.RESOURCE_PATH, ResourcePathIndexer.getPath(cu));
     }
 
     public void commit() {
+        // files indexed while the index commits belong to the next commit; the manifest must never claim more than the
+        // index holds
+        final IndexManifest.Checkpoint checkpoint = manifest.checkpoint();
+        boolean committed = false;
         try {
             writer.commit();
+            committed = true;
+            manifest.flush(checkpoint);
         } catch (final Exception e) {
+            if (!committed) {
+                manifest.restore(checkpoint);
+            }
             Logs.logError(e, CodesearchIndexPlugin.getDefault(),
                     "failed to commit latest changes to code-search index.");
         }
+        refreshSearcher();
+    }
+
+    /**
+     * Makes all changes written so far visible to searches, without committing them.
+     */
+    public void refreshSearcher() {
+        searcher.refresh();
     }
 
     public void compact(final boolean wait) {
@@ -249,12 +443,20 @@ public class CodeIndexer implements ICompilationUnitIndexer {
         try {
             writer.deleteAll();
             writer.commit();
+            manifest.clear();
+            manifest.setComplete();
+            manifest.flush();
         } catch (final IOException e) {
             Logs.logError(e, CodesearchIndexPlugin.getDefault(), "failed to truncate code-search index.");
         }
+        refreshSearcher();
     }
 
     public void printStats() {
+        if (verbose) {
+            System.out.println(String.format("Binding identifiers: %d hits, %d misses",
+                    BindingIdentifierCache.getTotalHits(), BindingIdentifierCache.getTotalMisses()));
+        }
         // XXX: Mach was
         // try {
         // Activator.logInfo("Stat - Docs in Index: " +
@@ -273,14 +475,17 @@ public class CodeIndexer implements ICompilationUnitIndexer {
         } catch (final Exception ex) {
             Logs.logError(ex, CodesearchIndexPlugin.getDefault(), "failed to close code-search index.");
         }
+        searcher.close();
     }
 
     public void addDocuments(final List<Document> docs) throws IOException {
-        for (final Document doc : docs) {
-            addDocument(doc);
-        }
+        writer.addDocuments(docs);
     }
 
+    /**
+     * @return the stateless indexers of the default chain. The {@link TimestampIndexer} is not among them; it is
+     *         added per job with the job's start time.
+     */
     public static List<IIndexer> getDefaultIndexer() {
 
         final List<IIndexer> list = Lists.newArrayList();
@@ -305,7 +510,6 @@ public class CodeIndexer implements ICompilationUnitIndexer {
         list.add(new FieldTypeIndexer());
         list.add(new SimpleNameIndexer());
         list.add(new FullTextIndexer());
-        list.add(new FullTextIndexer2());
         list.add(new QualifiedNameIndexer());
         list.add(new ImplementedInterfacesIndexer());
         list.add(new InstanceOfIndexer());
@@ -318,7 +522,6 @@ public class CodeIndexer implements ICompilationUnitIndexer {
         list.add(new ResourcePathIndexer());
         list.add(new ReturnTypeIndexer());
         // list.add(new ReturnVariableExpressionIndexer());
-        list.add(new TimestampIndexer());
         list.add(new UsedFieldsInFinallyIndexer());
         list.add(new UsedFieldsInTryIndexer());
         list.add(new UsedMethodsIndexer());
@@ -333,6 +536,7 @@ public class CodeIndexer implements ICompilationUnitIndexer {
         list.add(new VariableTargetUsageIndexer());
         list.add(new VariableTypeIndexer());
         list.add(new JavaElementHandleIndexer());
+        list.add(new SnippetRangesIndexer());
         return list;
     }
 }
@@ -14,10 +14,20 @@ package org.eclipse.recommenders.codesearch.rcp.index.indexer;
 public class CodeIndexerConfigBean {
     private final boolean deleteDocumentFirst;
     private final float documentBoost;
+    private final long timestamp;
 
     public CodeIndexerConfigBean(boolean deleteDocumentFirst, float documentBoost) {
+        this(deleteDocumentFirst, documentBoost, System.currentTimeMillis());
+    }
+
+    /**
+     * @param timestamp
+     *            the time the indexing job started; all documents and manifest entries of the job get this timestamp
+     */
+    public CodeIndexerConfigBean(boolean deleteDocumentFirst, float documentBoost, long timestamp) {
         this.deleteDocumentFirst = deleteDocumentFirst;
         this.documentBoost = documentBoost;
+        this.timestamp = timestamp;
     }
 
     public boolean isDeleteDocumentFirst() {
@@ -27,4 +37,8 @@ public class CodeIndexerConfigBean {
     public float getDocumentBoost() {
         return documentBoost;
     }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
 }
@@ -17,4 +17,8 @@ public class CodeIndexerDefaultConfigBean extends CodeIndexerConfigBean {
         super(true, 1.0f);
     }
 
+    public CodeIndexerDefaultConfigBean(long timestamp) {
+        super(true, 1.0f, timestamp);
+    }
+
 }
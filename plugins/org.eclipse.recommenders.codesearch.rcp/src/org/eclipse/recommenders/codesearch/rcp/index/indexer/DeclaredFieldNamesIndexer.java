@@ -14,6 +14,7 @@ package org.eclipse.recommenders.codesearch.rcp.index.indexer;
 import java.util.List;
 
 import org.apache.lucene.document.Document;
+import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.CatchClause;
 import org.eclipse.jdt.core.dom.FieldDeclaration;
@@ -24,37 +25,40 @@ import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
 import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassIndexer;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassNodeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodNodeIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.ITryCatchBlockIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.INodeHandler;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.NodeDispatcher;
 
-public class DeclaredFieldNamesIndexer implements IClassIndexer, IMethodIndexer,
+public class DeclaredFieldNamesIndexer implements IClassNodeIndexer, IMethodNodeIndexer,
         ITryCatchBlockIndexer {
 
     @Override
-    public void indexMethod(final Document document, final MethodDeclaration method) {
-        final ASTVisitor visitor = new ASTVisitor() {
+    public void registerMethod(final Document document, final MethodDeclaration method,
+            final NodeDispatcher dispatcher) {
+        final INodeHandler handler = new INodeHandler() {
             @Override
-            public boolean visit(final VariableDeclarationStatement node) {
-                addVariableNames(document, node);
+            public boolean handle(final ASTNode node) {
+                addVariableNames(document, (VariableDeclarationStatement) node);
                 return false;
             }
         };
 
-        method.accept(visitor);
+        dispatcher.register(handler, ASTNode.VARIABLE_DECLARATION_STATEMENT);
     }
 
     @Override
-    public void indexType(final Document document, final TypeDeclaration type) {
-        final ASTVisitor visitor = new ASTVisitor() {
+    public void registerType(final Document document, final TypeDeclaration type, final NodeDispatcher dispatcher) {
+        final INodeHandler handler = new INodeHandler() {
             @Override
-            public boolean visit(final FieldDeclaration node) {
-                addVariableNames(document, node);
+            public boolean handle(final ASTNode node) {
+                addVariableNames(document, (FieldDeclaration) node);
                 return false;
             }
         };
 
-        type.accept(visitor);
+        dispatcher.register(handler, ASTNode.FIELD_DECLARATION);
     }
 
     @Override
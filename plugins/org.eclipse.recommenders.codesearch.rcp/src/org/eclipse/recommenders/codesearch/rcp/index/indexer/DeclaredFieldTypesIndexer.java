@@ -11,6 +11,7 @@
 package org.eclipse.recommenders.codesearch.rcp.index.indexer;
 
 import org.apache.lucene.document.Document;
+import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.CatchClause;
 import org.eclipse.jdt.core.dom.FieldDeclaration;
@@ -19,34 +20,37 @@ import org.eclipse.jdt.core.dom.TryStatement;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassIndexer;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassNodeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodNodeIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.ITryCatchBlockIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.INodeHandler;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.NodeDispatcher;
 
 import com.google.common.base.Optional;
 
-public class DeclaredFieldTypesIndexer implements IClassIndexer, IMethodIndexer,
+public class DeclaredFieldTypesIndexer implements IClassNodeIndexer, IMethodNodeIndexer,
         ITryCatchBlockIndexer {
 
     @Override
-    public void indexMethod(final Document document, final MethodDeclaration method) {
-        final ASTVisitor visitor = new ASTVisitor() {
+    public void registerMethod(final Document document, final MethodDeclaration method,
+            final NodeDispatcher dispatcher) {
+        final INodeHandler handler = new INodeHandler() {
             @Override
-            public boolean visit(final VariableDeclarationStatement node) {
-                addDeclaredFieldType(document, node);
+            public boolean handle(final ASTNode node) {
+                addDeclaredFieldType(document, (VariableDeclarationStatement) node);
                 return false;
             }
         };
 
-        method.accept(visitor);
+        dispatcher.register(handler, ASTNode.VARIABLE_DECLARATION_STATEMENT);
     }
 
     @Override
-    public void indexType(final Document document, final TypeDeclaration type) {
-        final ASTVisitor visitor = new ASTVisitor() {
+    public void registerType(final Document document, final TypeDeclaration type, final NodeDispatcher dispatcher) {
+        final INodeHandler handler = new INodeHandler() {
             @Override
-            public boolean visit(final FieldDeclaration node) {
-                final Optional<String> opt = BindingHelper.getIdentifier(node);
+            public boolean handle(final ASTNode node) {
+                final Optional<String> opt = BindingHelper.getIdentifier((FieldDeclaration) node);
                 if (opt.isPresent()) {
                     CodeIndexer.addFieldToDocument(document, Fields.DECLARED_FIELD_TYPES, opt.get());
                 }
@@ -54,7 +58,7 @@ public class DeclaredFieldTypesIndexer implements IClassIndexer, IMethodIndexer,
             }
         };
 
-        type.accept(visitor);
+        dispatcher.register(handler, ASTNode.FIELD_DECLARATION);
     }
 
     @Override
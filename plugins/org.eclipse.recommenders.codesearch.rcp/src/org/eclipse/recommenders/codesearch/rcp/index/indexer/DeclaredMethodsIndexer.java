@@ -12,22 +12,24 @@
 package org.eclipse.recommenders.codesearch.rcp.index.indexer;
 
 import org.apache.lucene.document.Document;
-import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassNodeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.INodeHandler;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.NodeDispatcher;
 
 import com.google.common.base.Optional;
 
-public class DeclaredMethodsIndexer implements IClassIndexer {
+public class DeclaredMethodsIndexer implements IClassNodeIndexer {
 
     @Override
-    public void indexType(final Document document, final TypeDeclaration type) {
-        final ASTVisitor visitor = new ASTVisitor() {
+    public void registerType(final Document document, final TypeDeclaration type, final NodeDispatcher dispatcher) {
+        final INodeHandler handler = new INodeHandler() {
             @Override
-            public boolean visit(final MethodDeclaration node) {
-                final Optional<String> opt = BindingHelper.getIdentifier(node);
+            public boolean handle(final ASTNode node) {
+                final Optional<String> opt = BindingHelper.getIdentifier((MethodDeclaration) node);
                 if (opt.isPresent()) {
                     CodeIndexer.addFieldToDocument(document, Fields.DECLARED_METHODS, opt.get());
                 }
@@ -35,6 +37,6 @@ public class DeclaredMethodsIndexer implements IClassIndexer {
             }
         };
 
-        type.accept(visitor);
+        dispatcher.register(handler, ASTNode.METHOD_DECLARATION);
     }
 }
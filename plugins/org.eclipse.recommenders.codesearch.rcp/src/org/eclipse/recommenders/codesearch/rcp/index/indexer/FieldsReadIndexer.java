@@ -17,21 +17,23 @@ import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.TryStatement;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassIndexer;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassNodeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodNodeIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.ITryCatchBlockIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.NodeDispatcher;
 
-public class FieldsReadIndexer extends AbstractFieldsAccessIndexer implements IClassIndexer, IMethodIndexer,
+public class FieldsReadIndexer extends AbstractFieldsAccessIndexer implements IClassNodeIndexer, IMethodNodeIndexer,
         ITryCatchBlockIndexer {
 
     @Override
-    public void indexMethod(final Document document, final MethodDeclaration method) {
-        addFields(document, method, Fields.FIELDS_READ, AssignmentSide.RIGHT);
+    public void registerMethod(final Document document, final MethodDeclaration method,
+            final NodeDispatcher dispatcher) {
+        registerFields(document, dispatcher, Fields.FIELDS_READ, AssignmentSide.RIGHT);
     }
 
     @Override
-    public void indexType(final Document document, final TypeDeclaration type) {
-        addFields(document, type, Fields.FIELDS_READ, AssignmentSide.RIGHT);
+    public void registerType(final Document document, final TypeDeclaration type, final NodeDispatcher dispatcher) {
+        registerFields(document, dispatcher, Fields.FIELDS_READ, AssignmentSide.RIGHT);
     }
 
     @Override
@@ -16,14 +16,17 @@ import org.eclipse.jdt.core.dom.CatchClause;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.TryStatement;
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodNodeIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.ITryCatchBlockIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.NodeDispatcher;
 
-public class FieldsWrittenIndexer extends AbstractFieldsAccessIndexer implements IMethodIndexer, ITryCatchBlockIndexer {
+public class FieldsWrittenIndexer extends AbstractFieldsAccessIndexer implements IMethodNodeIndexer,
+        ITryCatchBlockIndexer {
 
     @Override
-    public void indexMethod(final Document document, final MethodDeclaration method) {
-        addFields(document, method, Fields.FIELDS_WRITTEN, AssignmentSide.LEFT);
+    public void registerMethod(final Document document, final MethodDeclaration method,
+            final NodeDispatcher dispatcher) {
+        registerFields(document, dispatcher, Fields.FIELDS_WRITTEN, AssignmentSide.LEFT);
     }
 
     @Override
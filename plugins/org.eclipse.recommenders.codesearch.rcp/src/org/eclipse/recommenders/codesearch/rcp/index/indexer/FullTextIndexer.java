@@ -12,6 +12,7 @@
 package org.eclipse.recommenders.codesearch.rcp.index.indexer;
 
 import org.apache.lucene.document.Document;
+import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.CatchClause;
 import org.eclipse.jdt.core.dom.FieldDeclaration;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
@@ -22,27 +23,49 @@ import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassIn
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IFieldIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.ITryCatchBlockIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.SourceText;
 
+import com.google.common.base.Optional;
+
+/**
+ * Indexes the source of types, methods, fields and try statements as full text. The text is read from the compilation
+ * unit's source by each node's range, so comments and the original formatting are preserved and no node is flattened
+ * into a new string. All identifiers are part of the source and are split by the full text analyzer. Nodes without
+ * source (e.g., of class files without attached source) fall back to {@link ASTNode#toString()}.
+ */
 public class FullTextIndexer implements IClassIndexer, IMethodIndexer, ITryCatchBlockIndexer,
         IFieldIndexer {
 
     @Override
     public void indexField(final Document document, final FieldDeclaration field) {
-        CodeIndexer.addFieldToDocument(document, Fields.FULL_TEXT, field.toString().trim());
+        addSource(document, field);
     }
 
     @Override
     public void indexMethod(final Document document, final MethodDeclaration method) {
-        CodeIndexer.addFieldToDocument(document, Fields.FULL_TEXT, method.toString().trim());
+        addSource(document, method);
     }
 
     @Override
     public void indexType(final Document document, final TypeDeclaration type) {
-        CodeIndexer.addFieldToDocument(document, Fields.FULL_TEXT, type.toString().trim());
+        addSource(document, type);
     }
 
     @Override
     public void indexTryCatchBlock(final Document document, final TryStatement tryStatement, final CatchClause catchClause) {
-        CodeIndexer.addFieldToDocument(document, Fields.FULL_TEXT, catchClause.toString().trim());
+        // called once per catch clause; the try statement covers all of them
+        if (tryStatement.catchClauses().indexOf(catchClause) == 0) {
+            addSource(document, tryStatement);
+        }
+    }
+
+    private static void addSource(final Document document, final ASTNode node) {
+        final Optional<char[]> source = SourceText.of(node);
+        if (source.isPresent()) {
+            CodeIndexer.addFieldToDocument(document, Fields.FULL_TEXT, source.get(), node.getStartPosition(),
+                    node.getLength());
+        } else {
+            CodeIndexer.addFieldToDocument(document, Fields.FULL_TEXT, node.toString().trim());
+        }
     }
 }
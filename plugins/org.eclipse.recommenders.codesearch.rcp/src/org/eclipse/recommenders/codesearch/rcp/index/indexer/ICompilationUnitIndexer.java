@@ -23,6 +23,8 @@ public interface ICompilationUnitIndexer {
     /**
      * Indexes a CompilationUnit using the set of default indexers. Before indexing all documents with the same
      * ResourcePath will be deleted from the index.
+     * <p>
+     * If an indexer fails, the documents of the unit are left as they were and an {@link IOException} is thrown.
      * 
      * @see org.eclipse.recommenders.codesearch.rcp.index.indexer.ResourcePathIndexer
      */
@@ -12,6 +12,7 @@
 package org.eclipse.recommenders.codesearch.rcp.index.indexer;
 
 import org.apache.lucene.document.Document;
+import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.CatchClause;
 import org.eclipse.jdt.core.dom.InstanceofExpression;
@@ -19,18 +20,19 @@ import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.TryStatement;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassIndexer;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassNodeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodNodeIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.ITryCatchBlockIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.INodeHandler;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.NodeDispatcher;
 
 import com.google.common.base.Optional;
 
-public class InstanceOfIndexer implements IMethodIndexer, ITryCatchBlockIndexer, IClassIndexer {
+public class InstanceOfIndexer implements IMethodNodeIndexer, ITryCatchBlockIndexer, IClassNodeIndexer {
 
     @Override
-    public void indexType(final Document document, final TypeDeclaration type) {
-        final InstanceOfVisitor visitor = new InstanceOfVisitor(document);
-        type.accept(visitor);
+    public void registerType(final Document document, final TypeDeclaration type, final NodeDispatcher dispatcher) {
+        dispatcher.register(new InstanceOfVisitor(document), ASTNode.INSTANCEOF_EXPRESSION);
     }
 
     @Override
@@ -40,12 +42,12 @@ public class InstanceOfIndexer implements IMethodIndexer, ITryCatchBlockIndexer,
     }
 
     @Override
-    public void indexMethod(final Document document, final MethodDeclaration method) {
-        final InstanceOfVisitor visitor = new InstanceOfVisitor(document);
-        method.accept(visitor);
+    public void registerMethod(final Document document, final MethodDeclaration method,
+            final NodeDispatcher dispatcher) {
+        dispatcher.register(new InstanceOfVisitor(document), ASTNode.INSTANCEOF_EXPRESSION);
     }
 
-    private class InstanceOfVisitor extends ASTVisitor {
+    private class InstanceOfVisitor extends ASTVisitor implements INodeHandler {
         private final Document document;
 
         public InstanceOfVisitor(final Document document) {
@@ -62,5 +64,10 @@ public class InstanceOfIndexer implements IMethodIndexer, ITryCatchBlockIndexer,
 
             return false;
         }
+
+        @Override
+        public boolean handle(final ASTNode node) {
+            return visit((InstanceofExpression) node);
+        }
     };
 }
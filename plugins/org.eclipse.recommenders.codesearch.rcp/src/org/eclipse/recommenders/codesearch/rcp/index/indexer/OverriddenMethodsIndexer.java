@@ -12,30 +12,32 @@
 package org.eclipse.recommenders.codesearch.rcp.index.indexer;
 
 import org.apache.lucene.document.Document;
-import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.IMethodBinding;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.internal.corext.dom.Bindings;
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassNodeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.INodeHandler;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.NodeDispatcher;
 
 import com.google.common.base.Optional;
 
 @SuppressWarnings("restriction")
-public class OverriddenMethodsIndexer implements IClassIndexer {
+public class OverriddenMethodsIndexer implements IClassNodeIndexer {
     @Override
-    public void indexType(final Document document, final TypeDeclaration type) {
-        final ASTVisitor visitor = new ASTVisitor() {
+    public void registerType(final Document document, final TypeDeclaration type, final NodeDispatcher dispatcher) {
+        final INodeHandler handler = new INodeHandler() {
             @Override
-            public boolean visit(final MethodDeclaration node) {
-                final IMethodBinding b = node.resolveBinding();
+            public boolean handle(final ASTNode node) {
+                final IMethodBinding b = ((MethodDeclaration) node).resolveBinding();
                 setOverriddenMethodName(document, b);
                 return false;
             }
         };
 
-        type.accept(visitor);
+        dispatcher.register(handler, ASTNode.METHOD_DECLARATION);
     }
 
     private void setOverriddenMethodName(final Document document, final IMethodBinding b) {
@@ -12,22 +12,26 @@
 package org.eclipse.recommenders.codesearch.rcp.index.indexer;
 
 import org.apache.lucene.document.Document;
-import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.ReturnStatement;
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodNodeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.INodeHandler;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.NodeDispatcher;
 
-public class ReturnVariableExpressionIndexer implements IMethodIndexer {
+public class ReturnVariableExpressionIndexer implements IMethodNodeIndexer {
 
     @Override
     /**
      * Indexes the whole return expression as a token
      */
-    public void indexMethod(final Document document, final MethodDeclaration method) {
-        final ASTVisitor visitor = new ASTVisitor() {
+    public void registerMethod(final Document document, final MethodDeclaration method,
+            final NodeDispatcher dispatcher) {
+        final INodeHandler handler = new INodeHandler() {
             @Override
-            public boolean visit(final ReturnStatement node) {
+            public boolean handle(final ASTNode returnStatement) {
+                final ReturnStatement node = (ReturnStatement) returnStatement;
                 if (node.getExpression() != null) {
                     CodeIndexer.addFieldToDocument(document, Fields.RETURN_VARIABLE_EXPRESSIONS, node.getExpression().toString());
                 }
@@ -36,7 +40,7 @@ public class ReturnVariableExpressionIndexer implements IMethodIndexer {
             }
         };
 
-        method.accept(visitor);
+        dispatcher.register(handler, ASTNode.RETURN_STATEMENT);
     }
 
 }
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.indexer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.lucene.document.Document;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.recommenders.codesearch.rcp.index.Fields;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IFieldIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodNodeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IVarUsageIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.RelevantStatements;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.SourceRanges;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.INodeHandler;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.NodeDispatcher;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Stores the {@link SourceRanges} that the example table needs to summarize a document. Variable usages also get the
+ * ranges of the statements that use the variable.
+ */
+public class SnippetRangesIndexer implements IMethodIndexer, IMethodNodeIndexer, IClassIndexer, IFieldIndexer,
+        IVarUsageIndexer {
+
+    /**
+     * The relevant statements of a method by variable (see {@link #variableKey(SimpleName)}). They are collected
+     * while the method is walked anyway and kept with the method, as this indexer is shared by all indexing threads.
+     */
+    private static final String STATEMENTS_PROPERTY = SnippetRangesIndexer.class.getName() + ".statements";
+
+    @Override
+    public void indexMethod(final Document document, final MethodDeclaration method) {
+        add(document, method.getName(), method, "");
+    }
+
+    @Override
+    public void registerMethod(final Document document, final MethodDeclaration method,
+            final NodeDispatcher dispatcher) {
+        final Map<String, Set<ASTNode>> statements = Maps.newHashMap();
+        method.setProperty(STATEMENTS_PROPERTY, statements);
+
+        dispatcher.register(new INodeHandler() {
+
+            @Override
+            public boolean handle(final ASTNode node) {
+                final SimpleName name = (SimpleName) node;
+                final Optional<ASTNode> statement = RelevantStatements.of(name);
+                if (statement.isPresent()) {
+                    final String key = variableKey(name);
+                    if (key != null) {
+                        Set<ASTNode> nodes = statements.get(key);
+                        if (nodes == null) {
+                            nodes = Sets.newLinkedHashSet();
+                            statements.put(key, nodes);
+                        }
+                        nodes.add(statement.get());
+                    }
+                }
+                return true;
+            }
+        }, ASTNode.SIMPLE_NAME);
+    }
+
+    @Override
+    public void indexType(final Document document, final TypeDeclaration type) {
+        add(document, type.getName(), type, "");
+    }
+
+    @Override
+    public void indexField(final Document document, final FieldDeclaration field) {
+        final List<VariableDeclarationFragment> fragments = field.fragments();
+        add(document, fragments.get(0).getName(), field, "");
+    }
+
+    @Override
+    public void indexVarUsage(final Document document, final MethodDeclaration method, final SimpleName name) {
+        @SuppressWarnings("unchecked")
+        final Map<String, Set<ASTNode>> statements = (Map<String, Set<ASTNode>>) method
+                .getProperty(STATEMENTS_PROPERTY);
+        final Set<ASTNode> nodes = statements == null ? null : statements.get(variableKey(name));
+        final StringBuilder sb = new StringBuilder();
+        if (nodes != null) {
+            for (final ASTNode node : nodes) {
+                SourceRanges.append(sb, node);
+            }
+        }
+        add(document, name, method, sb.toString());
+    }
+
+    private void add(final Document document, final SimpleName name, final ASTNode declaration,
+            final String statementRanges) {
+        final Optional<String> ranges = SourceRanges.encode(name, declaration, statementRanges);
+        if (ranges.isPresent()) {
+            CodeIndexer.addFieldToDocument(document, Fields.SNIPPET_RANGES, ranges.get());
+        }
+    }
+
+    /**
+     * @return the binding key of the variable, so that variables of the same name do not share their statements, the
+     *         identifier if the name cannot be resolved, or <code>null</code> if the name is not a variable
+     */
+    private static String variableKey(final SimpleName name) {
+        final IBinding binding = name.resolveBinding();
+        if (binding == null || binding.getKey() == null) {
+            return name.getIdentifier();
+        }
+        return binding.getKind() == IBinding.VARIABLE ? binding.getKey() : null;
+    }
+}
@@ -26,45 +26,53 @@ import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.ITryCatc
 public class TimestampIndexer implements IClassIndexer, IMethodIndexer, IFieldIndexer,
         ITryCatchBlockIndexer {
 
-    private static long currentTimestamp = 0L;
+    private final long timestamp;
+
+    /**
+     * Creates an indexer that stamps documents with the current time.
+     */
+    public TimestampIndexer() {
+        this(System.currentTimeMillis());
+    }
+
+    /**
+     * In order to keep the index smaller we use one timestamp for all indexed items of an indexing "job". The job
+     * takes the time once at its start and passes it to every indexer it creates, so that a file modified while the
+     * job runs is considered changed by the next job.
+     */
+    public TimestampIndexer(final long timestamp) {
+        this.timestamp = timestamp;
+    }
 
     @Override
     public void indexTryCatchBlock(final Document document, final TryStatement tryStatement,
             final CatchClause catchClause) {
-        CodeIndexer.addFieldToDocument(document, Fields.TIMESTAMP, getTimeString());
+        CodeIndexer.addNumericFieldToDocument(document, Fields.TIMESTAMP, getTime());
     }
 
     @Override
     public void indexField(final Document document, final FieldDeclaration field) {
-        CodeIndexer.addFieldToDocument(document, Fields.TIMESTAMP, getTimeString());
+        CodeIndexer.addNumericFieldToDocument(document, Fields.TIMESTAMP, getTime());
     }
 
     @Override
     public void indexMethod(final Document document, final MethodDeclaration method) {
-        CodeIndexer.addFieldToDocument(document, Fields.TIMESTAMP, getTimeString());
+        CodeIndexer.addNumericFieldToDocument(document, Fields.TIMESTAMP, getTime());
     }
 
     @Override
     public void indexType(final Document document, final TypeDeclaration type) {
-        CodeIndexer.addFieldToDocument(document, Fields.TIMESTAMP, getTimeString());
+        CodeIndexer.addNumericFieldToDocument(document, Fields.TIMESTAMP, getTime());
     }
 
-    public static String getTimeString() {
-        final long timestamp = getTime();
+    public String getTimeString() {
         return String.valueOf(timestamp);
     }
 
     /**
-     * In order to keep the index smaller we use one timestamp for all indexed
-     * items in the current indexing "job". This method updates this timestamp
-     * value to the current system time
+     * @return the timestamp of the indexing job this indexer belongs to
      */
-    public static void updateCurrentTimestamp() {
-        currentTimestamp = System.currentTimeMillis();
-    }
-
-    public static long getTime() {
-        updateCurrentTimestamp(); //temporarily until the "only update once per indexing" is activated
-        return currentTimestamp;
+    public long getTime() {
+        return timestamp;
     }
 }
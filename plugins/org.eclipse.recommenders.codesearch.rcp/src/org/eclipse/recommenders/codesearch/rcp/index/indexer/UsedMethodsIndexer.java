@@ -12,57 +12,41 @@
 package org.eclipse.recommenders.codesearch.rcp.index.indexer;
 
 import org.apache.lucene.document.Document;
-import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.CatchClause;
 import org.eclipse.jdt.core.dom.IMethodBinding;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.TryStatement;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassIndexer;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassNodeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodNodeIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.ITryCatchBlockIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.MethodCallVisitor;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.NodeDispatcher;
 
 import com.google.common.base.Optional;
 
-public class UsedMethodsIndexer implements IClassIndexer, IMethodIndexer, ITryCatchBlockIndexer {
+public class UsedMethodsIndexer implements IClassNodeIndexer, IMethodNodeIndexer, ITryCatchBlockIndexer {
 
     @Override
-    public void indexMethod(final Document document, final MethodDeclaration method) {
-        final ASTVisitor visitor = new MethodCallVisitor() {
-            @Override
-            protected void handleMethodCall(final IMethodBinding methodBinding) {
-                final Optional<String> opt = BindingHelper.getIdentifier(methodBinding);
-                if (opt.isPresent()) {
-                    CodeIndexer.addFieldToDocument(document, Fields.USED_METHODS, opt.get());
-                }
-            };
-        };
-        
-        method.accept(visitor);
+    public void registerMethod(final Document document, final MethodDeclaration method,
+            final NodeDispatcher dispatcher) {
+        dispatcher.register(newMethodCallVisitor(document), MethodCallVisitor.NODE_TYPES);
     }
 
     @Override
-    public void indexType(final Document document, final TypeDeclaration type) {
-        final ASTVisitor visitor = new MethodCallVisitor() {
-            @Override
-            protected void handleMethodCall(final IMethodBinding methodBinding) {
-                final Optional<String> opt = BindingHelper.getIdentifier(methodBinding);
-                if (opt.isPresent()) {
-                    CodeIndexer.addFieldToDocument(document, Fields.USED_METHODS, opt.get());
-                }
-            };
-        };
-
-        type.accept(visitor);
+    public void registerType(final Document document, final TypeDeclaration type, final NodeDispatcher dispatcher) {
+        dispatcher.register(newMethodCallVisitor(document), MethodCallVisitor.NODE_TYPES);
     }
 
     @Override
     public void indexTryCatchBlock(final Document document, final TryStatement tryStatement,
             final CatchClause catchClause) {
+        catchClause.accept(newMethodCallVisitor(document));
+    }
 
-        final ASTVisitor visitor = new MethodCallVisitor() {
+    private MethodCallVisitor newMethodCallVisitor(final Document document) {
+        return new MethodCallVisitor() {
             @Override
             protected void handleMethodCall(final IMethodBinding methodBinding) {
                 final Optional<String> opt = BindingHelper.getIdentifier(methodBinding);
@@ -71,8 +55,5 @@ public class UsedMethodsIndexer implements IClassIndexer, IMethodIndexer, ITryCa
                 }
             };
         };
-
-        catchClause.accept(visitor);
     }
-
 }
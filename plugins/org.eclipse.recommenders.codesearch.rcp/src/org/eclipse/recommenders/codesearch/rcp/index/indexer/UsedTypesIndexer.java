@@ -19,27 +19,22 @@ import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.TryStatement;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassNodeIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IFieldIndexer;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodNodeIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.ITryCatchBlockIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.NodeDispatcher;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.TypeUseVisitor;
 
 import com.google.common.base.Optional;
 
-public class UsedTypesIndexer implements IMethodIndexer, IClassIndexer, IFieldIndexer,
+public class UsedTypesIndexer implements IMethodNodeIndexer, IClassNodeIndexer, IFieldIndexer,
         ITryCatchBlockIndexer {
 
     @Override
-    public void indexMethod(final Document document, final MethodDeclaration method) {
-        final TypeUseVisitor visitor = new TypeUseVisitor() {
-            @Override
-            protected void handleTypeUse(final ITypeBinding typeBinding) {
-                addUsedType(document, typeBinding);
-            }
-        };
-
-        method.accept(visitor);
+    public void registerMethod(final Document document, final MethodDeclaration method,
+            final NodeDispatcher dispatcher) {
+        dispatcher.register(newTypeUseVisitor(document), TypeUseVisitor.NODE_TYPES);
     }
 
     @Override
@@ -49,28 +44,22 @@ public class UsedTypesIndexer implements IMethodIndexer, IClassIndexer, IFieldIn
     }
 
     @Override
-    public void indexType(final Document document, final TypeDeclaration type) {
-        final TypeUseVisitor visitor = new TypeUseVisitor() {
-            @Override
-            protected void handleTypeUse(final ITypeBinding typeBinding) {
-                addUsedType(document, typeBinding);
-            }
-        };
-
-        type.accept(visitor);
+    public void registerType(final Document document, final TypeDeclaration type, final NodeDispatcher dispatcher) {
+        dispatcher.register(newTypeUseVisitor(document), TypeUseVisitor.NODE_TYPES);
     }
 
     @Override
     public void indexTryCatchBlock(final Document document, final TryStatement tryStatement, final CatchClause catchClause) {
+        catchClause.accept(newTypeUseVisitor(document));
+    }
 
-        final TypeUseVisitor visitor = new TypeUseVisitor() {
+    private TypeUseVisitor newTypeUseVisitor(final Document document) {
+        return new TypeUseVisitor() {
             @Override
             protected void handleTypeUse(final ITypeBinding typeBinding) {
                 addUsedType(document, typeBinding);
             }
         };
-
-        catchClause.accept(visitor);
     }
 
     private void addUsedType(final Document document, final ITypeBinding typeBinding) {
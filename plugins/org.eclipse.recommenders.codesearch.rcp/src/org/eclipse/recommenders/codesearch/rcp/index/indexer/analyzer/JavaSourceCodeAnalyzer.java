@@ -14,19 +14,21 @@ package org.eclipse.recommenders.codesearch.rcp.index.indexer.analyzer;
 import java.io.Reader;
 import java.util.Set;
 
-import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.ReusableAnalyzerBase;
 import org.apache.lucene.analysis.StopFilter;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.standard.StandardTokenizer;
 import org.apache.lucene.util.Version;
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
-import org.eclipse.recommenders.codesearch.rcp.index.tokenizers.CamelCaseTokenizer;
-import org.eclipse.recommenders.codesearch.rcp.index.tokenizers.DotSplitTokenizer;
+import org.eclipse.recommenders.codesearch.rcp.index.tokenizers.IdentifierSplitFilter;
 
-public class JavaSourceCodeAnalyzer extends Analyzer {
+/**
+ * Analyzer for source code. The tokenizer and filter chain is built once per thread and reset for every field value.
+ */
+public final class JavaSourceCodeAnalyzer extends ReusableAnalyzerBase {
 
-    private Set<Object> javaSourceCodeStopSet;
+    private final Set<Object> javaSourceCodeStopSet;
 
     public JavaSourceCodeAnalyzer() {
         super();
@@ -40,16 +42,15 @@ public class JavaSourceCodeAnalyzer extends Analyzer {
     }
 
     @Override
-    public TokenStream tokenStream(String fieldName, Reader reader) {
+    protected TokenStreamComponents createComponents(String fieldName, Reader reader) {
         final Version version = Version.LUCENE_35;
 
-        TokenStream resultTokenStream = new StandardTokenizer(version, reader);
-        resultTokenStream = new StopFilter(version, resultTokenStream, javaSourceCodeStopSet);
+        final StandardTokenizer source = new StandardTokenizer(version, reader);
+        TokenStream resultTokenStream = new StopFilter(version, source, javaSourceCodeStopSet);
 //        resultTokenStream = new WordSplitTokenizer(resultTokenStream);
-        resultTokenStream = new DotSplitTokenizer(resultTokenStream);
-        resultTokenStream = new CamelCaseTokenizer(resultTokenStream);
+        resultTokenStream = new IdentifierSplitFilter(resultTokenStream);
         resultTokenStream = new LowerCaseFilter(version, resultTokenStream);
 
-        return resultTokenStream;
+        return new TokenStreamComponents(source, resultTokenStream);
     }
 }
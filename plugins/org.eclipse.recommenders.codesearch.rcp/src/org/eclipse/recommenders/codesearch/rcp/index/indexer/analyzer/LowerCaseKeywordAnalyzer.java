@@ -13,24 +13,58 @@ package org.eclipse.recommenders.codesearch.rcp.index.indexer.analyzer;
 
 import java.io.Reader;
 
-import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.KeywordTokenizer;
 import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.ReusableAnalyzerBase;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.util.Version;
 
-public class LowerCaseKeywordAnalyzer extends Analyzer {
+/**
+ * Turns the whole value into a single lower case token. At index time keyword fields bypass this analyzer: their
+ * values are lower-cased with {@link #toLowerCase(String)} and indexed without analysis. Query parsing still uses it.
+ */
+public final class LowerCaseKeywordAnalyzer extends ReusableAnalyzerBase {
 
-    private Version luceneVersion = null;
+    private final Version luceneVersion;
 
     public LowerCaseKeywordAnalyzer(Version luceneVersion) {
         this.luceneVersion = luceneVersion;
     }
 
     @Override
-    public TokenStream tokenStream(String fieldName, Reader reader) {
-        TokenStream tokenStream = new KeywordTokenizer(reader);
-        tokenStream = new LowerCaseFilter(luceneVersion, tokenStream);
-        return tokenStream;
+    protected TokenStreamComponents createComponents(String fieldName, Reader reader) {
+        final KeywordTokenizer source = new KeywordTokenizer(reader);
+        final TokenStream tokenStream = new LowerCaseFilter(luceneVersion, source);
+        return new TokenStreamComponents(source, tokenStream);
+    }
+
+    /**
+     * Lower-cases a value exactly like this analyzer's {@link LowerCaseFilter} does, i.e., code point by code point
+     * and independent of the default locale.
+     * 
+     * @return the value itself if it has no upper case characters
+     */
+    public static String toLowerCase(final String value) {
+        final int length = value.length();
+        int i = 0;
+        while (i < length) {
+            final int codePoint = value.codePointAt(i);
+            if (Character.toLowerCase(codePoint) != codePoint) {
+                break;
+            }
+            i += Character.charCount(codePoint);
+        }
+        if (i == length) {
+            return value;
+        }
+
+        final StringBuilder sb = new StringBuilder(length);
+        sb.append(value, 0, i);
+        while (i < length) {
+            final int codePoint = value.codePointAt(i);
+            sb.appendCodePoint(Character.toLowerCase(codePoint));
+            i += Character.charCount(codePoint);
+        }
+        return sb.toString();
     }
 }
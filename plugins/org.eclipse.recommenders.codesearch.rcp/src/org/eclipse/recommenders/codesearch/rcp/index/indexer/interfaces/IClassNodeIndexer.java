@@ -0,0 +1,24 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces;
+
+import org.apache.lucene.document.Document;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.NodeDispatcher;
+
+/**
+ * Type indexer that needs to look at the nodes below the type declaration. Instead of walking the type itself, it
+ * registers its handlers with the dispatcher, which walks the type once for all indexers.
+ */
+public interface IClassNodeIndexer extends IIndexer {
+    void registerType(Document document, TypeDeclaration type, NodeDispatcher dispatcher);
+}
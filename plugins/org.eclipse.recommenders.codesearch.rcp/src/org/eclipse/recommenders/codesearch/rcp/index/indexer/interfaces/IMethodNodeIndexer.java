@@ -0,0 +1,24 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces;
+
+import org.apache.lucene.document.Document;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.NodeDispatcher;
+
+/**
+ * Method indexer that needs to look at the nodes below the method declaration. Instead of walking the method itself,
+ * it registers its handlers with the dispatcher, which walks the method once for all indexers.
+ */
+public interface IMethodNodeIndexer extends IIndexer {
+    void registerMethod(Document document, MethodDeclaration method, NodeDispatcher dispatcher);
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.indexer.utils;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.Maps;
+
+/**
+ * Remembers the identifiers computed for bindings (keyed by {@link org.eclipse.jdt.core.dom.IBinding#getKey()}) while
+ * one compilation unit or one batch of compilation units is indexed. The cache is bound to the indexing thread:
+ * 
+ * <pre>
+ * final BindingIdentifierCache cache = BindingIdentifierCache.open();
+ * try {
+ *     // index
+ * } finally {
+ *     cache.close();
+ * }
+ * </pre>
+ * 
+ * Nested calls to {@link #open()} on the same thread share the outermost cache.
+ */
+public final class BindingIdentifierCache {
+
+    private static final ThreadLocal<BindingIdentifierCache> CURRENT = new ThreadLocal<BindingIdentifierCache>();
+    private static final Interner<String> INTERNER = Interners.newWeakInterner();
+
+    private static final AtomicLong totalHits = new AtomicLong();
+    private static final AtomicLong totalMisses = new AtomicLong();
+
+    private final Map<String, Optional<String>> identifiers = Maps.newHashMap();
+    private int depth;
+    private int hits;
+    private int misses;
+
+    private BindingIdentifierCache() {
+    }
+
+    public static BindingIdentifierCache open() {
+        BindingIdentifierCache cache = CURRENT.get();
+        if (cache == null) {
+            cache = new BindingIdentifierCache();
+            CURRENT.set(cache);
+        }
+        cache.depth++;
+        return cache;
+    }
+
+    /**
+     * @return the cache of the current thread or <code>null</code> if none is open
+     */
+    public static BindingIdentifierCache current() {
+        return CURRENT.get();
+    }
+
+    public void close() {
+        if (--depth > 0) {
+            return;
+        }
+        CURRENT.remove();
+        totalHits.addAndGet(hits);
+        totalMisses.addAndGet(misses);
+    }
+
+    /**
+     * @return the cached identifier or <code>null</code> if the binding has not been seen yet
+     */
+    public Optional<String> get(final String bindingKey) {
+        final Optional<String> identifier = identifiers.get(bindingKey);
+        if (identifier == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return identifier;
+    }
+
+    public Optional<String> put(final String bindingKey, final Optional<String> identifier) {
+        final Optional<String> interned = identifier.isPresent() ? Optional.of(INTERNER.intern(identifier.get()))
+                : identifier;
+        identifiers.put(bindingKey, interned);
+        return interned;
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return hits of all caches closed so far
+     */
+    public static long getTotalHits() {
+        return totalHits.get();
+    }
+
+    /**
+     * @return misses of all caches closed so far
+     */
+    public static long getTotalMisses() {
+        return totalMisses.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d identifiers, %d hits, %d misses", identifiers.size(), hits, misses);
+    }
+}
@@ -11,40 +11,102 @@
 
 package org.eclipse.recommenders.codesearch.rcp.index.indexer.utils;
 
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTRequestor;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.ResourcePathIndexer;
 
-public class CompilationUnitHelper {
+import com.google.common.collect.Maps;
 
-    private static ASTParser parser;
+/**
+ * ASTParsers are not thread-safe and keep state between calls; each call therefore gets its own parser.
+ * <p>
+ * Every AST of a compilation unit is stamped with the content of its buffer and its file before parsing, see
+ * {@link SourceText} and {@link CodeIndexer#setContentHash(CompilationUnit, long)}.
+ */
+public class CompilationUnitHelper {
 
-    static {
-        parser = ASTParser.newParser(AST.JLS4);
+    private static ASTParser newParser() {
+        final ASTParser parser = ASTParser.newParser(AST.JLS4);
         parser.setKind(ASTParser.K_COMPILATION_UNIT);
         parser.setResolveBindings(true);
+        return parser;
     }
 
     public static CompilationUnit parse(final ICompilationUnit unit) {
+        final ASTParser parser = newParser();
         parser.setSource(unit);
-        return (CompilationUnit) parser.createAST(null); // parse
+        final long stamp = SourceText.stamp(unit);
+        final long hash = IndexManifest.contentHash(ResourcePathIndexer.getFile(unit));
+        final CompilationUnit cu = (CompilationUnit) parser.createAST(null); // parse
+        SourceText.setStamp(cu, stamp);
+        CodeIndexer.setContentHash(cu, hash);
+        return cu;
     }
 
     public static CompilationUnit parse(final IClassFile type) {
+        final ASTParser parser = newParser();
         parser.setSource(type);
-        return (CompilationUnit) parser.createAST(null); // parse
+        final long stamp = SourceText.stamp(type);
+        final CompilationUnit cu = (CompilationUnit) parser.createAST(null); // parse
+        SourceText.setStamp(cu, stamp);
+        return cu;
     }
 
     public static CompilationUnit parse(final char[] source, final String unitName, final IJavaProject project) {
-        parser = ASTParser.newParser(AST.JLS4);
-        parser.setKind(ASTParser.K_COMPILATION_UNIT);
-        parser.setResolveBindings(true);
+        final ASTParser parser = newParser();
         parser.setProject(project);
         parser.setUnitName(unitName);
         parser.setSource(source);
-        return (CompilationUnit) parser.createAST(null); // parse
+        final CompilationUnit cu = (CompilationUnit) parser.createAST(null); // parse
+        SourceText.setSource(cu, source);
+        return cu;
+    }
+
+    /**
+     * Parses and resolves all given units in one go. Bindings are resolved against a single lookup environment, which
+     * is much cheaper than resolving every unit on its own. Each AST is handed to the requestor as soon as it is ready
+     * and may be dropped afterwards.
+     * 
+     * @param units
+     *            compilation units that all belong to the given project
+     */
+    public static void parse(final ICompilationUnit[] units, final IJavaProject project, final ASTRequestor requestor,
+            final IProgressMonitor monitor) {
+        final ASTParser parser = newParser();
+        parser.setProject(project);
+        final Map<ICompilationUnit, Long> stamps = Maps.newHashMapWithExpectedSize(units.length);
+        final Map<ICompilationUnit, Long> hashes = Maps.newHashMapWithExpectedSize(units.length);
+        for (final ICompilationUnit unit : units) {
+            stamps.put(unit, SourceText.stamp(unit));
+            hashes.put(unit, IndexManifest.contentHash(ResourcePathIndexer.getFile(unit)));
+        }
+        parser.createASTs(units, new String[0], new ASTRequestor() {
+
+            @Override
+            public void acceptAST(final ICompilationUnit source, final CompilationUnit ast) {
+                final Long stamp = stamps.get(source);
+                SourceText.setStamp(ast, stamp == null ? SourceText.NO_STAMP : stamp);
+                final Long hash = hashes.get(source);
+                if (hash != null) {
+                    CodeIndexer.setContentHash(ast, hash);
+                }
+                requestor.acceptAST(source, ast);
+            }
+
+            @Override
+            public void acceptBinding(final String bindingKey, final IBinding binding) {
+                requestor.acceptBinding(bindingKey, binding);
+            }
+        }, monitor);
     }
 }
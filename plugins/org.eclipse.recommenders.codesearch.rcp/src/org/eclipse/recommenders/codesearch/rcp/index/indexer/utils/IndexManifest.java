@@ -0,0 +1,438 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.indexer.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.ResourcePathIndexer;
+import org.eclipse.recommenders.internal.codesearch.rcp.CodesearchIndexPlugin;
+import org.eclipse.recommenders.rcp.utils.Logs;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Maps;
+
+/**
+ * Persistent record of when each file was last indexed and of a hash of its content at that time. It answers the
+ * "has this file changed since it was indexed?" question for the whole workspace without touching the Lucene index.
+ * <p>
+ * On disk the manifest is a journal: a header followed by records, where later records win. {@link #flush()} appends
+ * the records changed since the last flush, which keeps checkpoints after each package fragment root cheap. Once the
+ * journal holds much more records than there are files, it is rewritten.
+ * <p>
+ * Files are indexed while the index is committed. To never persist an entry whose documents are not committed yet, the
+ * changes are detached with {@link #checkpoint()} before the index is committed, and only those are written by
+ * {@link #flush(Checkpoint)} afterwards.
+ */
+public class IndexManifest implements IIndexInformationProvider {
+
+    private static final int MAGIC = 0x43534d46;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    private static final byte RECORD_ENTRY = 1;
+    private static final byte RECORD_REMOVED = 2;
+    private static final byte RECORD_COMPLETE = 3;
+
+    /**
+     * Only files up to this size get a content hash. Larger files (i.e., archives) are compared by timestamp only.
+     */
+    private static final long MAX_HASHED_FILE_SIZE = 1024 * 1024;
+    private static final long NO_HASH = 0L;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final class FileEntry {
+        private final long lastIndexed;
+        private final long hash;
+
+        private FileEntry(final long lastIndexed, final long hash) {
+            this.lastIndexed = lastIndexed;
+            this.hash = hash;
+        }
+    }
+
+    private static final FileEntry REMOVED = new FileEntry(-1, NO_HASH);
+
+    /**
+     * The changes recorded up to a point in time.
+     */
+    public static final class Checkpoint {
+        private final Map<String, FileEntry> changes;
+        private final boolean complete;
+
+        private Checkpoint(final Map<String, FileEntry> changes, final boolean complete) {
+            this.changes = changes;
+            this.complete = complete;
+        }
+    }
+
+    private final File file;
+    private final ConcurrentMap<String, FileEntry> entries = Maps.newConcurrentMap();
+
+    // guarded by this; entries and pending are changed together
+    private final Map<String, FileEntry> pending = Maps.newHashMap();
+    private boolean pendingComplete;
+    private boolean rewrite;
+    private int journalRecords;
+
+    private volatile boolean complete;
+
+    /**
+     * Creates a manifest that is kept in memory only.
+     */
+    public IndexManifest() {
+        this(null);
+    }
+
+    /**
+     * Creates a manifest backed by the given file and loads it if the file exists.
+     */
+    public IndexManifest(final File file) {
+        this.file = file;
+        if (file != null && file.exists()) {
+            try {
+                load();
+            } catch (final IOException e) {
+                Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Failed to read index manifest %s", file);
+                entries.clear();
+                complete = false;
+                rewrite = true;
+            }
+        }
+    }
+
+    @Override
+    public Optional<Long> getLastIndexed(final File location) {
+        final FileEntry entry = entries.get(key(location));
+        return entry == null ? Optional.<Long> absent() : Optional.of(entry.lastIndexed);
+    }
+
+    /**
+     * Records the time the given file was indexed together with a hash of its current content.
+     */
+    @Override
+    public void setLastIndexed(final File location, final Long lastIndexed) {
+        final String key = key(location);
+        final FileEntry previous = entries.get(key);
+        final long hash;
+        if (previous != null && previous.hash != NO_HASH && previous.lastIndexed > location.lastModified()) {
+            // content has not changed since we hashed it last time (e.g., another class file of the same archive)
+            hash = previous.hash;
+        } else {
+            hash = hash(location);
+        }
+        put(key, new FileEntry(lastIndexed, hash));
+    }
+
+    /**
+     * Records the time the given file was indexed together with the hash its content had when it was read for
+     * indexing.
+     * 
+     * @param hash
+     *            taken with {@link #contentHash(File)} before the file was parsed
+     */
+    public void setLastIndexed(final File location, final long lastIndexed, final long hash) {
+        put(key(location), new FileEntry(lastIndexed, hash));
+    }
+
+    /**
+     * @return a hash of the current content of the file, or {@link #NO_HASH} if it is too large or cannot be read
+     */
+    public static long contentHash(final File location) {
+        return location == null ? NO_HASH : hash(location);
+    }
+
+    /**
+     * Records the time the given file was indexed without a content hash, e.g., if it is only known from the index.
+     */
+    public void setLastIndexedWithoutHash(final File location, final long lastIndexed) {
+        put(key(location), new FileEntry(lastIndexed, NO_HASH));
+    }
+
+    /**
+     * @return <code>true</code> if the content of the file is known and still the same as when it was indexed. The
+     *         file's entry is then refreshed so that the next check is a timestamp comparison again.
+     */
+    public boolean hasSameContent(final File location, final long now) {
+        final String key = key(location);
+        final FileEntry entry = entries.get(key);
+        if (entry == null || entry.hash == NO_HASH) {
+            return false;
+        }
+        final long hash = hash(location);
+        if (hash != entry.hash) {
+            return false;
+        }
+        put(key, new FileEntry(now, hash));
+        return true;
+    }
+
+    public synchronized void remove(final File location) {
+        final String key = key(location);
+        if (entries.remove(key) != null) {
+            pending.put(key, REMOVED);
+        }
+    }
+
+    /**
+     * Removes all entries whose path starts with the given prefix.
+     */
+    public synchronized void removeAll(final String pathPrefix) {
+        final Iterator<String> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            final String key = it.next();
+            if (key.startsWith(pathPrefix)) {
+                it.remove();
+                pending.put(key, REMOVED);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        pending.clear();
+        pendingComplete = false;
+        complete = false;
+        rewrite = true;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return <code>true</code> if every file in the index is known to this manifest. Otherwise a missing entry does
+     *         not mean the file has never been indexed.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public synchronized void setComplete() {
+        if (!complete) {
+            complete = true;
+            pendingComplete = true;
+        }
+    }
+
+    /**
+     * Detaches all changes recorded so far. Call this right before the index is committed, and pass the result to
+     * {@link #flush(Checkpoint)} once the commit has succeeded.
+     */
+    public synchronized Checkpoint checkpoint() {
+        final Checkpoint checkpoint = new Checkpoint(Maps.newHashMap(pending), pendingComplete);
+        pending.clear();
+        pendingComplete = false;
+        return checkpoint;
+    }
+
+    /**
+     * Writes all changes of the checkpoint to disk. Changes recorded after the checkpoint are left for the next one.
+     */
+    public synchronized void flush(final Checkpoint checkpoint) throws IOException {
+        if (file == null) {
+            return;
+        }
+        try {
+            if (rewrite || !file.exists() || journalRecords > 2 * entries.size() + 1000) {
+                rewriteJournal();
+            } else if (checkpoint.complete || !checkpoint.changes.isEmpty()) {
+                appendToJournal(checkpoint);
+            }
+            rewrite = false;
+        } catch (final IOException e) {
+            // the journal may lack the changes now; write it from scratch next time
+            rewrite = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Hands the changes of a checkpoint whose index commit failed back, so that they are written with the next one.
+     * Changes recorded since the checkpoint are newer and win.
+     */
+    public synchronized void restore(final Checkpoint checkpoint) {
+        for (final Entry<String, FileEntry> e : checkpoint.changes.entrySet()) {
+            if (!pending.containsKey(e.getKey())) {
+                pending.put(e.getKey(), e.getValue());
+            }
+        }
+        pendingComplete |= checkpoint.complete;
+    }
+
+    /**
+     * Writes all changes recorded so far to disk, e.g., if there is no index commit to wait for.
+     */
+    public synchronized void flush() throws IOException {
+        flush(checkpoint());
+    }
+
+    private synchronized void put(final String key, final FileEntry entry) {
+        entries.put(key, entry);
+        pending.put(key, entry);
+    }
+
+    private void appendToJournal(final Checkpoint checkpoint) throws IOException {
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        try {
+            if (checkpoint.complete) {
+                out.writeByte(RECORD_COMPLETE);
+                journalRecords++;
+            }
+            for (final Entry<String, FileEntry> e : checkpoint.changes.entrySet()) {
+                writeRecord(out, e.getKey(), e.getValue());
+                journalRecords++;
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private void rewriteJournal() throws IOException {
+        final File tmp = new File(file.getPath() + ".tmp");
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        int records = 0;
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            // changes recorded after the last checkpoint are not committed yet
+            if (complete && !pendingComplete) {
+                out.writeByte(RECORD_COMPLETE);
+                records++;
+            }
+            for (final Entry<String, FileEntry> e : entries.entrySet()) {
+                if (pending.containsKey(e.getKey())) {
+                    continue;
+                }
+                writeRecord(out, e.getKey(), e.getValue());
+                records++;
+            }
+        } finally {
+            out.close();
+        }
+        if (!tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file))) {
+            throw new IOException("Failed to replace index manifest " + file);
+        }
+        journalRecords = records;
+    }
+
+    private void writeRecord(final DataOutputStream out, final String key, final FileEntry entry)
+            throws IOException {
+        final byte[] path = key.getBytes(UTF8);
+        out.writeByte(entry == REMOVED ? RECORD_REMOVED : RECORD_ENTRY);
+        out.writeInt(path.length);
+        out.write(path);
+        if (entry != REMOVED) {
+            out.writeLong(entry.lastIndexed);
+            out.writeLong(entry.hash);
+        }
+    }
+
+    /**
+     * Reads the whole journal with a single read. A record cut off by a crash ends the journal.
+     */
+    private void load() throws IOException {
+        final ByteBuffer buffer;
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = raf.getChannel();
+            buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading
+            }
+            buffer.flip();
+        } finally {
+            raf.close();
+        }
+
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Unknown index manifest format");
+        }
+        int records = 0;
+        try {
+            while (buffer.hasRemaining()) {
+                final byte type = buffer.get();
+                if (type == RECORD_COMPLETE) {
+                    complete = true;
+                } else if (type == RECORD_ENTRY || type == RECORD_REMOVED) {
+                    final byte[] path = new byte[buffer.getInt()];
+                    buffer.get(path);
+                    final String key = new String(path, UTF8);
+                    if (type == RECORD_ENTRY) {
+                        final long lastIndexed = buffer.getLong();
+                        final long hash = buffer.getLong();
+                        entries.put(key, new FileEntry(lastIndexed, hash));
+                    } else {
+                        entries.remove(key);
+                    }
+                } else {
+                    throw new IOException("Corrupt index manifest record");
+                }
+                records++;
+            }
+        } catch (final BufferUnderflowException e) {
+            // incomplete last record; drop it with the next rewrite
+            rewrite = true;
+        } catch (final NegativeArraySizeException e) {
+            rewrite = true;
+        }
+        journalRecords = records;
+    }
+
+    private static String key(final File location) {
+        return ResourcePathIndexer.getPath(location);
+    }
+
+    private static long hash(final File location) {
+        if (!location.isFile() || location.length() > MAX_HASHED_FILE_SIZE) {
+            return NO_HASH;
+        }
+        final CRC32 crc = new CRC32();
+        final byte[] buffer = new byte[8192];
+        InputStream in = null;
+        try {
+            in = new FileInputStream(location);
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        } catch (final IOException e) {
+            return NO_HASH;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (final IOException e) {
+                    // ignore
+                }
+            }
+        }
+        // CRC32 is 32 bit wide; mix in the length so that a hash is never NO_HASH
+        return crc.getValue() << 32 ^ location.length() + 1;
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.indexer.utils;
+
+import static com.google.common.base.Optional.absent;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ExpressionStatement;
+import org.eclipse.jdt.core.dom.ReturnStatement;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+
+import com.google.common.base.Optional;
+
+/**
+ * Finds the statement that is shown in the summary of a search result for an occurrence of a name.
+ */
+public final class RelevantStatements {
+
+    private RelevantStatements() {
+    }
+
+    public static Optional<ASTNode> of(final SimpleName node) {
+        for (ASTNode curr = node.getParent(); curr != null; curr = curr.getParent()) {
+            if (curr instanceof ExpressionStatement || curr instanceof ReturnStatement) {
+                return Optional.of(curr);
+            }
+        }
+
+        final ASTNode sup = node.getParent();
+        switch (sup.getNodeType()) {
+        case ASTNode.CLASS_INSTANCE_CREATION:
+            final ASTNode supSup = sup.getParent();
+            switch (supSup.getNodeType()) {
+            case ASTNode.CLASS_INSTANCE_CREATION:
+            case ASTNode.ASSIGNMENT:
+                return Optional.of(supSup);
+            case ASTNode.VARIABLE_DECLARATION_FRAGMENT:
+                final ASTNode supSupSup = supSup.getParent();
+                return Optional.of(supSupSup instanceof VariableDeclarationStatement ? supSupSup : supSup);
+            default:
+                return absent();
+            }
+        case ASTNode.RETURN_STATEMENT:
+            if (((ReturnStatement) sup).getExpression() instanceof SimpleName) {
+                return absent();
+            }
+            //$FALL-THROUGH$
+        case ASTNode.METHOD_INVOCATION:
+        case ASTNode.SUPER_METHOD_INVOCATION:
+        case ASTNode.FIELD_ACCESS:
+        case ASTNode.SUPER_FIELD_ACCESS:
+        case ASTNode.CONSTRUCTOR_INVOCATION:
+        case ASTNode.SUPER_CONSTRUCTOR_INVOCATION:
+        case ASTNode.CAST_EXPRESSION:
+        case ASTNode.VARIABLE_DECLARATION_FRAGMENT:
+            return Optional.of(sup);
+        default:
+            return absent();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.indexer.utils;
+
+import java.util.List;
+
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.BodyDeclaration;
+import org.eclipse.jdt.core.dom.Javadoc;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+
+/**
+ * Source ranges of an indexed element that are needed to show it as a search result without parsing its compilation
+ * unit again: the range of the element's name, of its declaration (without Javadoc) and of the statements relevant to
+ * the document, e.g., the statements using a variable.
+ * <p>
+ * The ranges are stored as a compact string, <code>"&lt;source length&gt; &lt;start&gt;:&lt;length&gt; ..."</code>,
+ * that starts with the length of the source they were taken from followed by the name and the declaration range.
+ * Readers {@link #isValid(IBuffer, String) check} the source length and the name before they trust the ranges, so a
+ * file that has changed since it was indexed is detected.
+ */
+public final class SourceRanges {
+
+    private static final int NAME = 0;
+    private static final int DECLARATION = 1;
+
+    private final int sourceLength;
+    private final int[] ranges;
+
+    private SourceRanges(final int sourceLength, final int[] ranges) {
+        this.sourceLength = sourceLength;
+        this.ranges = ranges;
+    }
+
+    /**
+     * @return the encoded ranges, or absent if the source of the nodes is unknown
+     */
+    public static Optional<String> encode(final ASTNode name, final ASTNode declaration, final String statements) {
+        final Optional<char[]> source = SourceText.of(declaration);
+        if (!source.isPresent() || name.getStartPosition() < 0) {
+            return Optional.absent();
+        }
+        final StringBuilder sb = new StringBuilder();
+        sb.append(source.get().length);
+        append(sb, name.getStartPosition(), name.getLength());
+        int start = declaration.getStartPosition();
+        if (declaration instanceof BodyDeclaration) {
+            final Javadoc javadoc = ((BodyDeclaration) declaration).getJavadoc();
+            if (javadoc != null) {
+                start = javadoc.getStartPosition() + javadoc.getLength();
+            }
+        }
+        append(sb, start, declaration.getStartPosition() + declaration.getLength() - start);
+        sb.append(statements);
+        return Optional.of(sb.toString());
+    }
+
+    /**
+     * Appends the range of a node to a list of statement ranges passed to
+     * {@link #encode(ASTNode, ASTNode, String)}.
+     */
+    public static StringBuilder append(final StringBuilder statements, final ASTNode node) {
+        return append(statements, node.getStartPosition(), node.getLength());
+    }
+
+    private static StringBuilder append(final StringBuilder sb, final int start, final int length) {
+        return sb.append(' ').append(start).append(':').append(length);
+    }
+
+    public static Optional<SourceRanges> parse(final String encoded) {
+        if (encoded == null) {
+            return Optional.absent();
+        }
+        try {
+            final String[] parts = encoded.split(" ");
+            if (parts.length < 3) {
+                return Optional.absent();
+            }
+            final int[] ranges = new int[2 * (parts.length - 1)];
+            for (int i = 1; i < parts.length; i++) {
+                final int colon = parts[i].indexOf(':');
+                ranges[2 * (i - 1)] = Integer.parseInt(parts[i].substring(0, colon));
+                ranges[2 * (i - 1) + 1] = Integer.parseInt(parts[i].substring(colon + 1));
+            }
+            return Optional.of(new SourceRanges(Integer.parseInt(parts[0]), ranges));
+        } catch (final RuntimeException e) {
+            // NumberFormatException or a missing colon; written by an other version
+            return Optional.absent();
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the buffer has the length of the indexed source and the name range still holds the
+     *         given name
+     */
+    public boolean isValid(final IBuffer buffer, final String name) {
+        if (buffer.getLength() != sourceLength) {
+            return false;
+        }
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] < 0 || ranges[i + 1] < 0 || ranges[i] + ranges[i + 1] > sourceLength) {
+                return false;
+            }
+        }
+        return name != null && name.equals(getText(buffer, NAME));
+    }
+
+    public String getDeclaration(final IBuffer buffer) {
+        return getText(buffer, DECLARATION);
+    }
+
+    public List<String> getStatements(final IBuffer buffer) {
+        final List<String> statements = Lists.newArrayList();
+        for (int i = DECLARATION + 1; i < ranges.length / 2; i++) {
+            statements.add(getText(buffer, i));
+        }
+        return statements;
+    }
+
+    private String getText(final IBuffer buffer, final int range) {
+        return buffer.getText(ranges[2 * range], ranges[2 * range + 1]);
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.indexer.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Gives access to the source a compilation unit was parsed from, so that the text of a node can be read from its
+ * source range instead of being flattened with {@link ASTNode#toString()}.
+ * <p>
+ * The source of each compilation unit is copied once from its buffer (the buffer of an open editor may change while
+ * the unit is indexed) and shared by all nodes of the unit. It is dropped together with the AST.
+ * <p>
+ * Whoever parses a unit takes a {@link #stamp(ITypeRoot) stamp} of its buffer before parsing and attaches it to the
+ * AST with {@link #setStamp(CompilationUnit, long)}. The source is only used if the buffer still has the same stamp
+ * when it is copied; otherwise the ranges of the AST may not fit the text any more.
+ */
+public final class SourceText {
+
+    /**
+     * Stamp of type roots without source.
+     */
+    public static final long NO_STAMP = 0L;
+
+    private static final char[] NO_SOURCE = new char[0];
+
+    private static final String STAMP_PROPERTY = SourceText.class.getName() + ".stamp";
+
+    private static final Cache<CompilationUnit, char[]> SOURCES = CacheBuilder.newBuilder().weakKeys().build();
+
+    private SourceText() {
+    }
+
+    /**
+     * @return the source of the compilation unit the node belongs to, or absent if the unit has no source (e.g., a
+     *         class file without attached source) or if the node's range lies outside of it
+     */
+    public static Optional<char[]> of(final ASTNode node) {
+        final ASTNode root = node.getRoot();
+        if (!(root instanceof CompilationUnit) || node.getStartPosition() < 0) {
+            return Optional.absent();
+        }
+        final CompilationUnit cu = (CompilationUnit) root;
+        final char[] source;
+        try {
+            source = SOURCES.get(cu, new Callable<char[]>() {
+
+                @Override
+                public char[] call() throws JavaModelException {
+                    return load(cu);
+                }
+            });
+        } catch (final ExecutionException e) {
+            return Optional.absent();
+        }
+        if (source == NO_SOURCE || node.getStartPosition() + node.getLength() > source.length) {
+            return Optional.absent();
+        }
+        return Optional.of(source);
+    }
+
+    /**
+     * Puts the source the unit was parsed from directly into the cache, e.g., for units parsed from a character array.
+     */
+    public static void setSource(final CompilationUnit cu, final char[] source) {
+        SOURCES.put(cu, source.clone());
+    }
+
+    /**
+     * @return a stamp of the current content of the type root's buffer, made of its length and hash code, or
+     *         {@link #NO_STAMP} if it has no source
+     */
+    public static long stamp(final ITypeRoot root) {
+        try {
+            final IBuffer buffer = root.getBuffer();
+            final char[] characters = buffer == null ? null : buffer.getCharacters();
+            return characters == null ? NO_STAMP : stampOf(characters);
+        } catch (final JavaModelException e) {
+            return NO_STAMP;
+        }
+    }
+
+    /**
+     * Records the stamp the unit's buffer had when the unit was parsed.
+     */
+    public static void setStamp(final CompilationUnit cu, final long stamp) {
+        cu.setProperty(STAMP_PROPERTY, stamp);
+    }
+
+    private static long stampOf(final char[] characters) {
+        return (long) characters.length << 32 | (Arrays.hashCode(characters) & 0xffffffffL);
+    }
+
+    private static char[] load(final CompilationUnit cu) throws JavaModelException {
+        final ITypeRoot root = cu.getTypeRoot();
+        final IBuffer buffer = root == null ? null : root.getBuffer();
+        final char[] characters = buffer == null ? null : buffer.getCharacters();
+        if (characters == null) {
+            return NO_SOURCE;
+        }
+        final Long stamp = (Long) cu.getProperty(STAMP_PROPERTY);
+        if (stamp != null) {
+            if (stamp != stampOf(characters)) {
+                // the buffer has changed since the unit was parsed
+                return NO_SOURCE;
+            }
+        } else if (cu.getStartPosition() + cu.getLength() > characters.length) {
+            // parsed without a stamp; only a buffer that has become too short can be told apart
+            return NO_SOURCE;
+        }
+        return characters.clone();
+    }
+}
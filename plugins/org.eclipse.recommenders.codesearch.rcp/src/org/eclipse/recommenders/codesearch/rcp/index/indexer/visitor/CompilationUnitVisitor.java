@@ -12,7 +12,6 @@
 
 package org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor;
 
-import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 
@@ -23,24 +22,27 @@ import org.eclipse.jdt.core.dom.FieldDeclaration;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.TryStatement;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexerConfigBean;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexerDefaultConfigBean;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassNodeIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IFieldIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IMethodNodeIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.ITryCatchBlockIndexer;
-import org.eclipse.recommenders.internal.codesearch.rcp.CodesearchIndexPlugin;
-import org.eclipse.recommenders.rcp.utils.Logs;
 
 import com.google.common.collect.Lists;
 
+/**
+ * Creates the documents of one compilation unit. The documents are only collected here; the caller writes them to the
+ * index in one go (see {@link #getDocuments()}).
+ */
 public class CompilationUnitVisitor extends ASTVisitor {
 
-    private CodeIndexer index = null;
     private final List<IIndexer> indexer;
     private CodeIndexerConfigBean settings;
+    private final List<Document> documents = Lists.newArrayList();
 
     public void addIndexer(final IIndexer indexer) {
         this.indexer.add(indexer);
@@ -50,12 +52,11 @@ public class CompilationUnitVisitor extends ASTVisitor {
         this.indexer.addAll(indexer);
     }
 
-    public CompilationUnitVisitor(final CodeIndexer index) {
-        this(index, new CodeIndexerDefaultConfigBean());
+    public CompilationUnitVisitor() {
+        this(new CodeIndexerDefaultConfigBean());
     }
 
-    public CompilationUnitVisitor(final CodeIndexer index, final CodeIndexerConfigBean settings) {
-        this.index = index;
+    public CompilationUnitVisitor(final CodeIndexerConfigBean settings) {
         indexer = Lists.newArrayList();
         this.settings = settings;
     }
@@ -63,12 +64,17 @@ public class CompilationUnitVisitor extends ASTVisitor {
     @Override
     public boolean visit(final TypeDeclaration node) {
         final Document document = new Document();
+        final NodeDispatcher dispatcher = new NodeDispatcher();
 
         for (final IIndexer i : indexer) {
             if (i instanceof IClassIndexer) {
                 ((IClassIndexer) i).indexType(document, node);
             }
+            if (i instanceof IClassNodeIndexer) {
+                ((IClassNodeIndexer) i).registerType(document, node, dispatcher);
+            }
         }
+        dispatcher.dispatch(node);
 
         addDocument(document);
         return true;
@@ -77,23 +83,29 @@ public class CompilationUnitVisitor extends ASTVisitor {
     @Override
     public boolean visit(final MethodDeclaration node) {
         final Document methodDocument = new Document();
+        final NodeDispatcher dispatcher = new NodeDispatcher();
 
         for (final IIndexer i : indexer) {
             if (i instanceof IMethodIndexer) {
                 ((IMethodIndexer) i).indexMethod(methodDocument, node);
             }
+            if (i instanceof IMethodNodeIndexer) {
+                ((IMethodNodeIndexer) i).registerMethod(methodDocument, node, dispatcher);
+            }
         }
 
+        // For each method declaration we also learn about variable usage. All
+        // of this happens during one single walk over the method body.
+
+        final VarUsageVisitor varUsageVisitor = new VarUsageVisitor(indexer);
+        varUsageVisitor.register(node, dispatcher);
+        dispatcher.dispatch(node);
+        varUsageVisitor.indexVariables();
+
         if (methodDocument.getFields().size() > 0) {
             addDocument(methodDocument);
         }
 
-        // For each method declaration we use another visitor to learn about
-        // variable usage
-
-        final VarUsageVisitor varUsageVisitor = new VarUsageVisitor(indexer);
-        varUsageVisitor.visit(node);
-
         for (final Document d : varUsageVisitor.getDocuments()) {
             if (d.getFields().size() > 0) {
                 addDocument(d);
@@ -143,13 +155,15 @@ public class CompilationUnitVisitor extends ASTVisitor {
         return false;
     }
 
-    private void addDocument(final Document document) {
+    /**
+     * @return all documents created for the visited compilation unit so far
+     */
+    public List<Document> getDocuments() {
+        return documents;
+    }
 
-        try {
-            document.setBoost(settings.getDocumentBoost());
-            index.addDocument(document);
-        } catch (final IOException e) {
-            Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Exception during document save.");
-        }
+    private void addDocument(final Document document) {
+        document.setBoost(settings.getDocumentBoost());
+        documents.add(document);
     }
 }
@@ -0,0 +1,25 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+
+/**
+ * Receives the nodes a {@link NodeDispatcher} walks over for the node types the handler was registered for.
+ */
+public interface INodeHandler {
+
+    /**
+     * @return <code>false</code> if this handler is not interested in the children of the given node
+     */
+    boolean handle(ASTNode node);
+}
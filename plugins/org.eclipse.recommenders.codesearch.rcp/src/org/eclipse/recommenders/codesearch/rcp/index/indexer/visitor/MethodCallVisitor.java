@@ -11,6 +11,7 @@
 
 package org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor;
 
+import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.ClassInstanceCreation;
 import org.eclipse.jdt.core.dom.ConstructorInvocation;
@@ -19,7 +20,29 @@ import org.eclipse.jdt.core.dom.MethodInvocation;
 import org.eclipse.jdt.core.dom.SuperConstructorInvocation;
 import org.eclipse.jdt.core.dom.SuperMethodInvocation;
 
-public abstract class MethodCallVisitor extends ASTVisitor {
+public abstract class MethodCallVisitor extends ASTVisitor implements INodeHandler {
+
+    public static final int[] NODE_TYPES = { ASTNode.METHOD_INVOCATION, ASTNode.CLASS_INSTANCE_CREATION,
+            ASTNode.SUPER_CONSTRUCTOR_INVOCATION, ASTNode.CONSTRUCTOR_INVOCATION, ASTNode.SUPER_METHOD_INVOCATION };
+
+    @Override
+    public boolean handle(final ASTNode node) {
+        switch (node.getNodeType()) {
+        case ASTNode.METHOD_INVOCATION:
+            return visit((MethodInvocation) node);
+        case ASTNode.CLASS_INSTANCE_CREATION:
+            return visit((ClassInstanceCreation) node);
+        case ASTNode.SUPER_CONSTRUCTOR_INVOCATION:
+            return visit((SuperConstructorInvocation) node);
+        case ASTNode.CONSTRUCTOR_INVOCATION:
+            return visit((ConstructorInvocation) node);
+        case ASTNode.SUPER_METHOD_INVOCATION:
+            return visit((SuperMethodInvocation) node);
+        default:
+            return true;
+        }
+    }
+
     @Override
     public boolean visit(final MethodInvocation node) {
         final IMethodBinding b = node.resolveMethodBinding();
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor;
+
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Walks a subtree once and fans each node out to all handlers registered for its node type. Indexers register their
+ * handlers here instead of running their own {@link ASTVisitor} over the same type or method body.
+ * <p>
+ * A handler that returns <code>false</code> for a node does not see any node below it, exactly as if its own visitor
+ * had returned <code>false</code>. The other handlers are not affected by that.
+ */
+public class NodeDispatcher extends ASTVisitor {
+
+    private static final class Participant {
+        private final INodeHandler handler;
+        private ASTNode suspendedAt;
+
+        private Participant(final INodeHandler handler) {
+            this.handler = handler;
+        }
+    }
+
+    private final List<List<Participant>> participantsByNodeType = Lists.newArrayList();
+    private final List<Participant> participants = Lists.newArrayList();
+    private final List<Participant> suspended = Lists.newArrayList();
+
+    /**
+     * Registers a handler for the given node types (see {@link ASTNode#getNodeType()}).
+     */
+    public NodeDispatcher register(final INodeHandler handler, final int... nodeTypes) {
+        final Participant participant = new Participant(handler);
+        participants.add(participant);
+
+        for (final int nodeType : nodeTypes) {
+            while (participantsByNodeType.size() <= nodeType) {
+                participantsByNodeType.add(null);
+            }
+            List<Participant> list = participantsByNodeType.get(nodeType);
+            if (list == null) {
+                list = Lists.newArrayList();
+                participantsByNodeType.set(nodeType, list);
+            }
+            list.add(participant);
+        }
+        return this;
+    }
+
+    /**
+     * Walks the given subtree once. Does nothing if no handler has been registered.
+     */
+    public void dispatch(final ASTNode root) {
+        if (participants.isEmpty()) {
+            return;
+        }
+        root.accept(this);
+    }
+
+    @Override
+    public boolean preVisit2(final ASTNode node) {
+        final int nodeType = node.getNodeType();
+        if (nodeType < participantsByNodeType.size()) {
+            final List<Participant> list = participantsByNodeType.get(nodeType);
+            if (list != null) {
+                for (int i = 0; i < list.size(); i++) {
+                    final Participant participant = list.get(i);
+                    if (participant.suspendedAt == null && !participant.handler.handle(node)) {
+                        participant.suspendedAt = node;
+                        suspended.add(participant);
+                    }
+                }
+            }
+        }
+        // no need to descend any further if nobody is listening anymore
+        return suspended.size() < participants.size();
+    }
+
+    @Override
+    public void postVisit(final ASTNode node) {
+        for (int i = suspended.size() - 1; i >= 0; i--) {
+            final Participant participant = suspended.get(i);
+            if (participant.suspendedAt == node) {
+                participant.suspendedAt = null;
+                suspended.remove(i);
+            }
+        }
+    }
+}
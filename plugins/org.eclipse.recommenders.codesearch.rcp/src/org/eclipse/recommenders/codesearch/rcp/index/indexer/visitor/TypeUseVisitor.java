@@ -12,6 +12,7 @@
 
 package org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor;
 
+import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.ClassInstanceCreation;
 import org.eclipse.jdt.core.dom.ConstructorInvocation;
@@ -30,7 +31,41 @@ import org.eclipse.recommenders.codesearch.rcp.index.indexer.AstHelper;
 import org.eclipse.recommenders.utils.names.ITypeName;
 import org.eclipse.recommenders.rcp.utils.AstBindings;
 
-public abstract class TypeUseVisitor extends ASTVisitor {
+public abstract class TypeUseVisitor extends ASTVisitor implements INodeHandler {
+
+    public static final int[] NODE_TYPES = { ASTNode.SIMPLE_TYPE, ASTNode.QUALIFIED_TYPE, ASTNode.SIMPLE_NAME,
+            ASTNode.FIELD_DECLARATION, ASTNode.METHOD_INVOCATION, ASTNode.CLASS_INSTANCE_CREATION,
+            ASTNode.SUPER_CONSTRUCTOR_INVOCATION, ASTNode.CONSTRUCTOR_INVOCATION, ASTNode.SUPER_METHOD_INVOCATION,
+            ASTNode.TRY_STATEMENT };
+
+    @Override
+    public boolean handle(final ASTNode node) {
+        switch (node.getNodeType()) {
+        case ASTNode.SIMPLE_TYPE:
+            return visit((SimpleType) node);
+        case ASTNode.QUALIFIED_TYPE:
+            return visit((QualifiedType) node);
+        case ASTNode.SIMPLE_NAME:
+            return visit((SimpleName) node);
+        case ASTNode.FIELD_DECLARATION:
+            return visit((FieldDeclaration) node);
+        case ASTNode.METHOD_INVOCATION:
+            return visit((MethodInvocation) node);
+        case ASTNode.CLASS_INSTANCE_CREATION:
+            return visit((ClassInstanceCreation) node);
+        case ASTNode.SUPER_CONSTRUCTOR_INVOCATION:
+            return visit((SuperConstructorInvocation) node);
+        case ASTNode.CONSTRUCTOR_INVOCATION:
+            return visit((ConstructorInvocation) node);
+        case ASTNode.SUPER_METHOD_INVOCATION:
+            return visit((SuperMethodInvocation) node);
+        case ASTNode.TRY_STATEMENT:
+            return visit((TryStatement) node);
+        default:
+            return true;
+        }
+    }
+
 
     @Override
     public boolean visit(final SimpleType node) {
@@ -14,7 +14,7 @@ package org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor;
 import java.util.List;
 
 import org.apache.lucene.document.Document;
-import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
@@ -24,10 +24,14 @@ import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IVarUsag
 
 import com.google.common.collect.Lists;
 
-public class VarUsageVisitor {
+public class VarUsageVisitor implements INodeHandler {
+
+    public static final int[] NODE_TYPES = { ASTNode.SINGLE_VARIABLE_DECLARATION,
+            ASTNode.VARIABLE_DECLARATION_FRAGMENT };
 
     private List<IIndexer> indexer;
     private MethodDeclaration method;
+    private final List<SimpleName> names = Lists.newArrayList();
     private final List<Document> documents = Lists.newArrayList();
 
     public VarUsageVisitor(List<IIndexer> indexer) {
@@ -39,25 +43,41 @@ public class VarUsageVisitor {
     }
 
     public void visit(MethodDeclaration method) {
-        this.method = method;
-
-        method.accept(visitor);
+        register(method, new NodeDispatcher()).dispatch(method);
+        indexVariables();
     }
 
-    private ASTVisitor visitor = new ASTVisitor() {
+    /**
+     * Lets the given dispatcher report the variable declarations of the method while it walks the method anyway. Call
+     * {@link #indexVariables()} once the dispatcher is done.
+     */
+    public NodeDispatcher register(MethodDeclaration method, NodeDispatcher dispatcher) {
+        this.method = method;
 
-        public boolean visit(SingleVariableDeclaration node) {
-            process(method, node.getName());
+        return dispatcher.register(this, NODE_TYPES);
+    }
 
-            return true;
-        };
+    @Override
+    public boolean handle(ASTNode node) {
+        if (node instanceof SingleVariableDeclaration) {
+            names.add(((SingleVariableDeclaration) node).getName());
+        } else if (node instanceof VariableDeclarationFragment) {
+            names.add(((VariableDeclarationFragment) node).getName());
+        }
 
-        public boolean visit(VariableDeclarationFragment node) {
-            process(method, node.getName());
+        return true;
+    }
 
-            return true;
-        };
-    };
+    /**
+     * Indexes the variables reported by the dispatcher. This happens after the walk, so that indexers which collect
+     * the usages of a variable during the walk have seen all of them.
+     */
+    public void indexVariables() {
+        for (final SimpleName name : names) {
+            process(method, name);
+        }
+        names.clear();
+    }
 
     private void process(MethodDeclaration method, SimpleName name) {
 
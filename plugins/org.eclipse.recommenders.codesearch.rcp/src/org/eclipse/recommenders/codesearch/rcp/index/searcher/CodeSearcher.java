@@ -24,13 +24,20 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryParser.ParseException;
 import org.apache.lucene.queryParser.QueryParser;
-import org.apache.lucene.search.FieldCache;
+import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.NumericRangeQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHitCountCollector;
+import org.eclipse.recommenders.codesearch.rcp.index.FieldSchema;
+import org.eclipse.recommenders.codesearch.rcp.index.Fields;
 import org.eclipse.recommenders.codesearch.rcp.index.termvector.ITermVectorConsumable;
+import org.eclipse.recommenders.codesearch.rcp.index.termvector.TermDictionary;
+import org.eclipse.recommenders.codesearch.rcp.index.termvector.TermPattern;
 import org.eclipse.recommenders.internal.codesearch.rcp.CodesearchIndexPlugin;
 import org.eclipse.recommenders.rcp.utils.Logs;
 import org.eclipse.recommenders.utils.Checks;
@@ -43,16 +50,21 @@ import com.google.inject.Singleton;
 
 @Singleton
 public class CodeSearcher implements ITermVectorConsumable {
+
+    /**
+     * Upper bound of the estimated memory held by cached search results.
+     */
+    private static final long MAX_CACHED_RESULT_BYTES = 4 * 1024 * 1024;
+
     private final QueryParser parser;
-    private IndexSearcher searcher;
-    private IndexReader reader;
+    private final IndexSearcherManager searchers;
+    private final TermDictionary terms = new TermDictionary();
+    private final QueryResultCache results = new QueryResultCache(MAX_CACHED_RESULT_BYTES);
 
     @Inject
-    public CodeSearcher(final IndexSearcher searcher, final IndexReader reader, final QueryParser parser)
-            throws IOException {
+    public CodeSearcher(final IndexSearcher searcher, final QueryParser parser) throws IOException {
         this.parser = parser;
-        this.searcher = searcher;
-        this.reader = reader;
+        searchers = new IndexSearcherManager(searcher);
     }
 
     @VisibleForTesting
@@ -71,97 +83,264 @@ public class CodeSearcher implements ITermVectorConsumable {
         return search(query, selector);
     }
 
+    /**
+     * @return all matching documents in index order
+     */
     public List<Document> search(final Query query, final FieldSelector selector) throws IOException {
-        renewReader();
-        return search(query, selector, reader.numDocs() + 1);
+        final List<Document> result = Lists.newArrayList();
+        forEach(query, selector, new IDocumentHandler() {
+
+            @Override
+            public boolean handle(final Document document) {
+                result.add(document);
+                return true;
+            }
+        });
+        return result;
     }
 
     public List<Document> search(final Query query, final FieldSelector selector, final int maxHits) throws IOException {
         final SearchResult searchResult = lenientSearch(query, maxHits);
-        final List<Document> result = toList(searchResult.scoreDocs(), selector);
-        return result;
+        try {
+            return toList(searchResult, selector);
+        } finally {
+            searchResult.close();
+        }
+    }
+
+    /**
+     * Passes all matching documents to the handler as they are found, without scoring or sorting them. Memory use does
+     * not depend on the number of hits, which makes this the method of choice to visit all matching documents.
+     */
+    public void forEach(final Query query, final FieldSelector selector, final IDocumentHandler handler)
+            throws IOException {
+        final IndexSearcher searcher = searchers.acquire();
+        try {
+            searcher.search(query, new DocumentStreamCollector(selector, handler));
+        } catch (final StopSearch e) {
+            // handler is done
+        } finally {
+            searchers.release(searcher);
+        }
     }
 
     /**
+     * @return the number of matching documents
+     */
+    public int count(final Query query) throws IOException {
+        final TotalHitCountCollector collector = new TotalHitCountCollector();
+        final IndexSearcher searcher = searchers.acquire();
+        try {
+            searcher.search(query, collector);
+        } finally {
+            searchers.release(searcher);
+        }
+        return collector.getTotalHits();
+    }
+
+    /**
+     * Returns all hits sorted by score. The hits are counted first so that only as much memory is allocated as there
+     * are hits; prefer {@link #lenientSearch(Query, int)} or {@link #forEach(Query, FieldSelector, IDocumentHandler)}.
+     * <p>
      * caller is responsible for closing the searcher
      * 
      * @throws ParseException
      */
     public SearchResult lenientSearch(final String queryString) throws IOException, ParseException {
-        renewReader();
         final Query query = parser.parse(queryString);
-        final TopDocs docs = searcher.search(query, reader.numDocs() + 1);
-        return new SearchResult(query, docs, searcher);
+        return lenientSearch(query);
     }
 
     /**
+     * Returns all hits sorted by score. The hits are counted first so that only as much memory is allocated as there
+     * are hits; prefer {@link #lenientSearch(Query, int)} or {@link #forEach(Query, FieldSelector, IDocumentHandler)}.
+     * <p>
      * caller is responsible for closing the searcher
      */
     public SearchResult lenientSearch(final Query query) throws IOException {
-        renewReader();
-
-        final TopDocs docs = searcher.search(query, reader.numDocs() + 1);
-        return new SearchResult(query, docs, searcher);
+        return lenientSearch(query, Math.max(1, count(query)));
     }
 
     /**
      * caller is responsible for closing the searcher
      */
     public SearchResult lenientSearch(final Query query, final int maxHits) throws IOException {
-        Checks.ensureIsGreaterOrEqualTo(maxHits, 1, "max hits must be greater zero");
-        renewReader();
+        return lenientSearch(query, maxHits, null);
+    }
 
-        final TopDocs docs = searcher.search(query, maxHits);
-        return new SearchResult(query, docs, searcher);
+    /**
+     * Returns one page of hits sorted by score. Pass {@link SearchResult#getCursor()} of a page to get the next one.
+     * First pages are answered from a cache until the index changes.
+     * <p>
+     * caller is responsible for closing the searcher
+     * 
+     * @param after
+     *            the last hit of the previous page or <code>null</code> for the first page
+     */
+    public SearchResult lenientSearch(final Query query, final int maxHits, final ScoreDoc after) throws IOException {
+        Checks.ensureIsGreaterOrEqualTo(maxHits, 1, "max hits must be greater zero");
+        final IndexSearcher searcher = searchers.acquire();
+        try {
+            final TopDocs docs = after == null ? searchFirstPage(searcher, query, maxHits) : searcher.searchAfter(
+                    after, query, maxHits);
+            // the result keeps the searcher until it is closed
+            return new SearchResult(query, docs, searcher, searchers);
+        } catch (final IOException e) {
+            searchers.release(searcher);
+            throw e;
+        } catch (final RuntimeException e) {
+            searchers.release(searcher);
+            throw e;
+        }
     }
 
+    /**
+     * @return all distinct terms of the given fields, read from the term dictionary
+     */
     @Override
     public Set<String> getTermVector(final String[] fieldNames) {
-        renewReader();
         final Set<String> result = Sets.newHashSet();
-        for (final String field : fieldNames) {
+        try {
+            final IndexSearcher searcher = searchers.acquire();
             try {
-                final String[] values = FieldCache.DEFAULT.getStringIndex(reader, field).lookup;
+                for (final String field : fieldNames) {
+                    terms.addTerms(searcher.getIndexReader(), field, result);
+                }
+            } finally {
+                searchers.release(searcher);
+            }
+        } catch (final IOException e) {
+            Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Exception while reading term vector");
+        }
+        return result;
+    }
 
-                result.addAll(Lists.newArrayList(values));
-            } catch (final IOException e) {
-                Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Exception during reopening of index reader");
+    @Override
+    public Set<String> getTermVector(final String[] fieldNames, final TermPattern pattern, final int limit) {
+        final Set<String> result = Sets.newLinkedHashSet();
+        try {
+            final IndexSearcher searcher = searchers.acquire();
+            try {
+                for (final String field : fieldNames) {
+                    if (!TermDictionary.addMatchingTerms(searcher.getIndexReader(), field, pattern, limit, result)) {
+                        break;
+                    }
+                }
+            } finally {
+                searchers.release(searcher);
             }
+        } catch (final IOException e) {
+            Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Exception while reading terms matching %s", pattern);
         }
-        result.remove(null);
         return result;
     }
 
-    private void renewReader() {
+    /**
+     * Runs the query unless it has been run on the same reader before. Only first pages are cached; later pages are
+     * rarely requested twice.
+     */
+    private TopDocs searchFirstPage(final IndexSearcher searcher, final Query query, final int maxHits)
+            throws IOException {
+        final IndexReader reader = searcher.getIndexReader();
+        TopDocs docs = results.get(query, maxHits, reader);
+        if (docs == null) {
+            docs = searcher.search(query, maxHits);
+            results.put(query, maxHits, reader, docs);
+            // a refresh may have cleared the cache before the put; the entry must not hold on to the outdated reader
+            if (!searchers.isCurrent(searcher)) {
+                results.remove(query, maxHits, reader);
+            }
+        }
+        return docs;
+    }
+
+    /**
+     * Makes all changes of the index writer visible to subsequent searches. Called by the indexer after it has changed
+     * the index, so that searches never have to reopen the reader themselves.
+     */
+    public void refresh() {
         try {
-            final IndexReader newReader = IndexReader.openIfChanged(reader);
-            if (newReader != null) {
-                // reader was reopened
-                reader.close();
-                searcher.close();
-                reader = newReader;
-                searcher = new IndexSearcher(reader);
+            if (searchers.maybeRefresh()) {
+                results.clear();
             }
         } catch (final Exception e) {
             Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Exception during reopening of index reader");
         }
     }
 
-    private List<Document> toList(final ScoreDoc[] scoreDocs, final FieldSelector selector)
+    /**
+     * @return a number that changes whenever searches start to see a new state of the index
+     */
+    public long getGeneration() {
+        return searchers.getGeneration();
+    }
+
+    /**
+     * Thrown to end a search early; Lucene offers no other way to stop a collector.
+     */
+    private static final class StopSearch extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * Loads the stored fields of each hit from the segment it is found in and passes the document on.
+     */
+    private static final class DocumentStreamCollector extends Collector {
+
+        private final FieldSelector selector;
+        private final IDocumentHandler handler;
+        private IndexReader segment;
+
+        private DocumentStreamCollector(final FieldSelector selector, final IDocumentHandler handler) {
+            this.selector = selector;
+            this.handler = handler;
+        }
+
+        @Override
+        public void setScorer(final Scorer scorer) {
+            // hits are not scored
+        }
+
+        @Override
+        public void setNextReader(final IndexReader reader, final int docBase) {
+            segment = reader;
+        }
+
+        @Override
+        public void collect(final int doc) throws IOException {
+            final Document document = selector == null ? segment.document(doc) : segment.document(doc, selector);
+            if (!handler.handle(document)) {
+                throw new StopSearch();
+            }
+        }
+
+        @Override
+        public boolean acceptsDocsOutOfOrder() {
+            return false;
+        }
+    }
+
+    private List<Document> toList(final SearchResult searchResult, final FieldSelector selector)
             throws CorruptIndexException, IOException {
+        final ScoreDoc[] scoreDocs = searchResult.scoreDocs();
         final List<Document> result = new ArrayList<Document>(scoreDocs.length);
         for (final ScoreDoc doc : scoreDocs) {
             if (selector != null) {
-                result.add(searcher.doc(doc.doc, selector));
+                result.add(searchResult.searcher.doc(doc.doc, selector));
             } else {
-                result.add(searcher.doc(doc.doc));
+                result.add(searchResult.searcher.doc(doc.doc));
             }
         }
         return result;
     }
 
     public Document getDocument(int docId) throws CorruptIndexException, IOException {
-        return searcher.doc(docId);
+        final IndexSearcher searcher = searchers.acquire();
+        try {
+            return searcher.doc(docId);
+        } finally {
+            searchers.release(searcher);
+        }
     }
 
     public QueryParser getParser() {
@@ -169,7 +348,32 @@ public class CodeSearcher implements ITermVectorConsumable {
     }
 
     public int getDocCount(final Term t) throws IOException {
-        return reader.docFreq(t);
+        final IndexSearcher searcher = searchers.acquire();
+        try {
+            return searcher.docFreq(t);
+        } finally {
+            searchers.release(searcher);
+        }
+    }
+
+    /**
+     * Releases the searcher held by this instance. Results still in use stay valid until they are closed.
+     */
+    public void close() {
+        results.clear();
+        try {
+            searchers.close();
+        } catch (final IOException e) {
+            Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Exception while closing index reader");
+        }
+    }
+
+    /**
+     * @return a query for all documents indexed at or after the given time, e.g., to find what changed since then
+     */
+    public static Query indexedSince(final long timestamp) {
+        return NumericRangeQuery.newLongRange(Fields.TIMESTAMP, FieldSchema.PRECISION_STEP, timestamp, null, true,
+                true);
     }
 
     public static Term prepareSearchTerm(String field, String value) {
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.searcher;
+
+import static com.google.common.base.Optional.absent;
+import static com.google.common.base.Optional.of;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryParser.ParseException;
+import org.apache.lucene.queryParser.QueryParser;
+import org.apache.lucene.search.NumericRangeQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.util.Version;
+import org.eclipse.recommenders.codesearch.rcp.index.FieldSchema;
+import org.eclipse.recommenders.codesearch.rcp.index.SimpleNames;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.analyzer.LowerCaseKeywordAnalyzer;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Optional;
+
+/**
+ * Query parser that turns terms and ranges on numeric fields (e.g., <code>Timestamp:[1357000000000 TO *]</code>) into
+ * {@link NumericRangeQuery}s. The default parser would search the trie encoded terms of these fields as text and never
+ * find anything.
+ * <p>
+ * Unqualified type and method names, written as <code>L*&#47;IWorkbench</code> and <code>L*&#47;List.add\(*</code> by
+ * the dot notation converters, are looked up as single terms in the field's {@link SimpleNames} companion instead of
+ * scanning all terms of the field for the leading wildcard.
+ */
+public class CodesearchQueryParser extends QueryParser {
+
+    private static final String UNQUALIFIED_PREFIX = "l*/";
+    private static final String METHOD_SUFFIX = "\\(*";
+    private static final CharMatcher NOT_A_NAME = CharMatcher.anyOf("*?/\\");
+
+    public CodesearchQueryParser(final Version matchVersion, final String defaultField, final Analyzer analyzer) {
+        super(matchVersion, defaultField, analyzer);
+    }
+
+    @Override
+    protected Query getFieldQuery(final String field, final String queryText, final boolean quoted)
+            throws ParseException {
+        if (isNumeric(field)) {
+            final Long value = parseLong(queryText);
+            return NumericRangeQuery.newLongRange(field, FieldSchema.PRECISION_STEP, value, value, true, true);
+        }
+        return super.getFieldQuery(field, queryText, quoted);
+    }
+
+    @Override
+    protected Query getRangeQuery(final String field, final String part1, final String part2, final boolean inclusive)
+            throws ParseException {
+        if (isNumeric(field)) {
+            return NumericRangeQuery.newLongRange(field, FieldSchema.PRECISION_STEP, parseBound(part1),
+                    parseBound(part2), inclusive, inclusive);
+        }
+        return super.getRangeQuery(field, part1, part2, inclusive);
+    }
+
+    @Override
+    protected Query getWildcardQuery(final String field, final String termStr) throws ParseException {
+        final Optional<String> simpleName = toSimpleName(field, termStr);
+        if (simpleName.isPresent()) {
+            return new TermQuery(new Term(SimpleNames.getField(field).get(), simpleName.get()));
+        }
+        return super.getWildcardQuery(field, termStr);
+    }
+
+    private static Optional<String> toSimpleName(final String field, final String termStr) {
+        if (field == null || !SimpleNames.getField(field).isPresent()) {
+            return absent();
+        }
+        final String text = LowerCaseKeywordAnalyzer.toLowerCase(termStr);
+        if (!text.startsWith(UNQUALIFIED_PREFIX)) {
+            return absent();
+        }
+        String name = text.substring(UNQUALIFIED_PREFIX.length());
+        if (SimpleNames.isMethodField(field)) {
+            if (!name.endsWith(METHOD_SUFFIX)) {
+                return absent();
+            }
+            name = name.substring(0, name.length() - METHOD_SUFFIX.length());
+        }
+        if (name.length() == 0 || NOT_A_NAME.matchesAnyOf(name)) {
+            return absent();
+        }
+        return of(name);
+    }
+
+    private static boolean isNumeric(final String field) {
+        return field != null && FieldSchema.getDefault().get(field).isNumeric();
+    }
+
+    private static Long parseBound(final String part) throws ParseException {
+        return part == null || "*".equals(part) ? null : parseLong(part);
+    }
+
+    private static Long parseLong(final String text) throws ParseException {
+        try {
+            return Long.valueOf(text.trim());
+        } catch (final NumberFormatException e) {
+            throw new ParseException("Not a number: " + text);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.searcher;
+
+import java.io.IOException;
+
+import org.apache.lucene.document.Document;
+
+/**
+ * Receives the matching documents of {@link CodeSearcher#forEach(org.apache.lucene.search.Query,
+ * org.apache.lucene.document.FieldSelector, IDocumentHandler)} one by one, in index order.
+ */
+public interface IDocumentHandler {
+
+    /**
+     * @return <code>false</code> to stop the search; no further documents are loaded
+     */
+    boolean handle(Document document) throws IOException;
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.searcher;
+
+import java.io.IOException;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.IndexSearcher;
+
+/**
+ * Hands out reference counted searchers over the current (near-real-time) reader. Every searcher obtained with
+ * {@link #acquire()} stays usable until it is passed to {@link #release(IndexSearcher)}, even if a newer reader has
+ * been opened in the meantime:
+ * 
+ * <pre>
+ * final IndexSearcher searcher = manager.acquire();
+ * try {
+ *     // search
+ * } finally {
+ *     manager.release(searcher);
+ * }
+ * </pre>
+ * 
+ * The reader is reopened by {@link #maybeRefresh()} only, which the indexer calls after it has changed the index.
+ * Searches therefore never pay for reopening the reader.
+ */
+public class IndexSearcherManager {
+
+    private final Object refreshLock = new Object();
+
+    // guarded by this; the manager holds one reference to the current reader
+    private IndexSearcher current;
+    private long generation;
+
+    public IndexSearcherManager(final IndexSearcher searcher) {
+        current = searcher;
+    }
+
+    /**
+     * @return the current searcher; callers must release it when done
+     */
+    public synchronized IndexSearcher acquire() {
+        ensureOpen();
+        current.getIndexReader().incRef();
+        return current;
+    }
+
+    public void release(final IndexSearcher searcher) throws IOException {
+        // closes the reader once the last user of an outdated searcher is done
+        searcher.getIndexReader().decRef();
+    }
+
+    /**
+     * Opens a new reader if the index has changed since the current one was opened. Concurrent calls are serialized;
+     * searches may continue meanwhile.
+     * 
+     * @return <code>true</code> if a new reader has been opened
+     */
+    public boolean maybeRefresh() throws IOException {
+        synchronized (refreshLock) {
+            final IndexSearcher searcher = acquire();
+            final IndexReader newReader;
+            try {
+                newReader = IndexReader.openIfChanged(searcher.getIndexReader());
+            } finally {
+                release(searcher);
+            }
+            if (newReader == null) {
+                return false;
+            }
+            swap(new IndexSearcher(newReader));
+            return true;
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the given searcher has not been replaced by a newer one yet
+     */
+    public synchronized boolean isCurrent(final IndexSearcher searcher) {
+        return current == searcher;
+    }
+
+    /**
+     * @return a number that increases every time a new reader is opened
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Drops the manager's reference to the current reader. Searchers still in use remain valid until released.
+     */
+    public void close() throws IOException {
+        synchronized (refreshLock) {
+            swap(null);
+        }
+    }
+
+    private void swap(final IndexSearcher searcher) throws IOException {
+        final IndexSearcher old;
+        synchronized (this) {
+            ensureOpen();
+            old = current;
+            current = searcher;
+            generation++;
+        }
+        release(old);
+    }
+
+    private void ensureOpen() {
+        if (current == null) {
+            throw new IllegalStateException("searcher manager is closed");
+        }
+    }
+}
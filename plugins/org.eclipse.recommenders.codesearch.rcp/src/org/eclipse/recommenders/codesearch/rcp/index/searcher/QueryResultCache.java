@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.searcher;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TopDocs;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+
+/**
+ * Top hits of recent searches. Users tend to go back and forth between the same few elements, which run the same
+ * queries again.
+ * <p>
+ * Hits are keyed by a copy of the query, the number of hits asked for, and the reader they were found with. Document
+ * ids are only valid for that reader, so a cached result is returned for the very same reader only. Entries hold on to
+ * their reader; the cache has to be cleared whenever a new reader is opened. The least recently used results are
+ * dropped once the estimated size of all results exceeds the limit.
+ * <p>
+ * Cached {@link TopDocs} are shared by all results of a query and must not be modified.
+ */
+final class QueryResultCache {
+
+    /**
+     * Estimated size of a cached hit: the {@link org.apache.lucene.search.ScoreDoc} and its slot in the array.
+     */
+    private static final int BYTES_PER_HIT = 32;
+    private static final int BYTES_PER_ENTRY = 128;
+
+    private static final class Key {
+        private final Query query;
+        private final int maxHits;
+        private final IndexReader reader;
+
+        private Key(final Query query, final int maxHits, final IndexReader reader) {
+            // queries are mutable; the copy keeps the key stable if the caller changes its query later
+            this.query = (Query) query.clone();
+            this.maxHits = maxHits;
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            // readers do not override equals; each one is a state of the index of its own
+            return maxHits == other.maxHits && reader == other.reader && query.equals(other.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(query, maxHits, System.identityHashCode(reader));
+        }
+    }
+
+    private final Cache<Key, TopDocs> entries;
+
+    QueryResultCache(final long maximumBytes) {
+        entries = CacheBuilder.newBuilder().maximumWeight(maximumBytes).weigher(new Weigher<Key, TopDocs>() {
+
+            @Override
+            public int weigh(final Key key, final TopDocs docs) {
+                // the text of the query is a fair estimate of the size of its terms
+                return BYTES_PER_ENTRY + 2 * key.query.toString().length() + BYTES_PER_HIT
+                        * docs.scoreDocs.length;
+            }
+        }).build();
+    }
+
+    /**
+     * @return the hits found earlier with the given reader, or <code>null</code> if the query has not been run on it
+     */
+    TopDocs get(final Query query, final int maxHits, final IndexReader reader) {
+        return entries.getIfPresent(new Key(query, maxHits, reader));
+    }
+
+    void put(final Query query, final int maxHits, final IndexReader reader, final TopDocs docs) {
+        entries.put(new Key(query, maxHits, reader), docs);
+    }
+
+    void remove(final Query query, final int maxHits, final IndexReader reader) {
+        entries.invalidate(new Key(query, maxHits, reader));
+    }
+
+    void clear() {
+        entries.invalidateAll();
+    }
+}
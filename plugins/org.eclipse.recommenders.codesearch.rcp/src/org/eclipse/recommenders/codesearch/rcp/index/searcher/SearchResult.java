@@ -13,53 +13,135 @@
 package org.eclipse.recommenders.codesearch.rcp.index.searcher;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.FieldSelector;
+import org.apache.lucene.document.SetBasedFieldSelector;
 import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopDocs;
+import org.eclipse.recommenders.internal.codesearch.rcp.CodesearchIndexPlugin;
+import org.eclipse.recommenders.rcp.utils.Logs;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 public class SearchResult {
 
-    private boolean allDocumentsLoaded = false;
-    private List<Document> loadedDocs;
-
     public final Query query;
     public final TopDocs docs;
     public final IndexSearcher searcher;
 
+    private final IndexSearcherManager manager;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
     public SearchResult(final Query query, final TopDocs docs, final IndexSearcher searcher) {
+        this(query, docs, searcher, null);
+    }
+
+    /**
+     * Creates a result that holds a reference to the given searcher until it is {@link #close() closed}.
+     */
+    SearchResult(final Query query, final TopDocs docs, final IndexSearcher searcher,
+            final IndexSearcherManager manager) {
         super();
         this.query = query;
         this.docs = docs;
         this.searcher = searcher;
+        this.manager = manager;
+    }
+
+    /**
+     * Releases the searcher of this result. Documents cannot be loaded from the result afterwards. Closing a result
+     * more than once has no effect.
+     */
+    public void close() {
+        if (manager == null || !closed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            manager.release(searcher);
+        } catch (final IOException e) {
+            Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Exception while releasing index searcher");
+        }
     }
 
     public ScoreDoc[] scoreDocs() {
         return docs.scoreDocs;
     }
 
+    /**
+     * @return the last hit of this result, to be passed to {@link CodeSearcher#lenientSearch(Query, int, ScoreDoc)}
+     *         for the next page, or <code>null</code> if there are no hits
+     */
+    public ScoreDoc getCursor() {
+        final ScoreDoc[] scoreDocs = docs.scoreDocs;
+        return scoreDocs.length == 0 ? null : scoreDocs[scoreDocs.length - 1];
+    }
+
     public Document scoreDoc(final int index) throws CorruptIndexException, IOException {
         final ScoreDoc scoreDoc = docs.scoreDocs[index];
         return searcher.doc(scoreDoc.doc);
     }
 
-    public List<Document> getAllDocuments() throws CorruptIndexException, IOException {
-        if (allDocumentsLoaded)
-            return loadedDocs;
+    /**
+     * @return the hit at the given position with only the fields accepted by the selector loaded
+     */
+    public Document scoreDoc(final int index, final FieldSelector selector) throws CorruptIndexException,
+            IOException {
+        final ScoreDoc scoreDoc = docs.scoreDocs[index];
+        return searcher.doc(scoreDoc.doc, selector);
+    }
 
-        loadedDocs = Lists.newArrayList();
-        for (int i = 0; i < docs.totalHits; i++) {
-            loadedDocs.add(searcher.doc(i));
-        }
+    /**
+     * @return a selector that loads the given stored fields only
+     */
+    public static FieldSelector fields(final String... fieldNames) {
+        return new SetBasedFieldSelector(Sets.newHashSet(fieldNames), Collections.<String> emptySet());
+    }
 
-        allDocumentsLoaded = true;
+    /**
+     * @return the first <code>limit</code> hits in score order; each document is loaded with the given selector when
+     *         the iterator reaches it
+     */
+    public Iterator<Document> iterator(final FieldSelector selector, final int limit) {
+        final int size = Math.min(limit, docs.scoreDocs.length);
+        return new AbstractIterator<Document>() {
 
-        return loadedDocs;
+            private int next;
+
+            @Override
+            protected Document computeNext() {
+                if (next >= size) {
+                    return endOfData();
+                }
+                try {
+                    return scoreDoc(next++, selector);
+                } catch (final IOException e) {
+                    throw Throwables.propagate(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * @return all hits in score order with every stored field loaded
+     * @deprecated loads every hit at once; use {@link #iterator(FieldSelector, int)}
+     */
+    @Deprecated
+    public List<Document> getAllDocuments() throws CorruptIndexException, IOException {
+        final List<Document> result = Lists.newArrayListWithCapacity(docs.scoreDocs.length);
+        for (final ScoreDoc scoreDoc : docs.scoreDocs) {
+            result.add(searcher.doc(scoreDoc.doc));
+        }
+        return result;
     }
 }
@@ -11,41 +11,65 @@
 
 package org.eclipse.recommenders.codesearch.rcp.index.searcher;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.FieldCache;
+import org.apache.lucene.search.FieldCache.StringIndex;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.ReaderUtil;
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
+import org.eclipse.recommenders.internal.codesearch.rcp.CodesearchIndexPlugin;
+import org.eclipse.recommenders.rcp.utils.Logs;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
+/**
+ * Joins and groups hits by their declaring method. The declaring method of a hit is looked up in the field cache of the
+ * segment the hit belongs to; no stored document is loaded. Values are compared as indexed, i.e., in lower case.
+ */
 public class SearchResultHelper {
     public static TopDocs getIntersection(List<TopDocs> validScoreDocs, IndexSearcher searcher) {
         if (validScoreDocs.size() == 0)
             return new TopDocs(0, new ScoreDoc[0], 0);
 
+        final FieldValues declaringMethods = new FieldValues(searcher, Fields.DECLARING_METHOD);
         TopDocs result = validScoreDocs.get(0);
 
         for (int i = 1; i < validScoreDocs.size(); i++) {
-            result = getIntersection(result, validScoreDocs.get(i), searcher);
+            result = getIntersection(result, validScoreDocs.get(i), declaringMethods);
         }
 
-        return getUniqueDocsByFieldName(result, searcher, Fields.DECLARING_METHOD);
+        return getUniqueDocs(result, declaringMethods);
     }
 
     public static TopDocs getIntersection(TopDocs t1, TopDocs t2, IndexSearcher searcher) {
-        List<ScoreDoc> list = Lists.newArrayList();
+        return getIntersection(t1, t2, new FieldValues(searcher, Fields.DECLARING_METHOD));
+    }
+
+    /**
+     * @return all hits of the first list whose declaring method also declares a hit of the second list
+     */
+    private static TopDocs getIntersection(TopDocs t1, TopDocs t2, FieldValues values) {
+        final Set<String> keys = Sets.newHashSetWithExpectedSize(t2.scoreDocs.length);
+        for (ScoreDoc d2 : t2.scoreDocs) {
+            final String key = values.get(d2.doc);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
 
+        List<ScoreDoc> list = Lists.newArrayList();
         for (ScoreDoc d1 : t1.scoreDocs) {
-            for (ScoreDoc d2 : t2.scoreDocs) {
-                if (areEqual(d1, d2, searcher, Fields.DECLARING_METHOD)) {
-                    list.add(d1);
-                    break;
-                }
+            if (keys.contains(values.get(d1.doc))) {
+                list.add(d1);
             }
         }
 
@@ -61,33 +85,73 @@ public class SearchResultHelper {
         return new TopDocs(scoreDocs.length, scoreDocs, 0);
     }
 
-    private static boolean areEqual(ScoreDoc d1, ScoreDoc d2, IndexSearcher searcher, String fieldName) {
-        try {
-            Document doc1 = searcher.doc(d1.doc);
-            Document doc2 = searcher.doc(d2.doc);
+    /**
+     * @return the first (i.e., best scored) hit of each declaring method
+     */
+    private static TopDocs getUniqueDocs(TopDocs t1, FieldValues values) {
+        Map<String, ScoreDoc> docs = Maps.newLinkedHashMap();
 
-            return doc1.get(fieldName) != null && doc2.get(fieldName) != null
-                    && doc1.get(fieldName).equals(doc2.get(fieldName));
-        } catch (Exception ex) {
-            return false;
+        for (ScoreDoc d1 : t1.scoreDocs) {
+            final String key = values.get(d1.doc);
+            if (!docs.containsKey(key)) {
+                docs.put(key, d1);
+            }
         }
+
+        ScoreDoc[] resultDocs = new ScoreDoc[docs.size()];
+        return new TopDocs(docs.size(), docs.values().toArray(resultDocs), 0);
     }
 
-    private static TopDocs getUniqueDocsByFieldName(TopDocs t1, IndexSearcher searcher, String fieldName) {
-        Map<String, ScoreDoc> docs = Maps.newHashMap();
+    /**
+     * Resolves the indexed value of a single valued field for top level document ids. The per-segment arrays come from
+     * the {@link FieldCache} and are shared by all searches until the segment goes away.
+     */
+    private static final class FieldValues {
+
+        private final String field;
+        private final IndexReader[] segments;
+        private final int[] starts;
+        private final StringIndex[] indexes;
+        private final boolean[] failed;
+
+        private FieldValues(final IndexSearcher searcher, final String field) {
+            this.field = field;
+            final List<IndexReader> subReaders = Lists.newArrayList();
+            ReaderUtil.gatherSubReaders(subReaders, searcher.getIndexReader());
+            segments = subReaders.toArray(new IndexReader[subReaders.size()]);
+            starts = new int[segments.length];
+            int start = 0;
+            for (int i = 0; i < segments.length; i++) {
+                starts[i] = start;
+                start += segments[i].maxDoc();
+            }
+            indexes = new StringIndex[segments.length];
+            failed = new boolean[segments.length];
+        }
 
-        for (ScoreDoc d1 : t1.scoreDocs) {
+        /**
+         * @return the value of the given document or <code>null</code> if it has none
+         */
+        private String get(final int doc) {
+            if (segments.length == 0) {
+                return null;
+            }
+            final int segment = ReaderUtil.subIndex(doc, starts);
+            if (failed[segment]) {
+                return null;
+            }
             try {
-                Document doc1 = searcher.doc(d1.doc);
-
-                // This is a naive way. We ignore scores etc.
-                docs.put(doc1.get(fieldName), d1);
-            } catch (Exception e) {
-                // Nothing to do since doc has no method name anyway
+                if (indexes[segment] == null) {
+                    indexes[segment] = FieldCache.DEFAULT.getStringIndex(segments[segment], field);
+                }
+            } catch (final IOException e) {
+                // treat the documents of the segment like documents without value; report it only once
+                failed[segment] = true;
+                Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Failed to read the values of field '%s'", field);
+                return null;
             }
+            final StringIndex index = indexes[segment];
+            return index.lookup[index.order[doc - starts[segment]]];
         }
-
-        ScoreDoc[] resultDocs = new ScoreDoc[docs.size()];
-        return new TopDocs(docs.size(), docs.values().toArray(resultDocs), 0);
     }
 }
@@ -17,6 +17,13 @@ public class DotNotationMethodConverter implements IQueryPartConverter {
     public String convertFrom(final String queryPart) {
         String tmp = queryPart;
 
+        // If user entered a non-qualified method (e.g. List.add) then prepend a wildcard operator automatically. The
+        // query parser looks such names up by simple name.
+        if (tmp.indexOf('.') != -1 && tmp.indexOf('.') == tmp.lastIndexOf('.') && !tmp.contains("/")
+                && !tmp.startsWith("*")) {
+            tmp = "*/" + tmp;
+        }
+
         tmp = "L" + tmp;
 
         while (tmp.indexOf(".") < tmp.lastIndexOf(".")) {
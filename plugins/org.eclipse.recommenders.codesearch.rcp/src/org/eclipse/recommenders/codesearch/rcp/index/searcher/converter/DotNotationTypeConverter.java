@@ -17,7 +17,8 @@ public class DotNotationTypeConverter implements IQueryPartConverter {
     public String convertFrom(final String queryPart) {
         String tmp = queryPart;
 
-        // If user entered a non-qualified type (e.g. IWorkbench) then prepend a wildcard operator automatically
+        // If user entered a non-qualified type (e.g. IWorkbench) then prepend a wildcard operator automatically. The
+        // query parser looks such names up by simple name.
         if(!tmp.startsWith("*")) {
             if( !(tmp.contains(".") || tmp.contains("/")) && !tmp.startsWith("L*")) {
                 tmp = "*/" + tmp;
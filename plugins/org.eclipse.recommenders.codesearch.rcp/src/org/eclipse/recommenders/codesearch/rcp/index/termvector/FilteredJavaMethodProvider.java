@@ -12,33 +12,25 @@
 package org.eclipse.recommenders.codesearch.rcp.index.termvector;
 
 import java.util.Map;
-import java.util.Set;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
 
+/**
+ * Method terms matching the text typed so far (argument 0, <code>*</code> matches anything), limited to argument 1 or
+ * {@link #DEFAULT_LIMIT} terms.
+ */
 public class FilteredJavaMethodProvider extends JavaMethodProvider {
 
+    public static final int DEFAULT_LIMIT = 1000;
+
     @Override
     public void load(final ITermVectorConsumable consumable, final Map<Integer, Object> argumentsMap) {
-        String prefix = (String) argumentsMap.get(0);
-        prefix = prefix.toLowerCase();
-
-        final Set<String> result = Sets.newHashSet();
-        final Set<String> allItems = consumable.getTermVector(getFields());
-
-        for (String type : allItems) {
-            if (type.startsWith(prefix)) {
-                result.add(type);
-            } else {
-                String pattern = prefix.replaceAll("\\.", "\\\\.").replaceAll("\\*", ".\\*") + ".*";
-
-                if (type.matches(pattern))
-                    result.add(type);
-            }
-        }
+        final String prefix = ((String) argumentsMap.get(0)).toLowerCase();
+        final Object limit = argumentsMap.get(1);
 
-        setTermVector(Lists.newArrayList(result));
+        final TermPattern pattern = TermPattern.compile(prefix);
+        setTermVector(Lists.newArrayList(consumable.getTermVector(getFields(), pattern,
+                limit instanceof Integer ? (Integer) limit : DEFAULT_LIMIT)));
         setDone(true);
     }
 }
@@ -15,4 +15,9 @@ import java.util.Set;
 
 public interface ITermVectorConsumable {
     Set<String> getTermVector(String[] fieldNames);
+
+    /**
+     * @return at most <code>limit</code> distinct terms of the given fields that match the pattern
+     */
+    Set<String> getTermVector(String[] fieldNames, TermPattern pattern, int limit);
 }
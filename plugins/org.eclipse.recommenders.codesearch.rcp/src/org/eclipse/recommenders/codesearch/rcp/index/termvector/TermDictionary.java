@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.termvector;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Matcher;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TermEnum;
+import org.apache.lucene.util.ReaderUtil;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Distinct terms of index fields, read from the term dictionary of each segment.
+ * <p>
+ * The terms of a segment are read once and kept as long as the segment exists; segments never change. For each field
+ * the union over all segments is kept as well. When a new reader only adds segments (the usual case after indexing),
+ * only the terms of the new segments are added to it; once segments have been merged away, it is rebuilt from the
+ * cached segment terms.
+ */
+public class TermDictionary {
+
+    private static final class MergedTerms {
+        private final Set<Object> segments = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        private final Set<String> terms = Sets.newHashSet();
+    }
+
+    /**
+     * Segment terms by field, keyed by the segment's core (which is shared by all readers of the same segment).
+     */
+    private final Cache<Object, ConcurrentMap<String, String[]>> segments = CacheBuilder.newBuilder().weakKeys()
+            .build();
+
+    // guarded by this
+    private final Map<String, MergedTerms> merged = Maps.newHashMap();
+
+    /**
+     * Adds all distinct terms of the given field to the target collection.
+     */
+    public void addTerms(final IndexReader reader, final String field, final Collection<String> target)
+            throws IOException {
+        final List<IndexReader> subReaders = Lists.newArrayList();
+        ReaderUtil.gatherSubReaders(subReaders, reader);
+        final Set<Object> current = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        for (final IndexReader subReader : subReaders) {
+            current.add(subReader.getCoreCacheKey());
+        }
+
+        synchronized (this) {
+            MergedTerms terms = merged.get(field);
+            if (terms == null || !current.containsAll(terms.segments)) {
+                terms = new MergedTerms();
+                merged.put(field, terms);
+            }
+            for (final IndexReader subReader : subReaders) {
+                if (terms.segments.add(subReader.getCoreCacheKey())) {
+                    Collections.addAll(terms.terms, getSegmentTerms(subReader, field));
+                }
+            }
+            target.addAll(terms.terms);
+        }
+    }
+
+    /**
+     * Adds the terms of the given field that match the pattern to the target set until it holds <code>limit</code>
+     * terms. Terms are visited in order, starting at the pattern's prefix, and the lookup ends with the first term that
+     * does not start with the prefix.
+     *
+     * @return <code>false</code> if the limit has been reached
+     */
+    public static boolean addMatchingTerms(final IndexReader reader, final String field, final TermPattern pattern,
+            final int limit, final Set<String> target) throws IOException {
+        if (target.size() >= limit) {
+            return false;
+        }
+        final Matcher matcher = pattern.newMatcher();
+        final TermEnum termEnum = reader.terms(new Term(field, pattern.getPrefix()));
+        try {
+            do {
+                final Term term = termEnum.term();
+                if (term == null || !term.field().equals(field) || !term.text().startsWith(pattern.getPrefix())) {
+                    break;
+                }
+                if (pattern.matches(term.text(), matcher) && target.add(term.text()) && target.size() >= limit) {
+                    return false;
+                }
+            } while (termEnum.next());
+        } finally {
+            termEnum.close();
+        }
+        return true;
+    }
+
+    private String[] getSegmentTerms(final IndexReader segment, final String field) throws IOException {
+        final ConcurrentMap<String, String[]> fields;
+        try {
+            fields = segments.get(segment.getCoreCacheKey(), new Callable<ConcurrentMap<String, String[]>>() {
+
+                @Override
+                public ConcurrentMap<String, String[]> call() {
+                    return Maps.newConcurrentMap();
+                }
+            });
+        } catch (final ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+        String[] terms = fields.get(field);
+        if (terms == null) {
+            terms = readTerms(segment, field);
+            fields.put(field, terms);
+        }
+        return terms;
+    }
+
+    private static String[] readTerms(final IndexReader segment, final String field) throws IOException {
+        final List<String> terms = Lists.newArrayList();
+        final TermEnum termEnum = segment.terms(new Term(field, ""));
+        try {
+            do {
+                final Term term = termEnum.term();
+                if (term == null || !term.field().equals(field)) {
+                    break;
+                }
+                terms.add(term.text());
+            } while (termEnum.next());
+        } finally {
+            termEnum.close();
+        }
+        return terms.toArray(new String[terms.size()]);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.termvector;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A filter for index terms as typed into query assist: every term that starts with the given text matches, where
+ * <code>*</code> stands for any sequence of characters.
+ * <p>
+ * All matching terms start with the literal text before the first <code>*</code>, so lookups seek the term dictionary
+ * to that {@link #getPrefix() prefix} and only check the remainder of each term against a pattern compiled once.
+ */
+public final class TermPattern {
+
+    private final String prefix;
+    private final Pattern remainder;
+
+    private TermPattern(final String prefix, final Pattern remainder) {
+        this.prefix = prefix;
+        this.remainder = remainder;
+    }
+
+    public static TermPattern compile(final String expression) {
+        final int wildcard = expression.indexOf('*');
+        if (wildcard == -1) {
+            return new TermPattern(expression, null);
+        }
+        final StringBuilder regex = new StringBuilder();
+        for (final String literal : expression.substring(wildcard).split("\\*", -1)) {
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal));
+            }
+            regex.append(".*");
+        }
+        return new TermPattern(expression.substring(0, wildcard), Pattern.compile(regex.toString(), Pattern.DOTALL));
+    }
+
+    /**
+     * @return the literal text every matching term starts with
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * @return a matcher that is reset for every term of a lookup, or <code>null</code> if the prefix alone decides
+     */
+    Matcher newMatcher() {
+        return remainder == null ? null : remainder.matcher("");
+    }
+
+    /**
+     * @param matcher
+     *            a matcher returned by {@link #newMatcher()}
+     */
+    boolean matches(final String term, final Matcher matcher) {
+        if (!term.startsWith(prefix)) {
+            return false;
+        }
+        return matcher == null || matcher.reset(term).region(prefix.length(), term.length()).matches();
+    }
+
+    public boolean matches(final String term) {
+        return matches(term, newMatcher());
+    }
+
+    @Override
+    public String toString() {
+        return remainder == null ? prefix + "*" : prefix + remainder.pattern();
+    }
+}
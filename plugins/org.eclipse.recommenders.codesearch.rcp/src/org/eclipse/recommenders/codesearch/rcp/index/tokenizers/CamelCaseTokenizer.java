@@ -12,6 +12,7 @@
 package org.eclipse.recommenders.codesearch.rcp.index.tokenizers;
 
 import org.apache.lucene.analysis.TokenStream;
+import org.eclipse.recommenders.codesearch.rcp.index.tokenizers.IdentifierSplitter.Parts;
 
 public class CamelCaseTokenizer extends TermSplitTokenizer {
 
@@ -20,11 +21,8 @@ public class CamelCaseTokenizer extends TermSplitTokenizer {
     }
 
     @Override
-    public String[] splitTerm(String term) {
-
-        String newWord = term.replaceAll("([A-Z][a-z])", "_$1").replaceAll("([a-z])([A-Z])", "$1_$2");
-
-        return newWord.split("[_]");
+    protected void splitTerm(char[] term, int length, Parts parts) {
+        IdentifierSplitter.splitCamelCase(term, 0, length, parts);
     }
 
     @Override
@@ -11,8 +11,8 @@
 
 package org.eclipse.recommenders.codesearch.rcp.index.tokenizers;
 
-
 import org.apache.lucene.analysis.TokenStream;
+import org.eclipse.recommenders.codesearch.rcp.index.tokenizers.IdentifierSplitter.Parts;
 
 public class DotSplitTokenizer extends TermSplitTokenizer {
 
@@ -21,14 +21,12 @@ public class DotSplitTokenizer extends TermSplitTokenizer {
     }
 
     @Override
-    public String[] splitTerm(String term) {
-        String[] parts = term.split("[.]");
-        return parts;
+    protected void splitTerm(char[] term, int length, Parts parts) {
+        IdentifierSplitter.splitAtDots(term, 0, length, parts);
     }
 
     @Override
-    protected boolean returnOriginalTerm()
-    {
+    protected boolean returnOriginalTerm() {
         return true;
     }
 }
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.tokenizers;
+
+import org.apache.lucene.analysis.TokenStream;
+import org.eclipse.recommenders.codesearch.rcp.index.tokenizers.IdentifierSplitter.Parts;
+
+/**
+ * Splits identifiers at dots and camel case humps in one pass. Emits the same tokens, in the same order, as
+ * <code>new CamelCaseTokenizer(new DotSplitTokenizer(in))</code>: the term, its camel case parts, and then each dot
+ * separated part followed by that part's camel case parts.
+ */
+public class IdentifierSplitFilter extends TermSplitTokenizer {
+
+    private final Parts dots = new Parts();
+
+    public IdentifierSplitFilter(TokenStream in) {
+        super(in);
+    }
+
+    @Override
+    protected void splitTerm(char[] term, int length, Parts parts) {
+        IdentifierSplitter.splitCamelCase(term, 0, length, parts);
+
+        dots.clear();
+        IdentifierSplitter.splitAtDots(term, 0, length, dots);
+        for (int i = 0; i < dots.size(); i++) {
+            final int start = dots.start(i);
+            final int end = dots.end(i);
+            parts.add(start, end);
+            IdentifierSplitter.splitCamelCase(term, start, end, parts);
+        }
+    }
+
+    @Override
+    protected boolean returnOriginalTerm() {
+        return true;
+    }
+}
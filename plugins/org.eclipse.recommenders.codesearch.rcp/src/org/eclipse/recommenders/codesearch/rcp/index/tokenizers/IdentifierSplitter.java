@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+
+package org.eclipse.recommenders.codesearch.rcp.index.tokenizers;
+
+/**
+ * Splits identifiers directly on a term buffer. Parts are reported as start and end indexes into the buffer, so
+ * splitting does not allocate anything once the {@link Parts} buffer has grown to its working size.
+ * <p>
+ * Both splits follow {@link String#split(String)}: trailing empty parts are dropped and a term is only split if that
+ * yields more than one part. Unlike {@link String#split(String)}, empty parts are never reported.
+ */
+public final class IdentifierSplitter {
+
+    /**
+     * A reusable list of (start, end) pairs.
+     */
+    public static final class Parts {
+        private int[] bounds = new int[32];
+        private int size;
+
+        public void add(final int start, final int end) {
+            if (2 * size + 1 >= bounds.length) {
+                final int[] grown = new int[bounds.length * 2];
+                System.arraycopy(bounds, 0, grown, 0, bounds.length);
+                bounds = grown;
+            }
+            bounds[2 * size] = start;
+            bounds[2 * size + 1] = end;
+            size++;
+        }
+
+        public int start(final int index) {
+            return bounds[2 * index];
+        }
+
+        public int end(final int index) {
+            return bounds[2 * index + 1];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public void clear() {
+            size = 0;
+        }
+
+        private void set(final int index, final int start, final int end) {
+            bounds[2 * index] = start;
+            bounds[2 * index + 1] = end;
+        }
+
+        private void truncate(final int newSize) {
+            size = newSize;
+        }
+    }
+
+    private IdentifierSplitter() {
+    }
+
+    /**
+     * Splits <code>term[start, end)</code> at dots, e.g., <code>org.eclipse.ui</code> into <code>org</code>,
+     * <code>eclipse</code> and <code>ui</code>.
+     */
+    public static void splitAtDots(final char[] term, final int start, final int end, final Parts parts) {
+        final int mark = parts.size();
+        int partStart = start;
+        for (int i = start; i < end; i++) {
+            if (term[i] == '.') {
+                parts.add(partStart, i);
+                partStart = i + 1;
+            }
+        }
+        parts.add(partStart, end);
+        keepSplitParts(parts, mark);
+    }
+
+    /**
+     * Splits <code>term[start, end)</code> at underscores and camel case humps, e.g., <code>IActionBars</code> into
+     * <code>I</code>, <code>Action</code> and <code>Bars</code>. A hump starts at an upper case letter that is followed
+     * by a lower case letter or preceded by one (ASCII only).
+     */
+    public static void splitCamelCase(final char[] term, final int start, final int end, final Parts parts) {
+        final int mark = parts.size();
+        int partStart = start;
+        for (int i = start; i < end; i++) {
+            final char c = term[i];
+            if (c == '_') {
+                parts.add(partStart, i);
+                partStart = i + 1;
+            } else if (isUpper(c) && (i + 1 < end && isLower(term[i + 1]) || i > start && isLower(term[i - 1]))) {
+                parts.add(partStart, i);
+                partStart = i;
+            }
+        }
+        parts.add(partStart, end);
+        keepSplitParts(parts, mark);
+    }
+
+    /**
+     * Applies the {@link String#split(String)} rules to the parts added since <code>mark</code> and removes the empty
+     * ones.
+     */
+    private static void keepSplitParts(final Parts parts, final int mark) {
+        int size = parts.size();
+        while (size > mark && parts.start(size - 1) == parts.end(size - 1)) {
+            size--;
+        }
+        if (size - mark <= 1) {
+            parts.truncate(mark);
+            return;
+        }
+        int kept = mark;
+        for (int i = mark; i < size; i++) {
+            if (parts.start(i) < parts.end(i)) {
+                parts.set(kept++, parts.start(i), parts.end(i));
+            }
+        }
+        parts.truncate(kept);
+    }
+
+    private static boolean isUpper(final char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isLower(final char c) {
+        return c >= 'a' && c <= 'z';
+    }
+}
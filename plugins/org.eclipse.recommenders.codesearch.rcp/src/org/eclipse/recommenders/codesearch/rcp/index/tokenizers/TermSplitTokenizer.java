@@ -12,78 +12,91 @@
 package org.eclipse.recommenders.codesearch.rcp.index.tokenizers;
 
 import java.io.IOException;
-import java.util.LinkedList;
 
-import org.apache.lucene.analysis.Token;
 import org.apache.lucene.analysis.TokenFilter;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
 import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
 import org.apache.lucene.analysis.tokenattributes.TermAttribute;
+import org.eclipse.recommenders.codesearch.rcp.index.tokenizers.IdentifierSplitter.Parts;
 
+/**
+ * Emits the parts of each incoming term at the same position as the term. The parts are computed on the term buffer
+ * and emitted from a copy of it; no per-token objects are created.
+ */
 public abstract class TermSplitTokenizer extends TokenFilter {
 
-    private LinkedList<Token> tokens = new LinkedList<Token>();
+    private final Parts parts = new Parts();
+    private int nextPart;
 
-    private TermAttribute termAtt;
-    private OffsetAttribute offsetAtt;
-    private PositionIncrementAttribute posAtt;
+    private char[] term = new char[64];
+    private int termStart;
+
+    private final TermAttribute termAtt;
+    private final OffsetAttribute offsetAtt;
+    private final PositionIncrementAttribute posAtt;
 
     public TermSplitTokenizer(TokenStream in) {
         super(in);
 
-        termAtt = (TermAttribute) addAttribute(TermAttribute.class);
-        offsetAtt = (OffsetAttribute) addAttribute(OffsetAttribute.class);
-        posAtt = (PositionIncrementAttribute) addAttribute(PositionIncrementAttribute.class);
+        termAtt = addAttribute(TermAttribute.class);
+        offsetAtt = addAttribute(OffsetAttribute.class);
+        posAtt = addAttribute(PositionIncrementAttribute.class);
     }
 
     @Override
     public boolean incrementToken() throws IOException {
-        if (!tokens.isEmpty()) {
-            applyToken(tokens.removeFirst());
-        } else if (input.incrementToken()) {
-            splitIntoTokens();
-
-            if (!tokens.isEmpty()) {
-                if (!returnOriginalTerm())
-                    applyToken(tokens.removeFirst());
-            }
-        } else {
+        if (nextPart < parts.size()) {
+            applyPart(nextPart++);
+            return true;
+        }
+        if (!input.incrementToken()) {
             return false;
         }
 
-        return true;
-    }
-
-    private void splitIntoTokens() {
-        String term = termAtt.term();
-        String[] termParts = splitTerm(term);
+        parts.clear();
+        nextPart = 0;
+        final char[] buffer = termAtt.termBuffer();
+        final int length = termAtt.termLength();
+        splitTerm(buffer, length, parts);
 
-        if (termParts.length > 1) {
-            int termPos = offsetAtt.startOffset();
-
-            for (int i = 0; i < termParts.length; i++) {
-                String termPart = termParts[i];
-                int termPartPos = termPos + term.indexOf(termPart);
-                int termPartEndPos = termPartPos + termPart.length();
-
-                Token newToken = new Token(termPart, termPartPos, termPartEndPos);
-                newToken.setPositionIncrement(0);
+        if (!parts.isEmpty()) {
+            // the term attribute is overwritten by the parts, so keep the original term
+            if (term.length < length) {
+                term = new char[Math.max(length, 2 * term.length)];
+            }
+            System.arraycopy(buffer, 0, term, 0, length);
+            termStart = offsetAtt.startOffset();
 
-                tokens.add(newToken);
+            if (!returnOriginalTerm()) {
+                applyPart(nextPart++);
             }
         }
+        return true;
     }
 
-    private void applyToken(Token token) {
-        termAtt.setTermBuffer(token.termBuffer(), 0, token.termLength());
-        posAtt.setPositionIncrement(token.getPositionIncrement());
-        offsetAtt.setOffset(token.startOffset(), token.endOffset());
+    private void applyPart(final int index) {
+        final int start = parts.start(index);
+        final int end = parts.end(index);
+        termAtt.setTermBuffer(term, start, end - start);
+        posAtt.setPositionIncrement(0);
+        offsetAtt.setOffset(termStart + start, termStart + end);
+    }
+
+    @Override
+    public void reset() throws IOException {
+        super.reset();
+        parts.clear();
+        nextPart = 0;
     }
 
     protected boolean returnOriginalTerm() {
         return false;
     }
 
-    public abstract String[] splitTerm(String term);
+    /**
+     * Adds the parts of <code>term[0, length)</code> to <code>parts</code>. Adds nothing if the term is not to be
+     * split.
+     */
+    protected abstract void splitTerm(char[] term, int length, Parts parts);
 }
@@ -31,10 +31,15 @@ import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.util.Version;
 import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.recommenders.codesearch.rcp.index.CodeSearch;
+import org.eclipse.recommenders.codesearch.rcp.index.FieldSchema;
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
+import org.eclipse.recommenders.codesearch.rcp.index.apidoc.AstCache;
+import org.eclipse.recommenders.codesearch.rcp.index.apidoc.RowRenderingScheduler;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.analyzer.JavaSourceCodeAnalyzer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.analyzer.LowerCaseKeywordAnalyzer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.IndexManifest;
+import org.eclipse.recommenders.codesearch.rcp.index.searcher.CodesearchQueryParser;
 
 import com.google.common.collect.Maps;
 import com.google.common.eventbus.EventBus;
@@ -72,18 +77,23 @@ public class CodesearchIndexModule extends AbstractModule {
         }
     }
 
+    /**
+     * @return the folder of the index for the current {@link FieldSchema#VERSION}. A custom location holds one such
+     *         folder per version as well, so that an index written with an older schema is never opened.
+     */
     public static File findOrCreateIndexFolder() {
-        final File basedir = CodesearchIndexPlugin.getDefault().getStateLocation().toFile();
-        File indexdir = new File(basedir, "index_v7");
-        indexdir.mkdirs();
+        final String name = "index_v" + FieldSchema.VERSION;
+        File basedir = CodesearchIndexPlugin.getDefault().getStateLocation().toFile();
         if(CodesearchIndexPlugin.getDefault().getPreferenceStore().getBoolean(PreferencePage.P_USE_CUSTOM_LOC)){
             File customFolder = new File(
                     CodesearchIndexPlugin.getDefault().getPreferenceStore().getString(PreferencePage.P_CUSTOM_LOC)
                     );
             if(customFolder.exists() && customFolder.canWrite()){
-                indexdir = customFolder;
+                basedir = customFolder;
             }
         }
+        final File indexdir = new File(basedir, name);
+        indexdir.mkdirs();
         return indexdir;
     }
 
@@ -102,6 +112,12 @@ public class CodesearchIndexModule extends AbstractModule {
         return new IndexWriter(directory, config);
     }
 
+    @Provides
+    @Singleton
+    public IndexManifest indexManifest() {
+        return new IndexManifest(new File(findOrCreateIndexFolder(), "manifest.bin"));
+    }
+
     @Provides
     @Singleton
     public IndexReader indexReader(final IndexWriter writer) throws IOException {
@@ -122,9 +138,21 @@ public class CodesearchIndexModule extends AbstractModule {
         return new PerFieldAnalyzerWrapper(new LowerCaseKeywordAnalyzer(version()), analyzerPerField);
     }
 
+    @Provides
+    @Singleton
+    public RowRenderingScheduler rowRenderingScheduler() {
+        return new RowRenderingScheduler(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Provides
+    @Singleton
+    public AstCache astCache() {
+        return new AstCache(16);
+    }
+
     @Provides
     public QueryParser queryParser(final Version version, final Analyzer analyzer) {
-        final QueryParser parser = new QueryParser(version, Fields.FULL_TEXT, analyzer);
+        final QueryParser parser = new CodesearchQueryParser(version, Fields.FULL_TEXT, analyzer);
         parser.setLowercaseExpandedTerms(true);
         parser.setAllowLeadingWildcard(true);
         return parser;
@@ -48,12 +48,13 @@ public class CodesearchIndexPlugin extends AbstractUIPlugin {
     protected void initializeDefaultPreferences(IPreferenceStore store) {
         
        store.setDefault(PreferencePage.P_KEEP_IN_SYNC, false);
+       store.setDefault(PreferencePage.P_PARALLEL_INDEXING, true);
+       store.setDefault(PreferencePage.P_UPDATE_DELAY, 1000);
        store.setDefault(PreferencePage.P_HIGHLIGHT_SUMMARY, true);
        store.setDefault(PreferencePage.P_MAX_HITS, 1000);
        store.setDefault(PreferencePage.P_HIGHLIGHT_COLOR, 
                GetStringFromColor(Display.getDefault().getSystemColor(SWT.COLOR_YELLOW)));
-       store.setDefault(PreferencePage.P_CUSTOM_LOC, 
-               CodesearchIndexModule.findOrCreateIndexFolder().getPath());
+       store.setDefault(PreferencePage.P_CUSTOM_LOC, getStateLocation().toFile().getPath());
        store.setDefault(LocalExamplesProvider.CHECKED_EXCEPTION_SEARCH, true);
        store.setDefault(LocalExamplesProvider.CLASS_FIELD_SEARCH, true);
        store.setDefault(LocalExamplesProvider.EXTENDED_TYPE_SEARCH, true);
@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+package org.eclipse.recommenders.internal.codesearch.rcp;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.recommenders.rcp.utils.Logs;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Collects index updates of single compilation units and applies them on a background thread once a unit has been
+ * quiet for the configured window. Repeated saves of a unit within the window result in a single update; for a unit
+ * that is added, removed and added again only the last operation is applied.
+ * <p>
+ * Operations that concern more than a single unit, e.g., dropping a whole project, are run as tasks on the same thread
+ * in the next batch, so that they never block their caller and are ordered with the unit updates.
+ */
+public class IndexUpdateQueue<T> {
+
+    public interface IUpdateHandler<T> {
+
+        void update(T element) throws Exception;
+
+        void remove(T element) throws Exception;
+
+        /**
+         * Called once before a batch of due updates is applied.
+         */
+        void beginBatch();
+
+        /**
+         * Called once after a batch of due updates has been applied.
+         */
+        void endBatch();
+
+        void failed(T element, Exception e);
+    }
+
+    private static final class PendingUpdate {
+        private final long firstEnqueued;
+        private boolean remove;
+        private long due;
+
+        private PendingUpdate(final long now) {
+            firstEnqueued = now;
+        }
+    }
+
+    private final IUpdateHandler<T> handler;
+    private final ScheduledExecutorService worker;
+    private volatile long windowMillis;
+
+    // guarded by pending
+    private final Map<T, PendingUpdate> pending = Maps.newLinkedHashMap();
+    // guarded by pending
+    private final List<Runnable> tasks = Lists.newArrayList();
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    public IndexUpdateQueue(final IUpdateHandler<T> handler, final long windowMillis) {
+        this.handler = handler;
+        this.windowMillis = windowMillis;
+        worker = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+                .setNameFormat("Recommenders::codesearch-updates-%d").setPriority(Thread.MIN_PRIORITY)
+                .setDaemon(true).build());
+    }
+
+    public void setWindow(final long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public void update(final T element) {
+        enqueue(element, false);
+    }
+
+    public void remove(final T element) {
+        enqueue(element, true);
+    }
+
+    /**
+     * Runs the given task on the update thread right away, within a batch of its own or together with the updates that
+     * are due. The task has to handle its own errors.
+     */
+    public void execute(final Runnable task) {
+        synchronized (pending) {
+            tasks.add(task);
+        }
+        worker.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                drain();
+            }
+        });
+    }
+
+    private void enqueue(final T element, final boolean remove) {
+        final long now = System.currentTimeMillis();
+        final long window = windowMillis;
+        synchronized (pending) {
+            PendingUpdate update = pending.get(element);
+            if (update == null) {
+                update = new PendingUpdate(now);
+                pending.put(element, update);
+            }
+            update.remove = remove;
+            update.due = now + window;
+        }
+        enqueued.incrementAndGet();
+        worker.schedule(new Runnable() {
+
+            @Override
+            public void run() {
+                drain();
+            }
+        }, window, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Applies all updates that are due. Every enqueue schedules a drain for the end of its window, so updates that are
+     * not due yet are picked up by a later drain.
+     */
+    private void drain() {
+        final List<Entry<T, PendingUpdate>> due = Lists.newArrayList();
+        final List<Runnable> dueTasks;
+        final long now = System.currentTimeMillis();
+        synchronized (pending) {
+            dueTasks = Lists.newArrayList(tasks);
+            tasks.clear();
+            for (final Iterator<Entry<T, PendingUpdate>> it = pending.entrySet().iterator(); it.hasNext();) {
+                final Entry<T, PendingUpdate> entry = it.next();
+                if (entry.getValue().due <= now) {
+                    due.add(entry);
+                    it.remove();
+                }
+            }
+        }
+        if (due.isEmpty() && dueTasks.isEmpty()) {
+            return;
+        }
+
+        handler.beginBatch();
+        try {
+            for (final Runnable task : dueTasks) {
+                try {
+                    task.run();
+                } catch (final RuntimeException e) {
+                    Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Index update task failed");
+                }
+            }
+            for (final Entry<T, PendingUpdate> entry : due) {
+                final T element = entry.getKey();
+                try {
+                    if (entry.getValue().remove) {
+                        handler.remove(element);
+                    } else {
+                        handler.update(element);
+                    }
+                } catch (final Exception e) {
+                    handler.failed(element, e);
+                }
+                recordLatency(System.currentTimeMillis() - entry.getValue().firstEnqueued);
+            }
+        } finally {
+            handler.endBatch();
+        }
+    }
+
+    private void recordLatency(final long latency) {
+        processed.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        long max;
+        while (latency > (max = maxLatency.get()) && !maxLatency.compareAndSet(max, latency)) {
+            // retry
+        }
+    }
+
+    /**
+     * @return number of units waiting to be updated
+     */
+    public int getQueueDepth() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * @return number of events received, including those that have been coalesced
+     */
+    public long getEnqueued() {
+        return enqueued.get();
+    }
+
+    /**
+     * @return number of updates applied
+     */
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    /**
+     * @return average time between the first event for a unit and the end of its update
+     */
+    public long getAverageLatencyMillis() {
+        final long count = processed.get();
+        return count == 0 ? 0 : totalLatency.get() / count;
+    }
+
+    public long getMaxLatencyMillis() {
+        return maxLatency.get();
+    }
+
+    public void dispose() {
+        worker.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d, %d events, %d updates, latency avg %d ms, max %d ms", getQueueDepth(),
+                getEnqueued(), getProcessed(), getAverageLatencyMillis(), getMaxLatencyMillis());
+    }
+}
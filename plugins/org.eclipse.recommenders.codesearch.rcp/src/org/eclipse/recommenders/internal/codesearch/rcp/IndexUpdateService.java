@@ -14,15 +14,21 @@ import static org.eclipse.recommenders.utils.Checks.cast;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
 import org.eclipse.core.internal.resources.Workspace;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -36,8 +42,11 @@ import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.internal.core.JavaProject;
 import org.eclipse.jdt.ui.SharedASTProvider;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexerDefaultConfigBean;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.ResourcePathIndexer;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.TimestampIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.BindingIdentifierCache;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.IndexManifest;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.SourceText;
 import org.eclipse.recommenders.rcp.JavaModelEvents.CompilationUnitAdded;
 import org.eclipse.recommenders.rcp.JavaModelEvents.CompilationUnitRemoved;
 import org.eclipse.recommenders.rcp.JavaModelEvents.CompilationUnitSaved;
@@ -54,16 +63,18 @@ public class IndexUpdateService {
         private final CodeIndexer indexer;
         private final IProject[] projects;
         private final Workspace root;
+        private final boolean wholeWorkspace;
 
         private final ExecutorService e = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
                 .setNameFormat("Recommenders::codesearch-indexer-%d").setPriority(Thread.MIN_PRIORITY).build());
 
         private IndexerJob(final String name, final IProject[] projects, final CodeIndexer indexer,
-                final Workspace workspace) {
+                final Workspace workspace, final boolean wholeWorkspace) {
             super(name);
             this.indexer = indexer;
             this.projects = projects;
             root = workspace;
+            this.wholeWorkspace = wholeWorkspace;
             setRule(MUTEX);
             schedule(30000);
         }
@@ -80,9 +91,10 @@ public class IndexUpdateService {
 
                 @Override
                 public void run() {
+                    final ExecutorService workers = PreferencePage.isParallelIndexing() ? newWorkerPool() : null;
+                    // all projects of the job share one timestamp
+                    final long timestamp = System.currentTimeMillis();
                     try {
-                        TimestampIndexer.updateCurrentTimestamp();
-
                         monitor.beginTask("Indexing", projects.length + 1);
                         monitor.subTask("");
                         monitor.worked(1);
@@ -91,7 +103,8 @@ public class IndexUpdateService {
                                 if (monitor.isCanceled()) {
                                     return;
                                 }
-                                final ProjectIndexerRunnable r = new ProjectIndexerRunnable(JavaCore.create(p), indexer);
+                                final ProjectIndexerRunnable r = new ProjectIndexerRunnable(JavaCore.create(p), indexer,
+                                        workers, timestamp);
                                 final SubProgressMonitor sub = new SubProgressMonitor(monitor, 1);
                                 try {
                                     r.run(sub);
@@ -101,7 +114,17 @@ public class IndexUpdateService {
                                 }
                             }
                         }
+                        if (wholeWorkspace && !monitor.isCanceled()) {
+                            // every file in the index has been checked once, so the manifest knows them all now
+                            indexer.markManifestComplete();
+                            indexer.commit();
+                        }
                     } finally {
+                        if (workers != null) {
+                            // never interrupt a worker: it may be writing to the index
+                            workers.shutdown();
+                            awaitTermination(workers);
+                        }
                         wait.countDown();
                     }
                 }
@@ -114,6 +137,28 @@ public class IndexUpdateService {
             monitor.done();
             return Status.OK_STATUS;
         }
+
+        private void awaitTermination(final ExecutorService workers) {
+            try {
+                if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                    Logs.logError(null, CodesearchIndexPlugin.getDefault(),
+                            "Code search workers did not finish within a minute");
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * One worker per core. The queue is bounded so that the thread walking the workspace does not run ahead and
+         * keep thousands of units in memory; if it is full, the walking thread indexes the unit itself.
+         */
+        private ExecutorService newWorkerPool() {
+            final int cores = Runtime.getRuntime().availableProcessors();
+            return new ThreadPoolExecutor(cores, cores, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(
+                    cores * 4), new ThreadFactoryBuilder().setNameFormat("Recommenders::codesearch-worker-%d")
+                    .setPriority(Thread.MIN_PRIORITY).setDaemon(true).build(), new ThreadPoolExecutor.CallerRunsPolicy());
+        }
     }
 
     private static boolean backgroundIndexerActive = true;
@@ -137,21 +182,27 @@ public class IndexUpdateService {
 
     private final CodeIndexer indexer;
     private final IWorkspaceRoot workspace;
+    private final IndexUpdateQueue<ICompilationUnit> updates;
+
     @Inject
     public IndexUpdateService(final CodeIndexer indexer, final IWorkspaceRoot workspace) {
         this.indexer = indexer;
         this.workspace = workspace;
+        updates = new IndexUpdateQueue<ICompilationUnit>(new UpdateHandler(), PreferencePage.getUpdateDelay());
+        workspace.getWorkspace().addResourceChangeListener(new ProjectDeletionListener(),
+                IResourceChangeEvent.PRE_DELETE);
         if (PreferencePage.isActive() && backgroundIndexerActive) {
 
             new IndexerJob("Code-search: Re-indexing workspace.", workspace.getProjects(), indexer,
-                    (Workspace) workspace.getWorkspace());
+                    (Workspace) workspace.getWorkspace(), true);
         }
     }
 
     @Subscribe
     public void onEvent(final CompilationUnitAdded event) {
         if (PreferencePage.isActive() && backgroundIndexerActive) {
-            tryIndexing(event.compilationUnit);
+            updates.setWindow(PreferencePage.getUpdateDelay());
+            updates.update(event.compilationUnit);
         }
     }
 
@@ -162,26 +213,15 @@ public class IndexUpdateService {
             final IProject[] projects = { project.getProject() };
             final Workspace workspace = cast(projects[0].getWorkspace());
             final String title = "Indexing " + project.getElementName();
-            new IndexerJob(title, projects, indexer, workspace);
+            new IndexerJob(title, projects, indexer, workspace, false);
         }
     }
 
     @Subscribe
     public void onEvent(final CompilationUnitSaved event) {
         if (PreferencePage.isActive() && backgroundIndexerActive) {
-            tryIndexing(event.compilationUnit);
-        }
-    }
-
-    private void tryIndexing(final ICompilationUnit cu) {
-        try {
-            TimestampIndexer.updateCurrentTimestamp();
-
-            final File file = ResourcePathIndexer.getFile(cu);
-            final CompilationUnit ast = SharedASTProvider.getAST(cu, SharedASTProvider.WAIT_YES, null);
-            indexer.index(ast);
-        } catch (final Exception e) {
-            Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Failed to index '%s'", cu.getResource().getFullPath());
+            updates.setWindow(PreferencePage.getUpdateDelay());
+            updates.update(event.compilationUnit);
         }
     }
 
@@ -191,24 +231,108 @@ public class IndexUpdateService {
             return;
         }
 
-        try {
-            if (event.compilationUnit != null) {
-                final CompilationUnit ast = SharedASTProvider.getAST(event.compilationUnit, SharedASTProvider.WAIT_YES,
-                        null);
-                if (ast != null) {
-                    indexer.delete(ast);
-                }
+        if (event.compilationUnit != null) {
+            updates.setWindow(PreferencePage.getUpdateDelay());
+            updates.remove(event.compilationUnit);
+        }
+    }
+
+    /**
+     * @return statistics of the queue of pending single unit updates
+     */
+    public IndexUpdateQueue<ICompilationUnit> getUpdateQueue() {
+        return updates;
+    }
+
+    /**
+     * Applies queued updates on the queue's worker thread, so neither the event bus nor the UI thread waits for an
+     * AST.
+     */
+    private final class UpdateHandler implements IndexUpdateQueue.IUpdateHandler<ICompilationUnit> {
+
+        private BindingIdentifierCache identifiers;
+        private long batchTimestamp;
+
+        @Override
+        public void beginBatch() {
+            // all units of a batch share one timestamp
+            batchTimestamp = System.currentTimeMillis();
+            identifiers = BindingIdentifierCache.open();
+        }
+
+        @Override
+        public void update(final ICompilationUnit cu) throws Exception {
+            if (!cu.exists()) {
+                return;
+            }
+            final long stamp = SourceText.stamp(cu);
+            final long hash = IndexManifest.contentHash(ResourcePathIndexer.getFile(cu));
+            final CompilationUnit ast = SharedASTProvider.getAST(cu, SharedASTProvider.WAIT_YES, null);
+            if (ast != null) {
+                SourceText.setStamp(ast, stamp);
+                CodeIndexer.setContentHash(ast, hash);
+                indexer.index(ast, new CodeIndexerDefaultConfigBean(batchTimestamp));
             }
-        } catch (final IOException e) {
-            Logs.logError(e, CodesearchIndexPlugin.getDefault(), "error during indexing");
+        }
+
+        @Override
+        public void remove(final ICompilationUnit cu) throws Exception {
+            // the unit is gone; its path is all we need
+            indexer.delete(ResourcePathIndexer.getFile(cu));
+        }
+
+        @Override
+        public void endBatch() {
+            identifiers.close();
+            identifiers = null;
+            // single updates are not committed; make them searchable right away
+            indexer.refreshSearcher();
+        }
+
+        @Override
+        public void failed(final ICompilationUnit cu, final Exception e) {
+            Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Failed to update index for '%s'",
+                    cu.getElementName());
         }
     }
     
+    /**
+     * Drops all documents of a project that is about to be deleted. The location is only known before the deletion, so
+     * it is captured here; the documents are deleted on the update thread, whose batch makes the deletion searchable.
+     */
+    private final class ProjectDeletionListener implements IResourceChangeListener {
+
+        @Override
+        public void resourceChanged(final IResourceChangeEvent event) {
+            if (!PreferencePage.isActive() || !backgroundIndexerActive || !(event.getResource() instanceof IProject)) {
+                return;
+            }
+            final IPath location = event.getResource().getLocation();
+            if (location == null) {
+                return;
+            }
+            final File projectLocation = location.toFile();
+            final String name = event.getResource().getName();
+            updates.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        indexer.deleteAllBelow(projectLocation);
+                    } catch (final IOException e) {
+                        Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Failed to remove project '%s' from index",
+                                name);
+                    }
+                }
+            });
+        }
+    }
+
     public void reindexWorkspace(){
         if (!backgroundIndexerActive) {
 
            IndexerJob job= new IndexerJob("Code-search: Re-indexing workspace.", workspace.getProjects(), indexer,
-                    (Workspace) workspace.getWorkspace());
+                    (Workspace) workspace.getWorkspace(), true);
            job.schedule(1000);
         }
     }
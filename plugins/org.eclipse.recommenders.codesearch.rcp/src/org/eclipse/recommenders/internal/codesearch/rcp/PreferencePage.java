@@ -54,6 +54,8 @@ public class PreferencePage extends FieldEditorPreferencePage implements IWorkbe
     public static final String P_HIGHLIGHT_COLOR = "recommenders.codesearch.index.highlight_color";
     public static final String P_USE_CUSTOM_LOC = "recommenders.codesearch.index.use_custom_location";
     public static final String P_CUSTOM_LOC = "recommenders.codesearch.index.custom_location";
+    public static final String P_PARALLEL_INDEXING = "recommenders.codesearch.index.parallel";
+    public static final String P_UPDATE_DELAY = "recommenders.codesearch.index.update_delay";
     private DirectoryFieldEditor dir;
     private Composite dirParent;
     private ColorFieldEditor colorF;
@@ -64,6 +66,10 @@ public class PreferencePage extends FieldEditorPreferencePage implements IWorkbe
         
         addField(new BooleanFieldEditor(P_KEEP_IN_SYNC, "Keep index in sync with workspace.", getFieldEditorParent()));
         
+        addField(new BooleanFieldEditor(P_PARALLEL_INDEXING, "Use all available cores when indexing the workspace.", getFieldEditorParent()));
+        
+        addField(new IntegerFieldEditor(P_UPDATE_DELAY, "Delay (ms) before saved files are re-indexed.", getFieldEditorParent()));
+        
         addField(new BooleanFieldEditor(P_HIGHLIGHT_SUMMARY, "Highlight matching terms in summary.", getFieldEditorParent()));
         
         final String[] s = CodesearchIndexPlugin.getDefault().getPreferenceStore().getString(PreferencePage.P_HIGHLIGHT_COLOR).split(",");
@@ -130,6 +136,21 @@ public class PreferencePage extends FieldEditorPreferencePage implements IWorkbe
         return res;
     }
 
+    public static boolean isParallelIndexing() {
+        final CodesearchIndexPlugin plugin = CodesearchIndexPlugin.getDefault();
+        final IPreferenceStore store = plugin.getPreferenceStore();
+        return store.getBoolean(P_PARALLEL_INDEXING);
+    }
+
+    /**
+     * @return how long a compilation unit must be left alone before its changes are indexed
+     */
+    public static int getUpdateDelay() {
+        final CodesearchIndexPlugin plugin = CodesearchIndexPlugin.getDefault();
+        final IPreferenceStore store = plugin.getPreferenceStore();
+        return Math.max(0, store.getInt(P_UPDATE_DELAY));
+    }
+
     @Override
     public void propertyChange(PropertyChangeEvent event) {       
         super.propertyChange(event);
@@ -13,12 +13,19 @@ package org.eclipse.recommenders.internal.codesearch.rcp;
 import static com.google.common.collect.Ordering.usingToString;
 import static java.util.Arrays.asList;
 import static org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexer.addFieldToDocument;
+import static org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexer.addNumericFieldToDocument;
 import static org.eclipse.recommenders.codesearch.rcp.index.indexer.ResourcePathIndexer.getFile;
 import static org.eclipse.recommenders.utils.Checks.cast;
 
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.lucene.document.Document;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -29,6 +36,7 @@ import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.dom.ASTRequestor;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.internal.core.JarPackageFragmentRoot;
 import org.eclipse.jdt.internal.core.SourceMapper;
@@ -38,24 +46,54 @@ import org.eclipse.recommenders.codesearch.rcp.index.Fields;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexerConfigBean;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.ResourcePathIndexer;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.TimestampIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.BindingIdentifierCache;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.CompilationUnitHelper;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.SourceText;
 import org.eclipse.recommenders.rcp.utils.Logs;
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Uninterruptibles;
+
 public class ProjectIndexerRunnable implements IRunnableWithProgress {
 
+    /**
+     * Number of compilation units parsed together. Larger batches share more of the binding environment but keep it
+     * alive longer.
+     */
+    public static final int BATCH_SIZE = 100;
+
     private final IJavaProject project;
     private final CodeIndexer indexer;
+    private final ExecutorService workers;
+    private final long timestamp;
     private IPackageFragmentRoot[] roots;
     private IProgressMonitor monitor;
 
-    //
-    IPackageFragmentRoot root;
-    private File rootLocation;
-    private SourceMapper sourceMapper;
-
     public ProjectIndexerRunnable(final IJavaProject project, final CodeIndexer indexer) {
+        this(project, indexer, null);
+    }
+
+    /**
+     * @param workers
+     *            if not <code>null</code>, compilation units and class files of all package fragment roots are parsed
+     *            and indexed on these threads. The calling thread only walks the project structure and waits for the
+     *            workers before it checkpoints the index.
+     */
+    public ProjectIndexerRunnable(final IJavaProject project, final CodeIndexer indexer, final ExecutorService workers) {
+        this(project, indexer, workers, System.currentTimeMillis());
+    }
+
+    /**
+     * @param timestamp
+     *            the start time of the indexing job this project is indexed in; every document and manifest entry
+     *            written for the project gets this timestamp
+     */
+    public ProjectIndexerRunnable(final IJavaProject project, final CodeIndexer indexer,
+            final ExecutorService workers, final long timestamp) {
         this.project = project;
         this.indexer = indexer;
+        this.workers = workers;
+        this.timestamp = timestamp;
     }
 
     @Override
@@ -66,8 +104,20 @@ public class ProjectIndexerRunnable implements IRunnableWithProgress {
             this.monitor = monitor;
             openMonitor();
 
+            final List<RootIndexer> scheduled = Lists.newLinkedList();
             for (final IPackageFragmentRoot root : roots) {
-                analyzeRoot(root);
+                final RootIndexer rootIndexer = new RootIndexer(root);
+                if (!rootIndexer.schedule()) {
+                    continue;
+                }
+                if (isParallel()) {
+                    scheduled.add(rootIndexer);
+                } else {
+                    rootIndexer.finish();
+                }
+            }
+            for (final RootIndexer rootIndexer : scheduled) {
+                rootIndexer.finish();
             }
         } catch (final Exception e) {
             Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Error during code search indexing");
@@ -76,142 +126,316 @@ public class ProjectIndexerRunnable implements IRunnableWithProgress {
         }
     }
 
+    private boolean isParallel() {
+        return workers != null;
+    }
+
     private void openMonitor() {
         monitor.beginTask("", roots.length + 1);
         monitor.subTask("About to begin...");
         monitor.worked(1);
     }
 
-    private void analyzeRoot(final IPackageFragmentRoot root) throws Exception {
-        this.root = root;
-        monitor.subTask("Analyzing " + root.getElementName());
+    private boolean hasNotChanged(final File file) {
+        return indexer.isUpToDate(file, timestamp);
+    }
 
-        rootLocation = getFile(root);
-        if (monitor.isCanceled()) {
-            return;
-        }
-        if (rootLocation == null) {
-            return;
+    private void closeMonitor() {
+        monitor.done();
+    }
+
+    /**
+     * Indexes a single package fragment root. All state that belongs to the root lives here so that several roots can
+     * be in flight at the same time.
+     */
+    private final class RootIndexer {
+
+        private final IPackageFragmentRoot root;
+        private final List<Task> pending = Lists.newLinkedList();
+        private final List<IPackageFragment> visitedFragments = Lists.newLinkedList();
+        private final List<ICompilationUnit> batch = Lists.newArrayListWithCapacity(BATCH_SIZE);
+        private File rootLocation;
+        private SourceMapper sourceMapper;
+        /**
+         * Set as soon as a unit of this root was skipped or failed. Such a root must be indexed again next time.
+         */
+        private volatile boolean incomplete;
+
+        private RootIndexer(final IPackageFragmentRoot root) {
+            this.root = root;
         }
-        if (hasNotChanged(rootLocation)) {
-            return;
+
+        /**
+         * Checks whether the root needs to be (re-)indexed and, if so, schedules all its compilation units and class
+         * files.
+         * 
+         * @return <code>false</code> if there is nothing to do for this root
+         */
+        private boolean schedule() throws Exception {
+            monitor.subTask("Analyzing " + root.getElementName());
+
+            rootLocation = getFile(root);
+            if (monitor.isCanceled()) {
+                return false;
+            }
+            if (rootLocation == null) {
+                return false;
+            }
+            if (hasNotChanged(rootLocation)) {
+                return false;
+            }
+            if (root.isArchive()) {
+                indexer.delete(rootLocation);
+                if (!findSourceMapper()) {
+                    return false;
+                }
+            }
+
+            analyzePackageFragments();
+            return true;
         }
-        if (root.isArchive()) {
-            indexer.delete(rootLocation);
-            if (!findSourceMapper()) {
-                return;
+
+        /**
+         * Waits until all scheduled units of this root are indexed and checkpoints the index. The root is only marked
+         * as indexed if all its units made it into the index; the documents written so far are committed either way.
+         */
+        private void finish() throws IOException {
+            awaitPending();
+            if (!incomplete && !monitor.isCanceled()) {
+                addArchiveVisitedMarker();
             }
+
+            monitor.subTask("Checkpointing...");
+            indexer.commit();
+            monitor.worked(1);
+            for (final IPackageFragment fragment : visitedFragments) {
+                fragment.close();
+            }
+            root.close();
         }
 
-        analyzePackageFragments();
+        /**
+         * Waits for all tasks of this root. On cancel, tasks that have not started yet are dropped, but tasks that are
+         * running are still waited for: the root and its fragments are closed and the index is committed afterwards.
+         */
+        private void awaitPending() {
+            for (final Task task : pending) {
+                if (monitor.isCanceled() && task.cancel()) {
+                    incomplete = true;
+                    continue;
+                }
+                try {
+                    Uninterruptibles.getUninterruptibly(task.future);
+                } catch (final CancellationException e) {
+                    incomplete = true;
+                } catch (final ExecutionException e) {
+                    incomplete = true;
+                    Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Failed to index '%s'",
+                            root.getElementName());
+                }
+            }
+            pending.clear();
+        }
 
-        monitor.subTask("Checkpointing...");
-        indexer.commit();
-        monitor.worked(1);
-        root.close();
-    }
+        private void analyzePackageFragments() throws Exception {
+            for (final IJavaElement child : usingToString().sortedCopy(asList(root.getChildren()))) {
+                final IPackageFragment fragment = cast(child);
+                monitor.subTask("Analyzing " + fragment.getElementName());
 
-    private void analyzePackageFragments() throws Exception {
-        for (final IJavaElement child : usingToString().sortedCopy(asList(root.getChildren()))) {
-            final IPackageFragment fragment = cast(child);
-            monitor.subTask("Analyzing " + fragment.getElementName());
+                if (fragment.getElementName().startsWith("sun.")) {
+                    continue;
+                }
+                if (fragment.getElementName().startsWith("com.sun.")) {
+                    continue;
+                }
+                if (fragment.getElementName().startsWith("com.oracle.")) {
+                    continue;
+                }
+                if (fragment.getElementName().startsWith("sunw.")) {
+                    continue;
+                }
 
-            if (fragment.getElementName().startsWith("sun.")) {
-                continue;
+                for (final IClassFile clazz : usingToString().sortedCopy(asList(fragment.getClassFiles()))) {
+                    scheduleClassFile(clazz);
+                }
+                for (final ICompilationUnit cu : fragment.getCompilationUnits()) {
+                    scheduleCompilationUnit(cu);
+                }
+                visitedFragments.add(fragment);
             }
-            if (fragment.getElementName().startsWith("com.sun.")) {
-                continue;
+            flushBatch();
+        }
+
+        private void submit(final Runnable work) {
+            if (isParallel()) {
+                final Task task = new Task(work);
+                task.future = workers.submit(task);
+                pending.add(task);
+            } else {
+                work.run();
             }
-            if (fragment.getElementName().startsWith("com.oracle.")) {
-                continue;
+        }
+
+        private void scheduleCompilationUnit(final ICompilationUnit cu) {
+            final File cuLocation = getFile(cu);
+            if (cuLocation == null || hasNotChanged(cuLocation)) {
+                return;
             }
-            if (fragment.getElementName().startsWith("sunw.")) {
-                continue;
+            batch.add(cu);
+            if (batch.size() >= BATCH_SIZE) {
+                flushBatch();
             }
+        }
 
-            for (final IClassFile clazz : usingToString().sortedCopy(asList(fragment.getClassFiles()))) {
-                analyzeClassFile(clazz);
-            }
-            for (final ICompilationUnit cu : fragment.getCompilationUnits()) {
-                analyzeCompilationUnit(cu);
+        private void flushBatch() {
+            if (batch.isEmpty()) {
+                return;
             }
-            fragment.close();
+            final ICompilationUnit[] units = batch.toArray(new ICompilationUnit[batch.size()]);
+            batch.clear();
+            submit(new Runnable() {
+                @Override
+                public void run() {
+                    analyzeCompilationUnits(units);
+                }
+            });
         }
-        addArchiveVisitedMarker();
-    }
 
-    private void analyzeCompilationUnit(final ICompilationUnit cu) {
-        try {
-            final File cuLocation = getFile(cu);
-            if (hasNotChanged(cuLocation)) {
+        private void scheduleClassFile(final IClassFile clazz) {
+            if (clazz.getElementName().contains("$")) {
                 return;
             }
-            final CompilationUnit ast = SharedASTProvider.getAST(cu, SharedASTProvider.WAIT_YES, monitor);
-            if (ast == null) {
+            submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        analyzeClassFile(clazz);
+                    } catch (final Exception e) {
+                        incomplete = true;
+                        Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Failed to index '%s'",
+                                clazz.getElementName());
+                    }
+                }
+            });
+        }
+
+        private void analyzeCompilationUnits(final ICompilationUnit[] units) {
+            if (monitor.isCanceled()) {
                 return;
             }
+            // bindings of one batch share a lookup environment, so their identifiers are worth keeping until it is done
+            final BindingIdentifierCache identifiers = BindingIdentifierCache.open();
+            try {
+                CompilationUnitHelper.parse(units, project, new ASTRequestor() {
+                    @Override
+                    public void acceptAST(final ICompilationUnit source, final CompilationUnit ast) {
+                        if (!monitor.isCanceled()) {
+                            analyzeCompilationUnit(source, ast);
+                        }
+                    }
+                }, null);
+            } catch (final Exception e) {
+                incomplete = true;
+                Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Failed to index %d compilation units of '%s'",
+                        units.length, root.getElementName());
+            } finally {
+                identifiers.close();
+            }
+        }
 
-            indexer.delete(cuLocation);
-            indexer.index(ast, new CodeIndexerConfigBean(true, 1.5f));
-        } catch (final Exception e) {
-            Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Failed to index '%s'", cu.getResource().getFullPath());
+        private void analyzeCompilationUnit(final ICompilationUnit cu, final CompilationUnit ast) {
+            try {
+                // replaces the previous documents of this unit
+                indexer.index(ast, new CodeIndexerConfigBean(true, 1.5f, timestamp));
+            } catch (final Exception e) {
+                incomplete = true;
+                Logs.logError(e, CodesearchIndexPlugin.getDefault(), "Failed to index '%s'", cu.getResource()
+                        .getFullPath());
+            }
         }
-    }
 
-    private boolean hasNotChanged(final File file) {
-        final long lastModified = file.lastModified();
-        final long lastIndexed = indexer.lastIndexed(file);
-        return lastModified < lastIndexed;
-    }
+        @SuppressWarnings("restriction")
+        private boolean findSourceMapper() {
+            final JarPackageFragmentRoot jarRoot = (JarPackageFragmentRoot) root;
+            sourceMapper = jarRoot.getSourceMapper();
+            return sourceMapper != null;
+        }
 
-    @SuppressWarnings("restriction")
-    private boolean findSourceMapper() {
-        final JarPackageFragmentRoot jarRoot = (JarPackageFragmentRoot) root;
-        sourceMapper = jarRoot.getSourceMapper();
-        return sourceMapper != null;
-    }
+        private void analyzeClassFile(final IClassFile clazz) throws Exception {
+            if (monitor.isCanceled()) {
+                return;
+            }
 
-    private void analyzeClassFile(final IClassFile clazz) throws IOException {
-        if (monitor.isCanceled()) {
-            return;
-        }
-        if (clazz.getElementName().contains("$")) {
-            return;
-        }
+            final IType type = clazz.getType();
+            if (type == null) {
+                return;
+            }
+            final long stamp = SourceText.stamp(clazz);
+            final CompilationUnit ast = SharedASTProvider.getAST(clazz, SharedASTProvider.WAIT_YES,
+                    isParallel() ? null : monitor);
+            if (ast == null) {
+                return;
+            }
+            SourceText.setStamp(ast, stamp);
 
-        final IType type = clazz.getType();
-        if (type == null) {
-            return;
-        }
-        final CompilationUnit ast = SharedASTProvider.getAST(clazz, SharedASTProvider.WAIT_YES, monitor);
-        if (ast == null) {
-            return;
+            // final String sourceFileName = type.getElementName() + ".java";
+            // final char[] source = sourceMapper.findSource(type, sourceFileName);
+            // if (source == null) {
+            // return;
+            // }
+            // final IJavaProject javaProject = root.getJavaProject();
+            final String unitName = root.getPath() + "!" + type.getFullyQualifiedName();
+            // final CompilationUnit ast = CompilationUnitHelper.parse(source,
+            // unitName, javaProject);
+            // ast.setProperty("location", rootLocation);
+            // ast.setProperty("project", javaProject);
+            if (!isParallel()) {
+                // progress monitors are not thread-safe
+                monitor.subTask(unitName);
+            }
+
+            indexer.index(ast, new CodeIndexerConfigBean(false, 1.0f, timestamp));
         }
 
-        // final String sourceFileName = type.getElementName() + ".java";
-        // final char[] source = sourceMapper.findSource(type, sourceFileName);
-        // if (source == null) {
-        // return;
-        // }
-        // final IJavaProject javaProject = root.getJavaProject();
-        final String unitName = root.getPath() + "!" + type.getFullyQualifiedName();
-        // final CompilationUnit ast = CompilationUnitHelper.parse(source,
-        // unitName, javaProject);
-        // ast.setProperty("location", rootLocation);
-        // ast.setProperty("project", javaProject);
-        monitor.subTask(unitName);
+        /**
+         * A unit of work on a worker thread. It runs at most once and can only be cancelled as long as it has not
+         * started.
+         */
+        private final class Task implements Runnable {
 
-        indexer.index(ast, new CodeIndexerConfigBean(false, 1.0f));
-    }
+            private final Runnable work;
+            private final AtomicBoolean claimed = new AtomicBoolean();
+            private Future<?> future;
 
-    private void addArchiveVisitedMarker() throws IOException {
-        final Document visited = new Document();
-        addFieldToDocument(visited, Fields.RESOURCE_PATH, ResourcePathIndexer.getPath(rootLocation));
-        addFieldToDocument(visited, Fields.TIMESTAMP, TimestampIndexer.getTimeString());
-        indexer.addDocument(visited);
-    }
+            private Task(final Runnable work) {
+                this.work = work;
+            }
 
-    private void closeMonitor() {
-        monitor.done();
+            @Override
+            public void run() {
+                if (claimed.compareAndSet(false, true)) {
+                    work.run();
+                }
+            }
+
+            /**
+             * @return <code>true</code> if the task had not started and will not run any more
+             */
+            private boolean cancel() {
+                if (!claimed.compareAndSet(false, true)) {
+                    return false;
+                }
+                future.cancel(false);
+                return true;
+            }
+        }
+
+        private void addArchiveVisitedMarker() throws IOException {
+            final Document visited = new Document();
+            addFieldToDocument(visited, Fields.RESOURCE_PATH, ResourcePathIndexer.getPath(rootLocation));
+            addNumericFieldToDocument(visited, Fields.TIMESTAMP, timestamp);
+            indexer.addDocument(visited);
+            indexer.markIndexed(rootLocation, timestamp);
+        }
     }
 }
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+package org.eclipse.recommenders.test.codesearch.rcp;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.Map;
+
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.recommenders.codesearch.rcp.index.apidoc.AstCache;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+
+public class AstCacheTest {
+
+    private final Map<ITypeRoot, Long> stamps = Maps.newHashMap();
+    private final ITypeRoot a = mock(ITypeRoot.class);
+    private final ITypeRoot b = mock(ITypeRoot.class);
+    private final ITypeRoot c = mock(ITypeRoot.class);
+    private AstCache cache;
+    private int parsed;
+
+    @Before
+    public void setUp() {
+        stamps.put(a, 1L);
+        stamps.put(b, 1L);
+        stamps.put(c, 1L);
+        cache = new AstCache(2) {
+
+            @Override
+            protected CompilationUnit parse(final ITypeRoot root) {
+                parsed++;
+                return AST.newAST(AST.JLS4).newCompilationUnit();
+            }
+
+            @Override
+            protected long getModificationStamp(final ITypeRoot root) {
+                return stamps.get(root);
+            }
+        };
+    }
+
+    @Test
+    public void testSameFileIsParsedOnce() {
+        final CompilationUnit ast = cache.get(a).get();
+        Assert.assertSame(ast, cache.get(a).get());
+        Assert.assertSame(ast, cache.get(a).get());
+
+        Assert.assertEquals(1, parsed);
+        Assert.assertEquals(2, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+        Assert.assertEquals(2.0 / 3, cache.getHitRate(), 0.001);
+    }
+
+    @Test
+    public void testChangedFileIsParsedAgain() {
+        final CompilationUnit ast = cache.get(a).get();
+        stamps.put(a, 2L);
+
+        Assert.assertNotSame(ast, cache.get(a).get());
+        Assert.assertEquals(2, parsed);
+        Assert.assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testUnsavedFileIsNotCached() {
+        stamps.put(a, -1L);
+        cache.get(a);
+        cache.get(a);
+
+        Assert.assertEquals(2, parsed);
+        Assert.assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsDropped() {
+        cache.get(a);
+        cache.get(b);
+        cache.get(a);
+        cache.get(c);
+        Assert.assertEquals(3, parsed);
+
+        cache.get(a);
+        Assert.assertEquals(3, parsed);
+        cache.get(b);
+        Assert.assertEquals(4, parsed);
+    }
+}
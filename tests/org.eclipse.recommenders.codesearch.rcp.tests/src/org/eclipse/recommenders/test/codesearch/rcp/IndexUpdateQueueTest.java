@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+package org.eclipse.recommenders.test.codesearch.rcp;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.recommenders.internal.codesearch.rcp.IndexUpdateQueue;
+import org.eclipse.recommenders.internal.codesearch.rcp.IndexUpdateQueue.IUpdateHandler;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+public class IndexUpdateQueueTest {
+
+    private static final long WINDOW = 50;
+
+    private final List<String> applied = Lists.newArrayList();
+    private final AtomicInteger batches = new AtomicInteger();
+    private IndexUpdateQueue<String> queue;
+
+    @Before
+    public void setUp() {
+        queue = new IndexUpdateQueue<String>(new IUpdateHandler<String>() {
+
+            @Override
+            public void update(final String element) {
+                record("update " + element);
+            }
+
+            @Override
+            public void remove(final String element) {
+                record("remove " + element);
+            }
+
+            @Override
+            public void beginBatch() {
+            }
+
+            @Override
+            public void endBatch() {
+                batches.incrementAndGet();
+            }
+
+            @Override
+            public void failed(final String element, final Exception e) {
+                record("failed " + element);
+            }
+        }, WINDOW);
+    }
+
+    @After
+    public void tearDown() {
+        queue.dispose();
+    }
+
+    @Test
+    public void testRepeatedSavesAreCoalesced() throws InterruptedException {
+        queue.update("A");
+        queue.update("A");
+        queue.update("B");
+        queue.update("A");
+        Assert.assertEquals(2, queue.getQueueDepth());
+
+        awaitProcessed(2);
+        Assert.assertEquals(Sets.newHashSet("update A", "update B"), Sets.newHashSet(applied()));
+        Assert.assertEquals(4, queue.getEnqueued());
+        Assert.assertEquals(0, queue.getQueueDepth());
+    }
+
+    @Test
+    public void testAddRemoveAddCollapsesToLastOperation() throws InterruptedException {
+        queue.update("A");
+        queue.remove("A");
+        queue.update("A");
+        queue.update("B");
+        queue.remove("B");
+
+        awaitProcessed(2);
+        Assert.assertEquals(Sets.newHashSet("update A", "remove B"), Sets.newHashSet(applied()));
+    }
+
+    @Test
+    public void testNothingIsAppliedWithinWindow() throws InterruptedException {
+        queue.setWindow(10000);
+        queue.update("A");
+        Thread.sleep(2 * WINDOW);
+
+        Assert.assertTrue(applied().isEmpty());
+        Assert.assertEquals(1, queue.getQueueDepth());
+    }
+
+    @Test
+    public void testTasksRunWithoutWaitingForWindow() throws InterruptedException {
+        queue.setWindow(10000);
+        queue.update("A");
+        queue.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                record("task");
+            }
+        });
+
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (batches.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(Lists.newArrayList("task"), applied());
+        Assert.assertEquals(1, batches.get());
+        Assert.assertEquals(1, queue.getQueueDepth());
+    }
+
+    private synchronized void record(final String operation) {
+        applied.add(operation);
+    }
+
+    private synchronized List<String> applied() {
+        return Lists.newArrayList(applied);
+    }
+
+    private void awaitProcessed(final long count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (queue.getProcessed() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(count, queue.getProcessed());
+    }
+}
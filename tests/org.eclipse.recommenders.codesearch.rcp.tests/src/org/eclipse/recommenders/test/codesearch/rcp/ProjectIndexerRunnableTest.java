@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+package org.eclipse.recommenders.test.codesearch.rcp;
+
+import static org.eclipse.recommenders.internal.codesearch.rcp.ProjectIndexerRunnable.BATCH_SIZE;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.TermQuery;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.recommenders.codesearch.rcp.index.Fields;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexerConfigBean;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.ResourcePathIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.BindingIdentifierCache;
+import org.eclipse.recommenders.internal.codesearch.rcp.IndexUpdateService;
+import org.eclipse.recommenders.internal.codesearch.rcp.ProjectIndexerRunnable;
+import org.eclipse.recommenders.test.codesearch.rcp.indexer.LuceneInMemoryFixture;
+import org.eclipse.recommenders.tests.jdt.JavaProjectFixture;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+public class ProjectIndexerRunnableTest {
+
+    private static final long TIMESTAMP = 42L;
+    private static final String FIRST_WORKER = "worker-0";
+    private static final String BROKEN_UNIT = "Broken.java";
+
+    private final NullProgressMonitor monitor = new NullProgressMonitor();
+    private LuceneInMemoryFixture fixture;
+    private TrackingIndexer indexer;
+    private ExecutorService workers;
+    private IJavaProject project;
+
+    @Before
+    public void setUp() throws IOException {
+        IndexUpdateService.setBackgroundIndexerActive(false);
+        fixture = new LuceneInMemoryFixture();
+        indexer = new TrackingIndexer(fixture);
+        // the batches of a root are submitted in order, so the n-th batch runs on the n-th worker
+        workers = Executors.newFixedThreadPool(4, new ThreadFactoryBuilder().setNameFormat("worker-%d").build());
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    @Test
+    public void testParallelIndexingIndexesAllUnits() throws Exception {
+        final File root = createUnits("parallelIndexing", BATCH_SIZE + 1);
+
+        new ProjectIndexerRunnable(project, indexer, workers, TIMESTAMP).run(monitor);
+
+        Assert.assertEquals(BATCH_SIZE + 1, countClasses());
+        Assert.assertEquals(TIMESTAMP, indexer.lastIndexed(root));
+        Assert.assertEquals(0, indexer.inFlight.get());
+    }
+
+    @Test
+    public void testCancelWaitsForRunningWorkers() throws Exception {
+        final File root = createUnits("cancelledIndexing", BATCH_SIZE + 1);
+        indexer.cancelInSecondBatch = true;
+
+        new ProjectIndexerRunnable(project, indexer, workers, TIMESTAMP).run(monitor);
+
+        // the unit each batch was indexing when the job was cancelled is written, the rest is skipped
+        Assert.assertEquals(0, indexer.inFlight.get());
+        Assert.assertEquals(2, countClasses());
+        Assert.assertEquals(0, indexer.lastIndexed(root));
+    }
+
+    @Test
+    public void testSequentialIndexingIndexesAllBatches() throws Exception {
+        final File root = createUnits("sequentialIndexing", 2 * BATCH_SIZE + 1);
+
+        new ProjectIndexerRunnable(project, indexer, null, TIMESTAMP).run(monitor);
+
+        Assert.assertEquals(2 * BATCH_SIZE + 1, countClasses());
+        Assert.assertEquals(TIMESTAMP, indexer.lastIndexed(root));
+    }
+
+    @Test
+    public void testFailingUnitLeavesRootUnmarked() throws Exception {
+        // two batches with more than one unit each, so the broken unit always shares its batch
+        final File root = createUnits("failingUnit", BATCH_SIZE + 1, "public class Broken {}");
+
+        new ProjectIndexerRunnable(project, indexer, null, TIMESTAMP).run(monitor);
+
+        Assert.assertEquals(1, indexer.failed.get());
+        Assert.assertEquals(BATCH_SIZE + 1, countClasses());
+        Assert.assertEquals(0, indexer.lastIndexed(root));
+    }
+
+    @Test
+    public void testEachBatchSharesOneIdentifierCache() throws Exception {
+        createUnits("identifierCache", 2 * BATCH_SIZE + 1);
+
+        new ProjectIndexerRunnable(project, indexer, null, TIMESTAMP).run(monitor);
+
+        // two full batches and one with the last unit
+        Assert.assertFalse(indexer.caches.contains(null));
+        Assert.assertEquals(3, indexer.caches.size());
+        Assert.assertNull(BindingIdentifierCache.current());
+    }
+
+    /**
+     * @return the location of the package fragment root the units were created in
+     */
+    private File createUnits(final String projectName, final int count, final String... sources) throws Exception {
+        final JavaProjectFixture projectFixture = new JavaProjectFixture(ResourcesPlugin.getWorkspace(), projectName);
+        ICompilationUnit unit = null;
+        for (int i = 0; i < count; i++) {
+            unit = projectFixture.createFileAndParseWithMarkers("public class Unit" + i + " {}").getFirst();
+        }
+        for (final String source : sources) {
+            unit = projectFixture.createFileAndParseWithMarkers(source).getFirst();
+        }
+        project = unit.getJavaProject();
+        return ResourcePathIndexer.getFile(unit.getParent().getParent());
+    }
+
+    private int countClasses() throws IOException {
+        return fixture.searcher.count(new TermQuery(new Term(Fields.TYPE, Fields.TYPE_CLASS)));
+    }
+
+    /**
+     * Counts the units being indexed and records the identifier caches they are indexed with. Fails to index
+     * {@value #BROKEN_UNIT}. Archives (i.e., the JRE) are reported as indexed already.
+     */
+    private final class TrackingIndexer extends CodeIndexer {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final Set<BindingIdentifierCache> caches = Sets.newIdentityHashSet();
+        private final CountDownLatch cancelled = new CountDownLatch(1);
+        /**
+         * The first batch waits until the second one cancels the job. The second batch is still writing when the
+         * first one is done.
+         */
+        private volatile boolean cancelInSecondBatch;
+
+        private TrackingIndexer(final LuceneInMemoryFixture fixture) throws IOException {
+            super(fixture.lwriter, fixture.searcher);
+        }
+
+        @Override
+        public boolean isUpToDate(final File location, final long timestamp) {
+            if (location.isFile() && !location.getName().endsWith(".java")) {
+                return true;
+            }
+            return super.isUpToDate(location, timestamp);
+        }
+
+        @Override
+        public void index(final CompilationUnit cu, final CodeIndexerConfigBean settings) throws IOException {
+            inFlight.incrementAndGet();
+            try {
+                synchronized (caches) {
+                    caches.add(BindingIdentifierCache.current());
+                }
+                if (BROKEN_UNIT.equals(cu.getTypeRoot().getElementName())) {
+                    failed.incrementAndGet();
+                    throw new IOException("Cannot index " + BROKEN_UNIT);
+                }
+                if (cancelInSecondBatch) {
+                    if (FIRST_WORKER.equals(Thread.currentThread().getName())) {
+                        await(cancelled);
+                    } else if (!monitor.isCanceled()) {
+                        monitor.setCanceled(true);
+                        cancelled.countDown();
+                        sleep(500);
+                    }
+                }
+                super.index(cu, settings);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
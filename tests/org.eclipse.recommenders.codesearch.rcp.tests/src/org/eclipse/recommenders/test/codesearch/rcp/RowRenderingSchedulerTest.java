@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+package org.eclipse.recommenders.test.codesearch.rcp;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.recommenders.codesearch.rcp.index.apidoc.RowRenderingScheduler;
+import org.eclipse.recommenders.codesearch.rcp.index.apidoc.RowRenderingScheduler.Session;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class RowRenderingSchedulerTest {
+
+    private final List<String> events = Lists.newArrayList();
+    private final CountDownLatch blocker = new CountDownLatch(1);
+    private RowRenderingScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new RowRenderingScheduler(1);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    public void testLatestVisibleRowsFirst() throws InterruptedException {
+        final Session session = scheduler.newSession();
+        block(session);
+        submit(session, 1);
+        submit(session, 2);
+        submit(session, 3);
+        session.setVisibleRows(2, 3);
+        blocker.countDown();
+
+        awaitEvents(3);
+        Assert.assertEquals(Lists.newArrayList("render 3", "render 2", "drop 1"), events());
+    }
+
+    @Test
+    public void testNewSessionCancelsPreviousRows() throws InterruptedException {
+        final Session first = scheduler.newSession();
+        block(first);
+        submit(first, 1);
+        submit(first, 2);
+
+        final Session second = scheduler.newSession();
+        Assert.assertTrue(first.isCancelled());
+        submit(first, 3);
+        submit(second, 4);
+        blocker.countDown();
+
+        awaitEvents(1);
+        Thread.sleep(50);
+        Assert.assertEquals(Lists.newArrayList("render 4"), events());
+    }
+
+    /**
+     * Occupies the only thread of the scheduler until {@link #blocker} is released, so that rows queue up.
+     */
+    private void block(final Session session) throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        session.submit(0, new Runnable() {
+
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    blocker.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, null);
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    private void submit(final Session session, final int row) {
+        session.submit(row, new Runnable() {
+
+            @Override
+            public void run() {
+                record("render " + row);
+            }
+        }, new Runnable() {
+
+            @Override
+            public void run() {
+                record("drop " + row);
+            }
+        });
+    }
+
+    private synchronized void record(final String event) {
+        events.add(event);
+    }
+
+    private synchronized List<String> events() {
+        return Lists.newArrayList(events);
+    }
+
+    private void awaitEvents(final int count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (events().size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(count, events().size());
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+package org.eclipse.recommenders.test.codesearch.rcp.indexer;
+
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.BindingHelper;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.BindingIdentifierCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BindingIdentifierCacheTest {
+
+    private static final String SOURCE = "class A { String a; String b; Object c; }";
+
+    @Test
+    public void testRepeatedBindingIsServedFromCache() {
+        final List<FieldDeclaration> fields = parseFields(SOURCE);
+
+        final BindingIdentifierCache cache = BindingIdentifierCache.open();
+        try {
+            final String a = BindingHelper.getIdentifier(fields.get(0)).get();
+            final String b = BindingHelper.getIdentifier(fields.get(1)).get();
+            BindingHelper.getIdentifier(fields.get(2));
+
+            Assert.assertEquals("Ljava/lang/String", a);
+            Assert.assertSame(a, b);
+            Assert.assertEquals(1, cache.getHits());
+            Assert.assertEquals(2, cache.getMisses());
+        } finally {
+            cache.close();
+        }
+        Assert.assertNull(BindingIdentifierCache.current());
+    }
+
+    @Test
+    public void testNestedScopesShareCache() {
+        final BindingIdentifierCache outer = BindingIdentifierCache.open();
+        try {
+            final BindingIdentifierCache inner = BindingIdentifierCache.open();
+            Assert.assertSame(outer, inner);
+            inner.close();
+            Assert.assertSame(outer, BindingIdentifierCache.current());
+        } finally {
+            outer.close();
+        }
+        Assert.assertNull(BindingIdentifierCache.current());
+    }
+
+    @Test
+    public void testNoCachingOutsideScope() {
+        final List<FieldDeclaration> fields = parseFields(SOURCE);
+
+        Assert.assertEquals("Ljava/lang/String", BindingHelper.getIdentifier(fields.get(0)).get());
+        Assert.assertNull(BindingIdentifierCache.current());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FieldDeclaration> parseFields(final String source) {
+        final ASTParser parser = ASTParser.newParser(AST.JLS4);
+        parser.setKind(ASTParser.K_COMPILATION_UNIT);
+        parser.setResolveBindings(true);
+        parser.setBindingsRecovery(true);
+        parser.setEnvironment(null, null, null, true);
+        parser.setUnitName("A.java");
+        parser.setSource(source.toCharArray());
+        final CompilationUnit cu = (CompilationUnit) parser.createAST(null);
+        final TypeDeclaration type = (TypeDeclaration) cu.types().get(0);
+        return (List<FieldDeclaration>) (List<?>) type.bodyDeclarations();
+    }
+}
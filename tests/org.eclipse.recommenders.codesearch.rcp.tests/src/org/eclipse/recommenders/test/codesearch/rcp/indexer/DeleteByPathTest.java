@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+package org.eclipse.recommenders.test.codesearch.rcp.indexer;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.lucene.document.Document;
+import org.eclipse.recommenders.codesearch.rcp.index.Fields;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DeleteByPathTest {
+
+    private final File project = new File(new File("workspace").getAbsoluteFile(), "Project");
+    private final File projectWithSamePrefix = new File(new File("workspace").getAbsoluteFile(), "Project2");
+
+    @Test
+    public void testDeleteSingleFile() throws IOException {
+        final LuceneInMemoryFixture fixture = new LuceneInMemoryFixture();
+        final File a = new File(project, "src/A.java");
+        addDocuments(fixture.index, a, 2);
+        addDocuments(fixture.index, new File(project, "src/B.java"), 1);
+
+        fixture.index.delete(a);
+        fixture.index.commit();
+
+        Assert.assertEquals(1, fixture.lwriter.numDocs());
+    }
+
+    @Test
+    public void testDeleteAllBelowFolder() throws IOException {
+        final LuceneInMemoryFixture fixture = new LuceneInMemoryFixture();
+        addDocuments(fixture.index, new File(project, "src/A.java"), 2);
+        addDocuments(fixture.index, new File(project, "src/p/B.java"), 3);
+        addDocuments(fixture.index, new File(projectWithSamePrefix, "src/C.java"), 1);
+
+        fixture.index.deleteAllBelow(project);
+        fixture.index.commit();
+
+        Assert.assertEquals(1, fixture.lwriter.numDocs());
+    }
+
+    private void addDocuments(final CodeIndexer index, final File file, final int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            final Document doc = new Document();
+            CodeIndexer.addFieldToDocument(doc, Fields.RESOURCE_PATH, file.getAbsolutePath());
+            index.addDocument(doc);
+        }
+    }
+}
@@ -10,14 +10,26 @@
  */
 package org.eclipse.recommenders.test.codesearch.rcp.indexer;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
 import junit.framework.Assert;
 
+import org.apache.lucene.document.Document;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.recommenders.codesearch.rcp.index.Fields;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.DocumentTypeIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.ResourcePathIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IClassIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IIndexer;
 import org.eclipse.recommenders.test.codesearch.AbstractTestIndex;
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+
 public class IndexCompilationUnitMultipleTimesTest extends AbstractTestIndex {
 
     @Test
@@ -65,4 +77,39 @@ public class IndexCompilationUnitMultipleTimesTest extends AbstractTestIndex {
         index.commit();
         Assert.assertEquals(1, getSearchIndexer().getDocuments().size());
     }
+
+    @Test
+    public void testFailedIndexingKeepsPreviousDocuments() throws Exception {
+
+        final CompilationUnit cu = getSampleCompilationUnit();
+        final File location = ResourcePathIndexer.getFile(cu);
+
+        newIndex();
+        final CodeIndexer index = getIndexer();
+
+        index.index(cu, Lists.<IIndexer> newArrayList(new ResourcePathIndexer(), new DocumentTypeIndexer()));
+        index.commit();
+        final long lastIndexed = index.lastIndexed(location);
+        Thread.sleep(5);
+
+        final List<IIndexer> failing = Lists.<IIndexer> newArrayList(new ResourcePathIndexer(), new IClassIndexer() {
+
+            @Override
+            public void indexType(final Document document, final TypeDeclaration type) {
+                throw new IllegalStateException();
+            }
+        });
+        try {
+            index.index(cu, failing);
+            Assert.fail();
+        } catch (final IOException e) {
+            // expected
+        }
+        index.commit();
+
+        final List<Document> docs = getSearchIndexer().getDocuments();
+        Assert.assertEquals(1, docs.size());
+        Assert.assertEquals(Fields.TYPE_CLASS, docs.get(0).get(Fields.TYPE));
+        Assert.assertEquals(lastIndexed, index.lastIndexed(location));
+    }
 }
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+package org.eclipse.recommenders.test.codesearch.rcp.indexer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.IndexManifest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IndexManifestTest {
+
+    private File store;
+    private File a;
+    private File b;
+
+    @Before
+    public void setUp() throws IOException {
+        store = File.createTempFile("manifest", ".bin");
+        store.delete();
+        a = createFile("class A {}");
+        b = createFile("class B {}");
+    }
+
+    @After
+    public void tearDown() {
+        store.delete();
+        a.delete();
+        b.delete();
+    }
+
+    @Test
+    public void testEntriesSurviveReload() throws IOException {
+        final IndexManifest manifest = new IndexManifest(store);
+        manifest.setLastIndexed(a, 100L);
+        manifest.setLastIndexed(b, 200L);
+        manifest.setComplete();
+        manifest.flush();
+
+        manifest.remove(b);
+        manifest.setLastIndexed(a, 300L);
+        manifest.flush();
+
+        final IndexManifest reloaded = new IndexManifest(store);
+        Assert.assertTrue(reloaded.isComplete());
+        Assert.assertEquals(Long.valueOf(300L), reloaded.getLastIndexed(a).get());
+        Assert.assertFalse(reloaded.getLastIndexed(b).isPresent());
+    }
+
+    @Test
+    public void testTruncatedRecordIsIgnored() throws IOException {
+        final IndexManifest manifest = new IndexManifest(store);
+        manifest.setLastIndexed(a, 100L);
+        manifest.flush();
+        manifest.setLastIndexed(b, 200L);
+        manifest.flush();
+
+        final RandomAccessFile raf = new RandomAccessFile(store, "rw");
+        try {
+            raf.setLength(raf.length() - 3);
+        } finally {
+            raf.close();
+        }
+
+        final IndexManifest reloaded = new IndexManifest(store);
+        Assert.assertEquals(Long.valueOf(100L), reloaded.getLastIndexed(a).get());
+        Assert.assertFalse(reloaded.getLastIndexed(b).isPresent());
+    }
+
+    @Test
+    public void testTouchedFileWithSameContent() throws IOException {
+        final IndexManifest manifest = new IndexManifest();
+        manifest.setLastIndexed(a, 100L);
+
+        Assert.assertTrue(manifest.hasSameContent(a, 500L));
+        Assert.assertEquals(Long.valueOf(500L), manifest.getLastIndexed(a).get());
+
+        write(a, "class A { int changed; }");
+        Assert.assertFalse(manifest.hasSameContent(a, 600L));
+    }
+
+    @Test
+    public void testChangesAfterCheckpointWaitForNextFlush() throws IOException {
+        final IndexManifest manifest = new IndexManifest(store);
+        manifest.setLastIndexed(a, 100L);
+        final IndexManifest.Checkpoint checkpoint = manifest.checkpoint();
+        // recorded while the index commits
+        manifest.setLastIndexed(b, 200L);
+        manifest.flush(checkpoint);
+
+        IndexManifest reloaded = new IndexManifest(store);
+        Assert.assertEquals(Long.valueOf(100L), reloaded.getLastIndexed(a).get());
+        Assert.assertFalse(reloaded.getLastIndexed(b).isPresent());
+
+        manifest.flush(manifest.checkpoint());
+        reloaded = new IndexManifest(store);
+        Assert.assertEquals(Long.valueOf(200L), reloaded.getLastIndexed(b).get());
+    }
+
+    @Test
+    public void testFileChangedWhileIndexedIsNotUpToDate() throws IOException {
+        final IndexManifest manifest = new IndexManifest();
+        final long hash = IndexManifest.contentHash(a);
+        write(a, "class A { int changed; }");
+        manifest.setLastIndexed(a, 100L, hash);
+
+        Assert.assertFalse(manifest.hasSameContent(a, 500L));
+    }
+
+    private File createFile(final String content) throws IOException {
+        final File file = File.createTempFile("manifest", ".java");
+        write(file, content);
+        return file;
+    }
+
+    private void write(final File file, final String content) throws IOException {
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -13,15 +13,19 @@ package org.eclipse.recommenders.test.codesearch.rcp.indexer;
 import java.io.File;
 import java.util.List;
 
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.NumericField;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.recommenders.codesearch.rcp.index.Fields;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.ResourcePathIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.TimestampIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IIndexer;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.CompilationUnitHelper;
+import org.eclipse.recommenders.codesearch.rcp.index.searcher.CodeSearcher;
 import org.eclipse.recommenders.test.codesearch.AbstractTestIndex;
 import org.junit.Assert;
 import org.junit.Test;
@@ -47,8 +51,6 @@ public class LastIndexedTimestampTest extends AbstractTestIndex {
 
         final CompilationUnit cu = CompilationUnitHelper.parse(icu);
 
-        TimestampIndexer.updateCurrentTimestamp();
-
         index.index(cu, indexer);
         index.commit();
 
@@ -56,4 +58,34 @@ public class LastIndexedTimestampTest extends AbstractTestIndex {
 
         Assert.assertTrue(lastUpdated > 0);
     }
+
+    @Test
+    public void testOneNumericTimestampPerJob() throws Exception {
+        final CompilationUnit cu = getSampleCompilationUnit();
+
+        newIndex();
+        final CodeIndexer index = getIndexer();
+
+        final List<IIndexer> indexer = Lists.newArrayList();
+        indexer.add(new ResourcePathIndexer());
+        final TimestampIndexer timestamp = new TimestampIndexer();
+        indexer.add(timestamp);
+
+        final long jobStart = timestamp.getTime();
+        Thread.sleep(5);
+        Assert.assertEquals(jobStart, timestamp.getTime());
+
+        index.index(cu, indexer);
+        index.commit();
+
+        final CodeSearcher searcher = getSearchIndexer();
+        Assert.assertFalse(searcher.search(CodeSearcher.indexedSince(jobStart), null).isEmpty());
+        Assert.assertTrue(searcher.search(CodeSearcher.indexedSince(jobStart + 1), null).isEmpty());
+        Assert.assertFalse(searcher.search(Fields.TIMESTAMP + ":[" + jobStart + " TO *]").isEmpty());
+
+        for (final Document doc : searcher.getDocuments()) {
+            Assert.assertEquals(jobStart, ((NumericField) doc.getFieldable(Fields.TIMESTAMP)).getNumericValue()
+                    .longValue());
+        }
+    }
 }
@@ -15,16 +15,14 @@ import static org.eclipse.recommenders.utils.Throws.throwUnhandledException;
 import java.io.IOException;
 
 import org.apache.lucene.analysis.Analyzer;
-import org.apache.lucene.document.Field.Index;
-import org.apache.lucene.document.Field.Store;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.queryParser.QueryParser;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.store.RAMDirectory;
 import org.apache.lucene.util.Version;
+import org.eclipse.recommenders.codesearch.rcp.index.FieldSchema;
 import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexer;
-import org.eclipse.recommenders.codesearch.rcp.index.indexer.strategy.IFieldIndexingStrategy;
 import org.eclipse.recommenders.codesearch.rcp.index.searcher.CodeSearcher;
 import org.eclipse.recommenders.internal.codesearch.rcp.CodesearchIndexModule;
 
@@ -51,25 +49,13 @@ public class LuceneInMemoryFixture {
 
             lqueryParser = factory.queryParser(lversion, lanalyzer);
             lsearcher = new IndexSearcher(lreader);
-            searcher = new CodeSearcher(lsearcher, lreader, lqueryParser);
+            searcher = new CodeSearcher(lsearcher, lqueryParser);
             index = new CodeIndexer(lwriter, searcher);
 
-            CodeIndexer.setIndexingFieldInformationProvider(new TestFieldIndexingStrategy());
+            CodeIndexer.setFieldSchema(FieldSchema.getDefault().withAllFieldsStored());
 
         } catch (final IOException e) {
             throwUnhandledException(e);
         }
     }
-
-    private class TestFieldIndexingStrategy implements IFieldIndexingStrategy {
-        @Override
-        public Store getStore(String fieldName) {
-            return Store.YES;
-        }
-
-        @Override
-        public Index getIndex(String fieldName) {
-            return Index.ANALYZED;
-        }
-    }
 }
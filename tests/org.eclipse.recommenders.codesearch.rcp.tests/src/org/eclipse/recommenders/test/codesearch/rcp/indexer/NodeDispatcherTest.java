@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+package org.eclipse.recommenders.test.codesearch.rcp.indexer;
+
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.INodeHandler;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.visitor.NodeDispatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class NodeDispatcherTest {
+
+    private static final String SOURCE = "class A { int f; void m() { foo(bar(f)); } void n() { baz(); } }";
+
+    @Test
+    public void testSeesSameNodesAsVisitor() {
+        final CompilationUnit cu = parse(SOURCE);
+
+        final List<String> expected = Lists.newArrayList();
+        cu.accept(new ASTVisitor() {
+            @Override
+            public boolean visit(final SimpleName node) {
+                expected.add(node.getIdentifier());
+                return true;
+            }
+        });
+
+        final List<String> actual = Lists.newArrayList();
+        new NodeDispatcher().register(new INodeHandler() {
+            @Override
+            public boolean handle(final ASTNode node) {
+                actual.add(((SimpleName) node).getIdentifier());
+                return true;
+            }
+        }, ASTNode.SIMPLE_NAME).dispatch(cu);
+
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testSkippedSubtreeOnlyAffectsOneHandler() {
+        final CompilationUnit cu = parse(SOURCE);
+
+        final List<String> skipping = Lists.newArrayList();
+        final List<String> descending = Lists.newArrayList();
+
+        final NodeDispatcher dispatcher = new NodeDispatcher();
+        dispatcher.register(new INodeHandler() {
+            @Override
+            public boolean handle(final ASTNode node) {
+                if (node.getNodeType() == ASTNode.SIMPLE_NAME) {
+                    skipping.add(((SimpleName) node).getIdentifier());
+                }
+                return node.getNodeType() != ASTNode.METHOD_DECLARATION;
+            }
+        }, ASTNode.METHOD_DECLARATION, ASTNode.SIMPLE_NAME);
+        dispatcher.register(new INodeHandler() {
+            @Override
+            public boolean handle(final ASTNode node) {
+                descending.add(((SimpleName) node).getIdentifier());
+                return true;
+            }
+        }, ASTNode.SIMPLE_NAME);
+        dispatcher.dispatch(cu);
+
+        Assert.assertEquals(Lists.newArrayList("A", "f"), skipping);
+        Assert.assertEquals(Lists.newArrayList("A", "f", "m", "foo", "bar", "f", "n", "baz"), descending);
+    }
+
+    private CompilationUnit parse(final String source) {
+        final ASTParser parser = ASTParser.newParser(AST.JLS4);
+        parser.setKind(ASTParser.K_COMPILATION_UNIT);
+        parser.setSource(source.toCharArray());
+        return (CompilationUnit) parser.createAST(null);
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+package org.eclipse.recommenders.test.codesearch.rcp.indexer;
+
+import java.util.List;
+import java.util.Set;
+
+import org.apache.lucene.document.Document;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.recommenders.codesearch.rcp.index.Fields;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.DocumentTypeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.SnippetRangesIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.VariableNameIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.interfaces.IIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.CompilationUnitHelper;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.utils.SourceRanges;
+import org.eclipse.recommenders.test.codesearch.AbstractTestIndex;
+import org.eclipse.recommenders.tests.jdt.JavaProjectFixture;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+public class SnippetRangesIndexerTest extends AbstractTestIndex {
+
+    @Test
+    public void testRangesResolveAgainstSource() throws Exception {
+        final JavaProjectFixture fixture = new JavaProjectFixture(ResourcesPlugin.getWorkspace(), "testProject");
+        final ICompilationUnit icu = fixture.createFileAndParseWithMarkers(
+                "public class SnippetTest {\n" //
+                        + "    /** docs */\n" //
+                        + "    void fill(java.util.List<String> list) {\n" //
+                        + "        int size = 1;\n" //
+                        + "        list.add(\"a\");\n" //
+                        + "        list.clear();\n" //
+                        + "    }\n" //
+                        + "}").getFirst();
+
+        newIndex();
+        final CodeIndexer index = getIndexer();
+        final List<IIndexer> indexer = Lists.<IIndexer> newArrayList(new DocumentTypeIndexer(),
+                new VariableNameIndexer(), new SnippetRangesIndexer());
+        index.index(CompilationUnitHelper.parse(icu), indexer);
+        index.commit();
+
+        final IBuffer buffer = icu.getBuffer();
+        final Document method = single(Fields.TYPE + ":" + Fields.TYPE_METHOD);
+        final SourceRanges methodRanges = SourceRanges.parse(method.get(Fields.SNIPPET_RANGES)).get();
+        Assert.assertTrue(methodRanges.isValid(buffer, "fill"));
+        Assert.assertFalse(methodRanges.isValid(buffer, "clear"));
+        Assert.assertTrue(methodRanges.getDeclaration(buffer).startsWith("void fill("));
+
+        final Document list = single(Fields.VARIABLE_NAME + ":list");
+        final SourceRanges listRanges = SourceRanges.parse(list.get(Fields.SNIPPET_RANGES)).get();
+        Assert.assertTrue(listRanges.isValid(buffer, "list"));
+        Assert.assertEquals(Lists.newArrayList("list.add(\"a\");", "list.clear();"), listRanges.getStatements(buffer));
+    }
+
+    @Test
+    public void testSameNamedVariablesKeepTheirOwnStatements() throws Exception {
+        final JavaProjectFixture fixture = new JavaProjectFixture(ResourcesPlugin.getWorkspace(), "testProject");
+        final ICompilationUnit icu = fixture.createFileAndParseWithMarkers(
+                "public class ShadowTest {\n" //
+                        + "    void run() {\n" //
+                        + "        {\n" //
+                        + "            StringBuilder b = new StringBuilder();\n" //
+                        + "            b.append(\"a\");\n" //
+                        + "        }\n" //
+                        + "        {\n" //
+                        + "            java.util.List<String> b = null;\n" //
+                        + "            b.clear();\n" //
+                        + "        }\n" //
+                        + "    }\n" //
+                        + "}").getFirst();
+
+        newIndex();
+        final CodeIndexer index = getIndexer();
+        final List<IIndexer> indexer = Lists.<IIndexer> newArrayList(new DocumentTypeIndexer(),
+                new VariableNameIndexer(), new SnippetRangesIndexer());
+        index.index(CompilationUnitHelper.parse(icu), indexer);
+        index.commit();
+
+        final IBuffer buffer = icu.getBuffer();
+        final Set<List<String>> statements = Sets.newHashSet();
+        for (final Document variable : getSearchIndexer().search(Fields.VARIABLE_NAME + ":b")) {
+            statements.add(SourceRanges.parse(variable.get(Fields.SNIPPET_RANGES)).get().getStatements(buffer));
+        }
+        final Set<List<String>> expected = Sets.newHashSet();
+        expected.add(Lists.newArrayList("b = new StringBuilder()", "b.append(\"a\");"));
+        expected.add(Lists.newArrayList("b = null", "b.clear();"));
+        Assert.assertEquals(expected, statements);
+    }
+
+    private Document single(final String query) throws Exception {
+        final List<Document> docs = getSearchIndexer().search(query);
+        Assert.assertEquals(1, docs.size());
+        return docs.get(0);
+    }
+}
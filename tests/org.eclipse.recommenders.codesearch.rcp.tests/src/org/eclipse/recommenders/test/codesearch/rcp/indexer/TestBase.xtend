@@ -174,10 +174,11 @@ class TestBase extends AbstractTestBase {
         val cu = struct.first;
         var cuParsed = parse(cu);
 
-        var visitor = new CompilationUnitVisitor(index);
+        var visitor = new CompilationUnitVisitor();
         visitor.addIndexer(indexer);
 
         cuParsed.accept(visitor)
+        index.addDocuments(visitor.documents)
         index.commit
 
         return index
@@ -625,10 +625,11 @@ class TestGeneralScenarios extends TestBase {
         val cu = struct.first;
         var cuParsed = parse(cu);
 
-        var visitor = new CompilationUnitVisitor(f.index);
+        var visitor = new CompilationUnitVisitor();
         visitor.addIndexer(i(newArrayList(new ResourcePathIndexer(), new DocumentTypeIndexer())));
 
         cuParsed.accept(visitor)
+        f.index.addDocuments(visitor.documents)
         f.index.commit
 
         assertField(
@@ -653,10 +654,11 @@ class TestGeneralScenarios extends TestBase {
         val cu = struct.first;
         var cuParsed = parse(cu);
 
-        var visitor = new CompilationUnitVisitor(f.index);
+        var visitor = new CompilationUnitVisitor();
         visitor.addIndexer(i(newArrayList(new ResourcePathIndexer(), new DocumentTypeIndexer())));
 
         cuParsed.accept(visitor)
+        f.index.addDocuments(visitor.documents)
         f.index.commit
 
         assertField(
@@ -680,10 +682,11 @@ class TestGeneralScenarios extends TestBase {
         val cu = struct.first;
         var cuParsed = parse(cu);
 
-        var visitor = new CompilationUnitVisitor(f.index);
+        var visitor = new CompilationUnitVisitor();
         visitor.addIndexer(i(newArrayList(new ResourcePathIndexer(), new DocumentTypeIndexer())));
 
         cuParsed.accept(visitor)
+        f.index.addDocuments(visitor.documents)
         f.index.commit
 
         assertField(
@@ -710,10 +713,11 @@ class TestGeneralScenarios extends TestBase {
         val cu = struct.first;
         var cuParsed = parse(cu);
 
-        var visitor = new CompilationUnitVisitor(f.index);
+        var visitor = new CompilationUnitVisitor();
         visitor.addIndexer(i(newArrayList(new ResourcePathIndexer(), new DocumentTypeIndexer())));
 
         cuParsed.accept(visitor)
+        f.index.addDocuments(visitor.documents)
         f.index.commit
         assertField(
             l(
@@ -741,10 +745,11 @@ class TestGeneralScenarios extends TestBase {
         val cu = struct.first;
         var cuParsed = parse(cu);
 
-        var visitor = new CompilationUnitVisitor(f.index);
+        var visitor = new CompilationUnitVisitor();
         visitor.addIndexer(i(newArrayList(new ResourcePathIndexer(), new DocumentTypeIndexer())));
 
         cuParsed.accept(visitor)
+        f.index.addDocuments(visitor.documents)
         f.index.commit
 
         assertField(
@@ -1160,13 +1165,11 @@ class TestGeneralScenarios extends TestBase {
 
         exercise(code, i(newArrayList(new DocumentTypeIndexer(), new FullTextIndexer())))
 
-        assertField(
+        assertFieldStartsWith(
             l(
                 newArrayList(
                     s(Fields::TYPE, Fields::TYPE_METHOD),
-                    s(Fields::FULL_TEXT,
-                        '''public static void theEasiestMethodEver(){
-}'''.toString)
+                    s(Fields::FULL_TEXT, '''public static void theEasiestMethodEver() {'''.toString)
                 )))
     }
 
@@ -1186,13 +1189,11 @@ class TestGeneralScenarios extends TestBase {
 
         exercise(code, i(newArrayList(new DocumentTypeIndexer(), new FullTextIndexer())))
 
-        assertField(
+        assertFieldStartsWith(
             l(
                 newArrayList(
                     s(Fields::TYPE, Fields::TYPE_TRYCATCH),
-                    s(Fields::FULL_TEXT,
-                        '''catch (Exception ex) {
-}'''.toString)
+                    s(Fields::FULL_TEXT, '''try {}'''.toString)
                 )))
     }
 
@@ -1558,15 +1559,15 @@ class TestGeneralScenarios extends TestBase {
                     }
                 '''
 
-                TimestampIndexer::updateCurrentTimestamp();
+                val timestamp = new TimestampIndexer();
 
-                exercise(code, i(newArrayList(new DocumentTypeIndexer(), new TimestampIndexer())))
+                exercise(code, i(newArrayList(new DocumentTypeIndexer(), timestamp)))
 
                 assertFieldStartsWith(
                     l(
                         newArrayList(
                             s(Fields::TYPE, Fields::TYPE_CLASS),
-                            s(Fields::TIMESTAMP, TimestampIndexer::getTimeString().substring(0, 8)) //This test obviously will fail from time to time
+                            s(Fields::TIMESTAMP, timestamp.getTimeString().substring(0, 8)) //This test obviously will fail from time to time
                         )))
             }
 
@@ -1579,15 +1580,15 @@ class TestGeneralScenarios extends TestBase {
                     }
                 '''
 
-                TimestampIndexer::updateCurrentTimestamp();
+                val timestamp = new TimestampIndexer();
 
-                exercise(code, i(newArrayList(new DocumentTypeIndexer(), new TimestampIndexer())))
+                exercise(code, i(newArrayList(new DocumentTypeIndexer(), timestamp)))
 
                 assertFieldStartsWith(
                     l(
                         newArrayList(
                             s(Fields::TYPE, Fields::TYPE_METHOD),
-                            s(Fields::TIMESTAMP, TimestampIndexer::getTimeString().substring(0, 8)) //This test obviously will fail from time to time
+                            s(Fields::TIMESTAMP, timestamp.getTimeString().substring(0, 8)) //This test obviously will fail from time to time
                         )))
             }
 
@@ -1599,15 +1600,15 @@ class TestGeneralScenarios extends TestBase {
                     }
                 '''
 
-                TimestampIndexer::updateCurrentTimestamp();
+                val timestamp = new TimestampIndexer();
 
-                exercise(code, i(newArrayList(new DocumentTypeIndexer(), new TimestampIndexer())))
+                exercise(code, i(newArrayList(new DocumentTypeIndexer(), timestamp)))
 
                 assertFieldStartsWith(
                     l(
                         newArrayList(
                             s(Fields::TYPE, Fields::TYPE_FIELD),
-                            s(Fields::TIMESTAMP, TimestampIndexer::getTimeString().substring(0, 8)) //This test obviously will fail from time to time
+                            s(Fields::TIMESTAMP, timestamp.getTimeString().substring(0, 8)) //This test obviously will fail from time to time
                         )))
             }
 
@@ -1624,15 +1625,15 @@ class TestGeneralScenarios extends TestBase {
                     }
                 '''
 
-                TimestampIndexer::updateCurrentTimestamp();
+                val timestamp = new TimestampIndexer();
 
-                exercise(code, i(newArrayList(new DocumentTypeIndexer(), new TimestampIndexer())))
+                exercise(code, i(newArrayList(new DocumentTypeIndexer(), timestamp)))
 
                 assertFieldStartsWith(
                     l(
                         newArrayList(
                             s(Fields::TYPE, Fields::TYPE_TRYCATCH),
-                            s(Fields::TIMESTAMP, TimestampIndexer::getTimeString().substring(0, 8)) //This test obviously will fail from time to time
+                            s(Fields::TIMESTAMP, timestamp.getTimeString().substring(0, 8)) //This test obviously will fail from time to time
                         )))
             }
         }
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+package org.eclipse.recommenders.test.codesearch.rcp.indexer.analyzer;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.lucene.analysis.KeywordTokenizer;
+import org.apache.lucene.analysis.Token;
+import org.apache.lucene.analysis.TokenStream;
+import org.eclipse.recommenders.codesearch.rcp.index.tokenizers.IdentifierSplitFilter;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Compares the regular expression based identifier splitting that {@link IdentifierSplitFilter} replaced with the
+ * filter itself. Not a test; run {@link #main(String[])} and compare the two lines it prints last.
+ */
+public class IdentifierSplitBenchmark {
+
+    private static final String[] SEGMENTS = { "get", "Set", "String", "Reader", "URL", "I", "Action", "Bars", "java",
+            "util", "Map", "Entry", "MAX", "VALUE", "html5", "Parser", "x" };
+    private static final char[] SEPARATORS = { '.', '_', '\0', '\0', '\0' };
+
+    public static void main(final String[] args) throws IOException {
+        final List<String> identifiers = createIdentifiers(20000);
+        for (int round = 0; round < 5; round++) {
+            final long regex = runRegex(identifiers);
+            final long filter = runFilter(identifiers);
+            System.out.println(String.format("regex split: %,d ns/identifier", regex / identifiers.size()));
+            System.out.println(String.format("filter:      %,d ns/identifier", filter / identifiers.size()));
+        }
+    }
+
+    private static List<String> createIdentifiers(final int count) {
+        final Random random = new Random(42);
+        final List<String> identifiers = Lists.newArrayListWithCapacity(count);
+        for (int i = 0; i < count; i++) {
+            final StringBuilder sb = new StringBuilder();
+            final int segments = 1 + random.nextInt(5);
+            for (int j = 0; j < segments; j++) {
+                if (j > 0) {
+                    final char separator = SEPARATORS[random.nextInt(SEPARATORS.length)];
+                    if (separator != '\0') {
+                        sb.append(separator);
+                    }
+                }
+                sb.append(SEGMENTS[random.nextInt(SEGMENTS.length)]);
+            }
+            identifiers.add(sb.toString());
+        }
+        return identifiers;
+    }
+
+    private static long runFilter(final List<String> identifiers) throws IOException {
+        final KeywordTokenizer input = new KeywordTokenizer(new StringReader(""));
+        final TokenStream stream = new IdentifierSplitFilter(input);
+        int tokens = 0;
+        final long start = System.nanoTime();
+        for (final String identifier : identifiers) {
+            input.reset(new StringReader(identifier));
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens++;
+            }
+        }
+        final long time = System.nanoTime() - start;
+        consume(tokens);
+        return time;
+    }
+
+    /**
+     * What the dot and camel case filters did per token before: regular expressions, a token object per part and
+     * offsets looked up with indexOf.
+     */
+    private static long runRegex(final List<String> identifiers) {
+        final LinkedList<Token> tokens = new LinkedList<Token>();
+        int count = 0;
+        final long start = System.nanoTime();
+        for (final String identifier : identifiers) {
+            final List<String> byDots = Lists.newArrayList(identifier);
+            addParts(identifier, identifier.split("[.]"), tokens);
+            while (!tokens.isEmpty()) {
+                byDots.add(tokens.removeFirst().term());
+            }
+            for (final String term : byDots) {
+                count++;
+                addParts(term, term.replaceAll("([A-Z][a-z])", "_$1").replaceAll("([a-z])([A-Z])", "$1_$2")
+                        .split("[_]"), tokens);
+                while (!tokens.isEmpty()) {
+                    tokens.removeFirst();
+                    count++;
+                }
+            }
+        }
+        final long time = System.nanoTime() - start;
+        consume(count);
+        return time;
+    }
+
+    private static void addParts(final String term, final String[] parts, final LinkedList<Token> tokens) {
+        if (parts.length > 1) {
+            for (final String part : parts) {
+                final int offset = term.indexOf(part);
+                final Token token = new Token(part, offset, offset + part.length());
+                token.setPositionIncrement(0);
+                tokens.add(token);
+            }
+        }
+    }
+
+    private static volatile int sink;
+
+    private static void consume(final int value) {
+        sink += value;
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+package org.eclipse.recommenders.test.codesearch.rcp.indexer.analyzer;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.apache.lucene.analysis.KeywordTokenizer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
+import org.apache.lucene.analysis.tokenattributes.PositionIncrementAttribute;
+import org.apache.lucene.analysis.tokenattributes.TermAttribute;
+import org.eclipse.recommenders.codesearch.rcp.index.tokenizers.CamelCaseTokenizer;
+import org.eclipse.recommenders.codesearch.rcp.index.tokenizers.DotSplitTokenizer;
+import org.eclipse.recommenders.codesearch.rcp.index.tokenizers.IdentifierSplitFilter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class IdentifierSplitFilterTest {
+
+    private static final String[] IDENTIFIERS = { "org.eclipse.ui.IActionBars", "FireFox", "StringReader",
+            "someCamelCaseString", "MAX_VALUE", "_Foo", "a_Bc", "foo.", ".foo", "a..b", "HTMLParser", "Html5Parser",
+            "getURLForX", "x", "I", "aB", "AbCd", "__init__", "java.util.Map.Entry", "fooBAR.bazQux_Q" };
+
+    @Test
+    public void testSameTokensAsRegexSplit() throws IOException {
+        for (final String identifier : IDENTIFIERS) {
+            Assert.assertEquals(identifier, regexSplit(identifier),
+                    terms(new IdentifierSplitFilter(keyword(identifier))));
+        }
+    }
+
+    @Test
+    public void testSameTokensAsFilterChain() throws IOException {
+        for (final String identifier : IDENTIFIERS) {
+            Assert.assertEquals(identifier, terms(new CamelCaseTokenizer(new DotSplitTokenizer(keyword(identifier)))),
+                    terms(new IdentifierSplitFilter(keyword(identifier))));
+        }
+    }
+
+    @Test
+    public void testOffsetsAndPositions() throws IOException {
+        final TokenStream stream = new IdentifierSplitFilter(keyword("ui.IActionBars"));
+        final TermAttribute term = stream.getAttribute(TermAttribute.class);
+        final OffsetAttribute offset = stream.getAttribute(OffsetAttribute.class);
+        final PositionIncrementAttribute position = stream.getAttribute(PositionIncrementAttribute.class);
+
+        final List<String> actual = Lists.newArrayList();
+        while (stream.incrementToken()) {
+            actual.add(term.term() + ":" + offset.startOffset() + "-" + offset.endOffset() + "+"
+                    + position.getPositionIncrement());
+        }
+        Assert.assertEquals(Lists.newArrayList("ui.IActionBars:0-14+1", "ui.I:0-4+0", "Action:4-10+0",
+                "Bars:10-14+0", "ui:0-2+0", "IActionBars:3-14+0", "I:3-4+0", "Action:4-10+0", "Bars:10-14+0"),
+                actual);
+    }
+
+    @Test
+    public void testReuseAfterReset() throws IOException {
+        final KeywordTokenizer input = keyword("fooBar");
+        final TokenStream stream = new IdentifierSplitFilter(input);
+        Assert.assertEquals(Lists.newArrayList("fooBar", "foo", "Bar"), terms(stream));
+
+        input.reset(new StringReader("a.b"));
+        stream.reset();
+        Assert.assertEquals(Lists.newArrayList("a.b", "a", "b"), terms(stream));
+    }
+
+    /**
+     * The splitting rules that used to be implemented with regular expressions, without the empty tokens they produced.
+     */
+    private List<String> regexSplit(final String identifier) {
+        final List<String> byDots = Lists.newArrayList(identifier);
+        byDots.addAll(split(identifier.split("[.]")));
+
+        final List<String> result = Lists.newArrayList();
+        for (final String term : byDots) {
+            result.add(term);
+            result.addAll(split(term.replaceAll("([A-Z][a-z])", "_$1").replaceAll("([a-z])([A-Z])", "$1_$2")
+                    .split("[_]")));
+        }
+        return result;
+    }
+
+    private List<String> split(final String[] parts) {
+        final List<String> result = Lists.newArrayList();
+        if (parts.length > 1) {
+            for (final String part : parts) {
+                if (part.length() > 0) {
+                    result.add(part);
+                }
+            }
+        }
+        return result;
+    }
+
+    private KeywordTokenizer keyword(final String text) {
+        return new KeywordTokenizer(new StringReader(text));
+    }
+
+    private List<String> terms(final TokenStream stream) throws IOException {
+        final TermAttribute term = stream.getAttribute(TermAttribute.class);
+        final List<String> result = Lists.newArrayList();
+        while (stream.incrementToken()) {
+            result.add(term.term());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+package org.eclipse.recommenders.test.codesearch.rcp.indexer.analyzer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Set;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.TermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+import org.eclipse.recommenders.codesearch.rcp.index.Fields;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.analyzer.JavaSourceCodeAnalyzer;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.analyzer.LowerCaseKeywordAnalyzer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+public class KeywordFieldAnalysisTest {
+
+    private static final String METHOD = "Ljava/lang/String.toString()Ljava/lang/String;";
+
+    @Test
+    public void testOnlyFullTextIsAnalyzed() throws IOException {
+        final RecordingAnalyzer analyzer = new RecordingAnalyzer();
+        final IndexWriter writer = new IndexWriter(new RAMDirectory(), new IndexWriterConfig(Version.LUCENE_35,
+                analyzer));
+
+        final Document doc = new Document();
+        CodeIndexer.addFieldToDocument(doc, Fields.USED_METHODS, METHOD);
+        CodeIndexer.addFieldToDocument(doc, Fields.VARIABLE_NAME, "myVar");
+        CodeIndexer.addFieldToDocument(doc, Fields.FULL_TEXT, "someCamelCaseString");
+        writer.addDocument(doc);
+        writer.commit();
+
+        Assert.assertEquals(Sets.newHashSet(Fields.FULL_TEXT), analyzer.analyzedFields);
+
+        final IndexReader reader = IndexReader.open(writer, true);
+        final IndexSearcher searcher = new IndexSearcher(reader);
+        Assert.assertEquals(1, count(searcher, Fields.USED_METHODS, METHOD.toLowerCase()));
+        Assert.assertEquals(1, count(searcher, Fields.VARIABLE_NAME, "myvar"));
+        Assert.assertEquals(1, count(searcher, Fields.FULL_TEXT, "camel"));
+
+        final Document stored = reader.document(0);
+        Assert.assertEquals("myVar", stored.get(Fields.VARIABLE_NAME));
+        searcher.close();
+        reader.close();
+        writer.close();
+    }
+
+    @Test
+    public void testTokenStreamIsReused() throws IOException {
+        final JavaSourceCodeAnalyzer analyzer = new JavaSourceCodeAnalyzer();
+        final TokenStream first = analyzer.reusableTokenStream(Fields.FULL_TEXT, new StringReader("fooBar"));
+        Assert.assertEquals(Sets.newHashSet("foobar", "foo", "bar"), terms(first));
+
+        final TokenStream second = analyzer.reusableTokenStream(Fields.FULL_TEXT, new StringReader("java.io.Reader"));
+        Assert.assertSame(first, second);
+        Assert.assertTrue(terms(second).containsAll(Sets.newHashSet("java.io.reader", "java", "io", "reader")));
+    }
+
+    @Test
+    public void testLowerCaseLikeFilter() {
+        final String value = "Ljava/lang/String;";
+        Assert.assertEquals("ljava/lang/string;", LowerCaseKeywordAnalyzer.toLowerCase(value));
+        final String lower = "already.lower";
+        Assert.assertSame(lower, LowerCaseKeywordAnalyzer.toLowerCase(lower));
+    }
+
+    private int count(final IndexSearcher searcher, final String field, final String term) throws IOException {
+        return searcher.search(new TermQuery(new Term(field, term)), 1).totalHits;
+    }
+
+    private Set<String> terms(final TokenStream stream) throws IOException {
+        final TermAttribute term = stream.getAttribute(TermAttribute.class);
+        final Set<String> result = Sets.newHashSet();
+        stream.reset();
+        while (stream.incrementToken()) {
+            result.add(term.term());
+        }
+        stream.end();
+        return result;
+    }
+
+    private static final class RecordingAnalyzer extends Analyzer {
+
+        private final Analyzer keyword = new LowerCaseKeywordAnalyzer(Version.LUCENE_35);
+        private final Analyzer source = new JavaSourceCodeAnalyzer();
+        private final Set<String> analyzedFields = Sets.newHashSet();
+
+        @Override
+        public TokenStream tokenStream(final String fieldName, final Reader reader) {
+            analyzedFields.add(fieldName);
+            return analyzer(fieldName).tokenStream(fieldName, reader);
+        }
+
+        @Override
+        public TokenStream reusableTokenStream(final String fieldName, final Reader reader) throws IOException {
+            analyzedFields.add(fieldName);
+            return analyzer(fieldName).reusableTokenStream(fieldName, reader);
+        }
+
+        private Analyzer analyzer(final String fieldName) {
+            return Fields.FULL_TEXT.equals(fieldName) ? source : keyword;
+        }
+    }
+}
@@ -12,16 +12,28 @@
 package org.eclipse.recommenders.test.codesearch.rcp.searcher;
 
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.queryParser.ParseException;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
 import org.eclipse.recommenders.codesearch.rcp.index.searcher.CodeSearcher;
+import org.eclipse.recommenders.codesearch.rcp.index.searcher.IDocumentHandler;
+import org.eclipse.recommenders.codesearch.rcp.index.searcher.SearchResult;
 import org.eclipse.recommenders.test.codesearch.AbstractTestIndex;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
 public class CodeSearcherTest extends AbstractTestIndex {
 
     @Test
@@ -46,4 +58,84 @@ public class CodeSearcherTest extends AbstractTestIndex {
         Assert.assertEquals(3, docs.size());
     }
 
+    @Test
+    public void testPagesCoverAllHitsOnce() throws IOException {
+        newIndex();
+        for (int i = 0; i < 5; i++) {
+            newDoc().addField(Fields.TYPE, Fields.TYPE_CLASS).addField(Fields.RESOURCE_PATH, "/p/C" + i + ".java");
+        }
+        finish();
+
+        final CodeSearcher sut = getSearchIndexer();
+        final Query query = new TermQuery(new Term(Fields.TYPE, Fields.TYPE_CLASS));
+
+        final SearchResult first = sut.lenientSearch(query, 2, null);
+        final SearchResult second = sut.lenientSearch(query, 2, first.getCursor());
+        final SearchResult third = sut.lenientSearch(query, 2, second.getCursor());
+
+        final Set<Integer> seen = Sets.newHashSet();
+        for (final SearchResult page : new SearchResult[] { first, second, third }) {
+            for (final ScoreDoc doc : page.scoreDocs()) {
+                Assert.assertTrue(seen.add(doc.doc));
+            }
+        }
+        Assert.assertEquals(5, seen.size());
+        Assert.assertEquals(1, third.scoreDocs().length);
+        Assert.assertEquals(5, sut.count(query));
+    }
+
+    @Test
+    public void testForEachStopsWhenHandlerIsDone() throws IOException {
+        newIndex().newDoc().newDoc().newDoc().finish();
+
+        final List<Document> seen = Lists.newArrayList();
+        getSearchIndexer().forEach(new MatchAllDocsQuery(), null, new IDocumentHandler() {
+
+            @Override
+            public boolean handle(final Document document) {
+                seen.add(document);
+                return seen.size() < 2;
+            }
+        });
+
+        Assert.assertEquals(2, seen.size());
+    }
+
+    @Test
+    public void testIteratorLoadsSelectedFieldsOfHitsOnly() throws IOException {
+        newIndex().newDoc().addField(Fields.TYPE, Fields.TYPE_METHOD).addField(Fields.JAVA_ELEMENT_HANDLE, "=p/a")
+                .newDoc().addField(Fields.TYPE, Fields.TYPE_CLASS).addField(Fields.JAVA_ELEMENT_HANDLE, "=p/b")
+                .newDoc().addField(Fields.TYPE, Fields.TYPE_CLASS).addField(Fields.JAVA_ELEMENT_HANDLE, "=p/c")
+                .finish();
+
+        final SearchResult result = getSearchIndexer().lenientSearch(
+                new TermQuery(new Term(Fields.TYPE, Fields.TYPE_CLASS)), 10);
+        final Set<String> handles = Sets.newHashSet();
+        for (final Iterator<Document> it = result.iterator(SearchResult.fields(Fields.JAVA_ELEMENT_HANDLE), 10); it
+                .hasNext();) {
+            final Document doc = it.next();
+            Assert.assertNull(doc.get(Fields.TYPE));
+            handles.add(doc.get(Fields.JAVA_ELEMENT_HANDLE));
+        }
+
+        Assert.assertEquals(Sets.newHashSet("=p/b", "=p/c"), handles);
+        Assert.assertFalse(result.iterator(null, 0).hasNext());
+    }
+
+    @Test
+    public void testRepeatedSearchIsCachedUntilIndexChanges() throws IOException {
+        newIndex().newDoc().addField(Fields.TYPE, Fields.TYPE_CLASS).finish();
+        final CodeSearcher sut = getSearchIndexer();
+        final Query query = new TermQuery(new Term(Fields.TYPE, Fields.TYPE_CLASS));
+
+        final SearchResult first = sut.lenientSearch(query, 10);
+        final SearchResult again = sut.lenientSearch(new TermQuery(new Term(Fields.TYPE, Fields.TYPE_CLASS)), 10);
+        Assert.assertSame(first.docs, again.docs);
+        Assert.assertNotSame(first.docs, sut.lenientSearch(query, 5).docs);
+
+        newDoc().addField(Fields.TYPE, Fields.TYPE_CLASS).finish();
+        final SearchResult changed = sut.lenientSearch(query, 10);
+        Assert.assertNotSame(first.docs, changed.docs);
+        Assert.assertEquals(2, changed.scoreDocs().length);
+    }
 }
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+package org.eclipse.recommenders.test.codesearch.rcp.searcher;
+
+import java.io.IOException;
+
+import org.apache.lucene.analysis.KeywordAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+import org.eclipse.recommenders.codesearch.rcp.index.searcher.IndexSearcherManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IndexSearcherManagerTest {
+
+    private IndexWriter writer;
+    private IndexSearcherManager sut;
+
+    @Before
+    public void setUp() throws IOException {
+        writer = new IndexWriter(new RAMDirectory(), new IndexWriterConfig(Version.LUCENE_35, new KeywordAnalyzer()));
+        addDocument();
+        sut = new IndexSearcherManager(new IndexSearcher(IndexReader.open(writer, true)));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        writer.close();
+    }
+
+    @Test
+    public void testSearchesDoNotSeeChangesBeforeRefresh() throws IOException {
+        addDocument();
+
+        Assert.assertEquals(1, numDocs());
+        Assert.assertTrue(sut.maybeRefresh());
+        Assert.assertEquals(2, numDocs());
+        Assert.assertFalse(sut.maybeRefresh());
+    }
+
+    @Test
+    public void testAcquiredSearcherSurvivesRefresh() throws IOException {
+        final IndexSearcher old = sut.acquire();
+        final long generation = sut.getGeneration();
+
+        addDocument();
+        sut.maybeRefresh();
+
+        Assert.assertTrue(sut.getGeneration() > generation);
+        Assert.assertEquals(1, old.getIndexReader().numDocs());
+        Assert.assertNotNull(old.doc(0));
+
+        sut.release(old);
+        Assert.assertEquals(0, old.getIndexReader().getRefCount());
+    }
+
+    @Test
+    public void testRefreshReplacesCurrentSearcher() throws IOException {
+        final IndexSearcher old = sut.acquire();
+        Assert.assertTrue(sut.isCurrent(old));
+
+        addDocument();
+        sut.maybeRefresh();
+
+        Assert.assertFalse(sut.isCurrent(old));
+        sut.release(old);
+    }
+
+        private void addDocument() throws IOException {
+        final Document doc = new Document();
+        doc.add(new Field("f", "v", Field.Store.YES, Field.Index.NOT_ANALYZED));
+        writer.addDocument(doc);
+    }
+
+    private int numDocs() throws IOException {
+        final IndexSearcher searcher = sut.acquire();
+        try {
+            return searcher.getIndexReader().numDocs();
+        } finally {
+            sut.release(searcher);
+        }
+    }
+}
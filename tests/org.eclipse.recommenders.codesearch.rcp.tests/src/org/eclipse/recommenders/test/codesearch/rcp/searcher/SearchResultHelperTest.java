@@ -11,46 +11,86 @@
 
 package org.eclipse.recommenders.test.codesearch.rcp.searcher;
 
-import org.junit.Ignore;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.eclipse.recommenders.codesearch.rcp.index.Fields;
+import org.eclipse.recommenders.codesearch.rcp.index.indexer.CodeIndexer;
+import org.eclipse.recommenders.codesearch.rcp.index.searcher.SearchResult;
+import org.eclipse.recommenders.codesearch.rcp.index.searcher.SearchResultHelper;
+import org.eclipse.recommenders.test.codesearch.rcp.indexer.LuceneInMemoryFixture;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
-@Ignore
 public class SearchResultHelperTest {
 
-    // @Test
-    // public void testIntersection() {
-    // TopDocs d1 = new TopDocs(2, new ScoreDoc[] { new ScoreDoc(2, 1), new
-    // ScoreDoc(3, 1) }, 0);
-    // TopDocs d2 = new TopDocs(2, new ScoreDoc[] { new ScoreDoc(3, 1), new
-    // ScoreDoc(4, 1) }, 0);
-    //
-    // TopDocs result = SearchResultHelper.getIntersection(d1, d2);
-    //
-    // assertEquals(1, result.scoreDocs.length);
-    // assertEquals(3, result.scoreDocs[0].doc);
-    // }
-    //
-    // @Test
-    // public void testIntersectionList() {
-    // TopDocs d1 = new TopDocs(2, new ScoreDoc[] { new ScoreDoc(2, 1), new
-    // ScoreDoc(3, 1), new ScoreDoc(4, 1),
-    // new ScoreDoc(5, 1) }, 0);
-    // TopDocs d2 = new TopDocs(2, new ScoreDoc[] { new ScoreDoc(1, 1), new
-    // ScoreDoc(3, 1), new ScoreDoc(4, 1),
-    // new ScoreDoc(5, 1) }, 0);
-    // TopDocs d3 = new TopDocs(2, new ScoreDoc[] { new ScoreDoc(6, 1), new
-    // ScoreDoc(3, 1), new ScoreDoc(4, 1),
-    // new ScoreDoc(9, 1) }, 0);
-    //
-    // List<TopDocs> list = Lists.newArrayList();
-    // list.add(d1);
-    // list.add(d2);
-    // list.add(d3);
-    //
-    // TopDocs result = SearchResultHelper.getIntersection(list);
-    //
-    // assertEquals(2, result.scoreDocs.length);
-    // assertEquals(3, result.scoreDocs[0].doc);
-    // assertEquals(4, result.scoreDocs[1].doc);
-    // }
+    private LuceneInMemoryFixture fixture;
+
+    @Before
+    public void setUp() throws IOException {
+        fixture = new LuceneInMemoryFixture();
+        // one commit per method so that the hits are spread over several segments
+        addUsages("LA.m()V", "LList", "LMap", "LSet");
+        addUsages("LA.n()V", "LList", "LMap");
+        addUsages("LB.m()V", "LList", "LSet");
+        addUsages("LB.n()V", "LMap");
+    }
+
+    @Test
+    public void testIntersection() throws IOException {
+        final SearchResult list = search("LList");
+        final SearchResult map = search("LMap");
+
+        final TopDocs result = SearchResultHelper.getIntersection(list.docs, map.docs, list.searcher);
+
+        assertEquals(Sets.newHashSet("LA.m()V", "LA.n()V"), declaringMethods(result, list));
+    }
+
+    @Test
+    public void testIntersectionListIsUniqueByDeclaringMethod() throws IOException {
+        final SearchResult list = search("LList");
+        final SearchResult map = search("LMap");
+        final SearchResult set = search("LSet");
+
+        final List<TopDocs> docs = Lists.newArrayList(list.docs, map.docs, set.docs);
+        final TopDocs result = SearchResultHelper.getIntersection(docs, list.searcher);
+
+        assertEquals(1, result.scoreDocs.length);
+        assertEquals(Sets.newHashSet("LA.m()V"), declaringMethods(result, list));
+    }
+
+    private void addUsages(final String method, final String... types) throws IOException {
+        final List<Document> docs = Lists.newArrayList();
+        for (final String type : types) {
+            final Document doc = new Document();
+            CodeIndexer.addFieldToDocument(doc, Fields.DECLARING_METHOD, method);
+            CodeIndexer.addFieldToDocument(doc, Fields.VARIABLE_TYPE, type);
+            docs.add(doc);
+        }
+        fixture.index.addDocuments(docs);
+        fixture.index.commit();
+    }
+
+    private SearchResult search(final String type) throws IOException {
+        return fixture.searcher.lenientSearch(new TermQuery(new Term(Fields.VARIABLE_TYPE, type.toLowerCase())));
+    }
 
+    private Set<String> declaringMethods(final TopDocs docs, final SearchResult result) throws IOException {
+        final Set<String> methods = Sets.newHashSet();
+        for (final ScoreDoc doc : docs.scoreDocs) {
+            methods.add(result.searcher.doc(doc.doc).get(Fields.DECLARING_METHOD));
+        }
+        return methods;
+    }
 }
@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+package org.eclipse.recommenders.test.codesearch.rcp.searcher;
+
+import java.util.List;
+
+import org.apache.lucene.document.Document;
+import org.eclipse.recommenders.codesearch.rcp.index.Fields;
+import org.eclipse.recommenders.codesearch.rcp.index.SimpleNames;
+import org.eclipse.recommenders.codesearch.rcp.index.searcher.converter.DotNotationMethodConverter;
+import org.eclipse.recommenders.codesearch.rcp.index.searcher.converter.DotNotationTypeConverter;
+import org.eclipse.recommenders.test.codesearch.AbstractTestIndex;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SimpleNameSearchTest extends AbstractTestIndex {
+
+    @Test
+    public void testSimpleNames() {
+        Assert.assertEquals("IWorkbench", SimpleNames.ofType("Lorg/eclipse/ui/IWorkbench").get());
+        Assert.assertEquals("Map$Entry", SimpleNames.ofType("[[Ljava/util/Map$Entry").get());
+        Assert.assertEquals("Foo", SimpleNames.ofType("LFoo").get());
+        Assert.assertFalse(SimpleNames.ofType("I").isPresent());
+        Assert.assertEquals("List.add", SimpleNames.ofMethod("Ljava/util/List.add(Ljava/lang/Object;)Z").get());
+        Assert.assertFalse(SimpleNames.getField(Fields.FULL_TEXT).isPresent());
+    }
+
+    @Test
+    public void testUnqualifiedTypeIsFoundBySimpleName() throws Exception {
+        newIndex().newDoc().addField(Fields.USED_TYPES, "Lorg/eclipse/ui/IWorkbench").newDoc()
+                .addField(Fields.USED_TYPES, "Lorg/eclipse/ui/IWorkbenchWindow").finish();
+
+        final String value = new DotNotationTypeConverter().convertFrom("IWorkbench");
+        Assert.assertEquals("L*/IWorkbench", value);
+        final List<Document> docs = getSearchIndexer().search(Fields.USED_TYPES + ":" + value);
+
+        Assert.assertEquals(1, docs.size());
+        Assert.assertEquals(2, getSearchIndexer().search(Fields.USED_TYPES + ":L*/IWorkbench*").size());
+    }
+
+    @Test
+    public void testUnqualifiedMethodIsFoundBySimpleName() throws Exception {
+        newIndex().newDoc().addField(Fields.USED_METHODS, "Ljava/util/List.add(Ljava/lang/Object;)Z").newDoc()
+                .addField(Fields.USED_METHODS, "Ljava/util/Set.add(Ljava/lang/Object;)Z").finish();
+
+        final String value = new DotNotationMethodConverter().convertFrom("List.add");
+        Assert.assertEquals("L*/List.add\\(*", value);
+
+        Assert.assertEquals(1, getSearchIndexer().search(Fields.USED_METHODS + ":" + value).size());
+        Assert.assertEquals(1, getSearchIndexer().search(Fields.USED_METHODS + ":Ljava/util/List.add\\(*").size());
+    }
+}
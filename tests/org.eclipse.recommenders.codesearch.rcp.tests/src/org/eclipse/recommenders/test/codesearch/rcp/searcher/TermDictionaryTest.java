@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2013 Kavith Thiranga Lokuhewage.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ * 
+ * Contributors:
+ *    Kavith Thiranga Lokuhewage - initial implementation.
+ */
+package org.eclipse.recommenders.test.codesearch.rcp.searcher;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.apache.lucene.analysis.KeywordAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+import org.eclipse.recommenders.codesearch.rcp.index.termvector.TermDictionary;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+public class TermDictionaryTest {
+
+    private IndexWriter writer;
+    private final TermDictionary sut = new TermDictionary();
+
+    @Before
+    public void setUp() throws IOException {
+        writer = new IndexWriter(new RAMDirectory(), new IndexWriterConfig(Version.LUCENE_35, new KeywordAnalyzer()));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        writer.close();
+    }
+
+    @Test
+    public void testDistinctTermsOfFieldOnly() throws IOException {
+        addDocument("a", "b");
+        addDocument("b", "c");
+        final Document other = new Document();
+        other.add(new Field("other", "x", Field.Store.NO, Field.Index.NOT_ANALYZED));
+        writer.addDocument(other);
+
+        Assert.assertEquals(Sets.newHashSet("a", "b", "c"), terms(open()));
+    }
+
+    @Test
+    public void testNewSegmentsAreMergedIn() throws IOException {
+        addDocument("a");
+        final IndexReader first = open();
+        Assert.assertEquals(Sets.newHashSet("a"), terms(first));
+
+        addDocument("b");
+        final IndexReader second = IndexReader.openIfChanged(first, writer, true);
+        first.close();
+        Assert.assertEquals(Sets.newHashSet("a", "b"), terms(second));
+        second.close();
+    }
+
+    @Test
+    public void testTermsOfMergedAwaySegmentsAreDropped() throws IOException {
+        addDocument("a");
+        final IndexReader first = open();
+        Assert.assertEquals(Sets.newHashSet("a"), terms(first));
+        first.close();
+
+        writer.deleteAll();
+        addDocument("b");
+        final IndexReader second = open();
+        Assert.assertEquals(Sets.newHashSet("b"), terms(second));
+        second.close();
+    }
+
+    private IndexReader open() throws IOException {
+        writer.commit();
+        return IndexReader.open(writer, true);
+    }
+
+    private Set<String> terms(final IndexReader reader) throws IOException {
+        final Set<String> terms = Sets.newHashSet();
+        sut.addTerms(reader, "f", terms);
+        return terms;
+    }
+
+    private void addDocument(final String... values) throws IOException {
+        final Document doc = new Document();
+        for (final String value : values) {
+            doc.add(new Field("f", value, Field.Store.NO, Field.Index.NOT_ANALYZED));
+        }
+        writer.addDocument(doc);
+    }
+}
@@ -15,10 +15,13 @@ import java.io.IOException;
 import java.util.Set;
 
 import org.eclipse.recommenders.codesearch.rcp.index.Fields;
+import org.eclipse.recommenders.codesearch.rcp.index.termvector.TermPattern;
 import org.eclipse.recommenders.test.codesearch.AbstractTestIndex;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.google.common.collect.Sets;
+
 public class TermVectorTest extends AbstractTestIndex {
 
     @Test
@@ -31,4 +34,31 @@ public class TermVectorTest extends AbstractTestIndex {
         Assert.assertTrue(vec.contains("testtermvector01"));
     }
 
+    @Test
+    public void testFilteredTermVector() throws IOException {
+        newIndex().newDoc().addField(Fields.USED_METHODS, "Ljava/util/List.add(Ljava/lang/Object;)Z")
+                .addField(Fields.USED_METHODS, "Ljava/util/List.size()I")
+                .addField(Fields.USED_METHODS, "Ljava/util/Map.size()I")
+                .addField(Fields.DECLARED_METHODS, "Ljava/util/Set.size()I").finish();
+        final String[] fields = { Fields.USED_METHODS, Fields.DECLARED_METHODS };
+
+        Assert.assertEquals(Sets.newHashSet("ljava/util/list.add(ljava/lang/object;)z", "ljava/util/list.size()i"),
+                getSearchIndexer().getTermVector(fields, TermPattern.compile("ljava/util/list."), 10));
+        Assert.assertEquals(
+                Sets.newHashSet("ljava/util/list.size()i", "ljava/util/map.size()i", "ljava/util/set.size()i"),
+                getSearchIndexer().getTermVector(fields, TermPattern.compile("ljava/*.size("), 10));
+        Assert.assertEquals(2, getSearchIndexer().getTermVector(fields, TermPattern.compile("ljava/util/"), 2).size());
+    }
+
+    @Test
+    public void testTermPattern() {
+        final TermPattern pattern = TermPattern.compile("ljava/*list*(i");
+
+        Assert.assertEquals("ljava/", pattern.getPrefix());
+        Assert.assertTrue(pattern.matches("ljava/util/list.get(i)ljava/lang/object;"));
+        Assert.assertFalse(pattern.matches("ljava/util/list.get()v"));
+        Assert.assertFalse(pattern.matches("lorg/list.get(i)v"));
+        Assert.assertTrue(TermPattern.compile("ljava/util/list.size()").matches("ljava/util/list.size()i"));
+    }
+
 }